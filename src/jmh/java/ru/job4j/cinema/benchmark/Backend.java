@@ -0,0 +1,10 @@
+package ru.job4j.cinema.benchmark;
+
+/**
+ * Where the repositories of a benchmark read from: plain in-memory stubs,
+ * which isolates the service code, or the real Sql2o repositories on embedded H2.
+ */
+enum Backend {
+    STUB,
+    H2
+}
@@ -0,0 +1,56 @@
+package ru.job4j.cinema.benchmark;
+
+import ru.job4j.cinema.model.File;
+import ru.job4j.cinema.model.Film;
+import ru.job4j.cinema.model.FilmSession;
+import ru.job4j.cinema.model.Genre;
+import ru.job4j.cinema.model.Hall;
+import ru.job4j.cinema.model.User;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Synthetic catalog shared by both backends: one film per ten sessions (at most 1000),
+ * sessions spread over five halls every 15 minutes.
+ */
+record BenchmarkData(List<Genre> genres,
+                     List<Hall> halls,
+                     List<File> files,
+                     List<Film> films,
+                     List<FilmSession> sessions,
+                     User user) {
+
+    static final int GENRE_COUNT = 10;
+    static final int HALL_COUNT = 5;
+    static final int MAX_FILMS = 1000;
+    private static final LocalDateTime FIRST_SESSION = LocalDateTime.of(2030, 1, 1, 10, 0);
+
+    static BenchmarkData generate(int sessionCount, int hallRows, int hallPlaces, Path posterDirectory) {
+        List<Genre> genres = new ArrayList<>();
+        for (int i = 1; i <= GENRE_COUNT; i++) {
+            genres.add(new Genre(i, "Genre " + i));
+        }
+        List<Hall> halls = new ArrayList<>();
+        for (int i = 1; i <= HALL_COUNT; i++) {
+            halls.add(new Hall(i, "Hall " + i, hallRows, hallPlaces, "Benchmark hall " + i));
+        }
+        int filmCount = Math.max(1, Math.min(sessionCount / 10, MAX_FILMS));
+        List<File> files = new ArrayList<>();
+        List<Film> films = new ArrayList<>();
+        for (int i = 1; i <= filmCount; i++) {
+            files.add(new File(i, "poster-" + i + ".jpg", posterDirectory.resolve("poster-" + i + ".jpg").toString()));
+            films.add(new Film(i, "Film " + i, "Description of film " + i, 2000 + i % 25,
+                    i % GENRE_COUNT + 1, i % 18, 90 + i % 60, i));
+        }
+        List<FilmSession> sessions = new ArrayList<>();
+        for (int i = 1; i <= sessionCount; i++) {
+            LocalDateTime start = FIRST_SESSION.plusMinutes(15L * i);
+            sessions.add(new FilmSession(i, i % filmCount + 1, i % HALL_COUNT + 1, start, start.plusHours(2), 300 + i % 5 * 50));
+        }
+        User user = new User(1, "Benchmark User", "bench@example.com", "password");
+        return new BenchmarkData(genres, halls, files, films, sessions, user);
+    }
+}
@@ -0,0 +1,118 @@
+package ru.job4j.cinema.benchmark;
+
+import liquibase.integration.spring.SpringLiquibase;
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.sql2o.Connection;
+import org.sql2o.Query;
+import org.sql2o.Sql2o;
+import ru.job4j.cinema.configuration.DatasourceConfiguration;
+import ru.job4j.cinema.model.File;
+import ru.job4j.cinema.model.Film;
+import ru.job4j.cinema.model.FilmSession;
+import ru.job4j.cinema.model.Genre;
+import ru.job4j.cinema.model.Hall;
+import ru.job4j.cinema.repository.sql2o.Sql2oFileRepository;
+import ru.job4j.cinema.repository.sql2o.Sql2oFilmRepository;
+import ru.job4j.cinema.repository.sql2o.Sql2oFilmSessionRepository;
+import ru.job4j.cinema.repository.sql2o.Sql2oGenreRepository;
+import ru.job4j.cinema.repository.sql2o.Sql2oHallRepository;
+import ru.job4j.cinema.repository.sql2o.Sql2oTicketRepository;
+
+import javax.sql.DataSource;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A fresh in-memory H2 database per benchmark trial, migrated with the application changelog
+ * (schema only, no seed context) and filled with {@link BenchmarkData} through the real Sql2o client.
+ */
+final class EmbeddedDatabase {
+
+    private static final String URL = "jdbc:h2:mem:benchmark%d;MODE=PostgreSQL;CASE_INSENSITIVE_IDENTIFIERS=TRUE;DB_CLOSE_DELAY=-1";
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    private EmbeddedDatabase() {
+    }
+
+    static Repositories create(BenchmarkData data) {
+        var configuration = new DatasourceConfiguration();
+        DataSource dataSource = configuration.connectionPool(URL.formatted(DATABASES.incrementAndGet()), "", "");
+        migrate(dataSource);
+        Sql2o sql2o = configuration.databaseClient(dataSource);
+        load(sql2o, data);
+        return new Repositories(
+                new Sql2oFileRepository(sql2o),
+                new Sql2oFilmRepository(sql2o),
+                new Sql2oFilmSessionRepository(sql2o),
+                new Sql2oGenreRepository(sql2o),
+                new Sql2oHallRepository(sql2o),
+                new Sql2oTicketRepository(sql2o),
+                () -> execute(sql2o, "DELETE FROM tickets"),
+                () -> {
+                    execute(sql2o, "DROP ALL OBJECTS");
+                    ((BasicDataSource) dataSource).close();
+                });
+    }
+
+    private static void migrate(DataSource dataSource) {
+        var liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog("classpath:db/dbchangelog.xml");
+        liquibase.setContexts("benchmark");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        try {
+            liquibase.afterPropertiesSet();
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot create benchmark schema", e);
+        }
+    }
+
+    private static void load(Sql2o sql2o, BenchmarkData data) {
+        try (Connection connection = sql2o.beginTransaction()) {
+            Query genres = connection.createQuery("INSERT INTO genres (id, name) VALUES (:id, :name)");
+            for (Genre genre : data.genres()) {
+                genres.addParameter("id", genre.getId()).addParameter("name", genre.getName()).addToBatch();
+            }
+            genres.executeBatch();
+            Query halls = connection.createQuery("""
+                    INSERT INTO halls (id, name, row_count, place_count, description)
+                    VALUES (:id, :name, :rowCount, :placeCount, :description)
+                    """);
+            for (Hall hall : data.halls()) {
+                halls.bind(hall).addToBatch();
+            }
+            halls.executeBatch();
+            Query files = connection.createQuery("INSERT INTO files (id, name, path) VALUES (:id, :name, :path)");
+            for (File file : data.files()) {
+                files.bind(file).addToBatch();
+            }
+            files.executeBatch();
+            Query films = connection.createQuery("""
+                    INSERT INTO films (id, name, description, "year", genre_id, minimal_age, duration_in_minutes, file_id)
+                    VALUES (:id, :name, :description, :year, :genreId, :minimalAge, :durationInMinutes, :fileId)
+                    """);
+            for (Film film : data.films()) {
+                films.bind(film).addToBatch();
+            }
+            films.executeBatch();
+            Query sessions = connection.createQuery("""
+                    INSERT INTO film_sessions (id, film_id, halls_id, start_time, end_time, price)
+                    VALUES (:id, :filmId, :hallId, :startTime, :endTime, :price)
+                    """);
+            for (FilmSession session : data.sessions()) {
+                sessions.bind(session).addToBatch();
+            }
+            sessions.executeBatch();
+            connection.createQuery("INSERT INTO users (id, full_name, email, password) VALUES (:id, :fullName, :email, :password)")
+                    .bind(data.user())
+                    .executeUpdate();
+            connection.commit();
+        }
+    }
+
+    private static void execute(Sql2o sql2o, String sql) {
+        try (Connection connection = sql2o.open()) {
+            connection.createQuery(sql).executeUpdate();
+        }
+    }
+}
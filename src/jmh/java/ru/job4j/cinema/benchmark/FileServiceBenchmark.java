@@ -0,0 +1,75 @@
+package ru.job4j.cinema.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.util.FileSystemUtils;
+import ru.job4j.cinema.dto.FileContent;
+import ru.job4j.cinema.service.impl.FileServiceImpl;
+import ru.job4j.cinema.util.LruCache;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Poster lookup: {@code warm} is the steady state (metadata and, when small enough, bytes cached),
+ * {@code cold} forces the database lookup, stat and MD5 of the file every time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FileServiceBenchmark {
+
+    private static final int FILE_ID = 1;
+    private static final long MAX_CACHED_FILE_BYTES = 2 * 1024 * 1024;
+
+    @Param({"STUB", "H2"})
+    public String backend;
+
+    @Param({"65536", "4194304"})
+    public int posterBytes;
+
+    private Path posterDirectory;
+    private Repositories repositories;
+    private FileServiceImpl fileService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        posterDirectory = Files.createTempDirectory("cinema-posters");
+        BenchmarkData data = BenchmarkData.generate(10, 20, 30, posterDirectory);
+        byte[] poster = new byte[posterBytes];
+        new Random(FILE_ID).nextBytes(poster);
+        Files.write(Path.of(data.files().get(0).getPath()), poster);
+        repositories = Repositories.create(backend, data);
+        fileService = new FileServiceImpl(repositories.files(), new LruCache<>(64),
+                new LruCache<>(64L * 1024 * 1024, bytes -> bytes.length), MAX_CACHED_FILE_BYTES);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        repositories.close();
+        FileSystemUtils.deleteRecursively(posterDirectory);
+    }
+
+    @Benchmark
+    public Optional<FileContent> warm() {
+        return fileService.getFileContent(FILE_ID);
+    }
+
+    @Benchmark
+    public Optional<FileContent> cold() {
+        fileService.invalidate(FILE_ID);
+        return fileService.getFileContent(FILE_ID);
+    }
+}
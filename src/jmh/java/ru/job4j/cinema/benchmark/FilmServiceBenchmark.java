@@ -0,0 +1,83 @@
+package ru.job4j.cinema.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import ru.job4j.cinema.dto.FilmDto;
+import ru.job4j.cinema.model.Film;
+import ru.job4j.cinema.service.FilmService;
+import ru.job4j.cinema.service.impl.FilmServiceImpl;
+import ru.job4j.cinema.service.impl.GenreServiceImpl;
+import ru.job4j.cinema.util.LruCache;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Film to {@link FilmDto} mapping: one film at a time (genre looked up per film)
+ * and the whole catalog at once (genres batched). {@code findByIdCached} cycles through
+ * a catalog that fits the film cache, so after warm-up it measures hits only;
+ * {@code findByIdMiss} drops the film from the cache first and pays the repository read.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FilmServiceBenchmark {
+
+    private static final int SESSIONS = 1000;
+
+    @Param({"STUB", "H2"})
+    public String backend;
+
+    private Repositories repositories;
+    private FilmService filmService;
+    private List<Integer> filmIds;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkData data = BenchmarkData.generate(SESSIONS, 20, 30, Path.of("posters"));
+        repositories = Repositories.create(backend, data);
+        var genreService = new GenreServiceImpl(repositories.genres(), new LruCache<>(64));
+        filmService = new FilmServiceImpl(repositories.films(), genreService, new LruCache<>(BenchmarkData.MAX_FILMS));
+        filmIds = data.films().stream().map(Film::getId).toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        repositories.close();
+    }
+
+    @Benchmark
+    public Optional<FilmDto> findByIdCached() {
+        next = (next + 1) % filmIds.size();
+        return filmService.findById(filmIds.get(next));
+    }
+
+    @Benchmark
+    public Optional<FilmDto> findByIdMiss() {
+        next = (next + 1) % filmIds.size();
+        Integer id = filmIds.get(next);
+        filmService.invalidate(id);
+        return filmService.findById(id);
+    }
+
+    @Benchmark
+    public List<FilmDto> findAllByIds() {
+        return filmService.findAllByIds(filmIds);
+    }
+
+    @Benchmark
+    public List<FilmDto> findAll() {
+        return filmService.findAll();
+    }
+}
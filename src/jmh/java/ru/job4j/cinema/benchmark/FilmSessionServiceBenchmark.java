@@ -0,0 +1,60 @@
+package ru.job4j.cinema.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import ru.job4j.cinema.dto.FilmSessionDto;
+import ru.job4j.cinema.service.FilmSessionService;
+import ru.job4j.cinema.service.impl.FilmServiceImpl;
+import ru.job4j.cinema.service.impl.FilmSessionServiceImpl;
+import ru.job4j.cinema.service.impl.GenreServiceImpl;
+import ru.job4j.cinema.service.impl.HallServiceImpl;
+import ru.job4j.cinema.util.LruCache;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The schedule page: every session joined with its film, genre and hall, at growing schedule sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FilmSessionServiceBenchmark {
+
+    @Param({"STUB", "H2"})
+    public String backend;
+
+    @Param({"10", "1000", "10000"})
+    public int sessions;
+
+    private Repositories repositories;
+    private FilmSessionService filmSessionService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        repositories = Repositories.create(backend, BenchmarkData.generate(sessions, 20, 30, Path.of("posters")));
+        var genreService = new GenreServiceImpl(repositories.genres(), new LruCache<>(64));
+        var hallService = new HallServiceImpl(repositories.halls(), new LruCache<>(64));
+        var filmService = new FilmServiceImpl(repositories.films(), genreService, new LruCache<>(BenchmarkData.MAX_FILMS));
+        filmSessionService = new FilmSessionServiceImpl(repositories.filmSessions(), filmService, hallService);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        repositories.close();
+    }
+
+    @Benchmark
+    public List<FilmSessionDto> findAll() {
+        return filmSessionService.findAll();
+    }
+}
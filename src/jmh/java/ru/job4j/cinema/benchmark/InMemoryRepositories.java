@@ -0,0 +1,178 @@
+package ru.job4j.cinema.benchmark;
+
+import ru.job4j.cinema.dto.BasketPurchaseResult;
+import ru.job4j.cinema.dto.PurchaseResult;
+import ru.job4j.cinema.model.File;
+import ru.job4j.cinema.model.Film;
+import ru.job4j.cinema.model.FilmSession;
+import ru.job4j.cinema.model.Genre;
+import ru.job4j.cinema.model.Hall;
+import ru.job4j.cinema.model.Ticket;
+import ru.job4j.cinema.repository.FileRepository;
+import ru.job4j.cinema.repository.FilmRepository;
+import ru.job4j.cinema.repository.FilmSessionRepository;
+import ru.job4j.cinema.repository.GenreRepository;
+import ru.job4j.cinema.repository.HallRepository;
+import ru.job4j.cinema.repository.TicketRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Repository stubs over {@link BenchmarkData} with no I/O, so a benchmark measures only the service layer.
+ * The ticket stub accepts every claim and keeps nothing.
+ */
+final class InMemoryRepositories {
+
+    private InMemoryRepositories() {
+    }
+
+    static Repositories create(BenchmarkData data) {
+        return new Repositories(
+                new Files(byId(data.files(), File::getId)),
+                new Films(data.films(), byId(data.films(), Film::getId)),
+                new FilmSessions(data.sessions(), byId(data.sessions(), FilmSession::getId)),
+                new Genres(byId(data.genres(), Genre::getId)),
+                new Halls(byId(data.halls(), Hall::getId)),
+                new Tickets(),
+                () -> { },
+                () -> { });
+    }
+
+    private static <T> Map<Integer, T> byId(List<T> values, Function<T, Integer> id) {
+        return values.stream().collect(Collectors.toMap(id, Function.identity()));
+    }
+
+    private static <T> List<T> findAllByIds(Map<Integer, T> values, Collection<Integer> ids) {
+        return ids.stream().map(values::get).filter(value -> value != null).toList();
+    }
+
+    private record Files(Map<Integer, File> files) implements FileRepository {
+
+        @Override
+        public Optional<File> findById(Integer id) {
+            return Optional.ofNullable(files.get(id));
+        }
+    }
+
+    private record Films(List<Film> all, Map<Integer, Film> films) implements FilmRepository {
+
+        @Override
+        public List<Film> findAll() {
+            return all;
+        }
+
+        @Override
+        public Optional<Film> findById(Integer id) {
+            return Optional.ofNullable(films.get(id));
+        }
+
+        @Override
+        public List<Film> findAllByIds(Collection<Integer> ids) {
+            return InMemoryRepositories.findAllByIds(films, ids);
+        }
+    }
+
+    private record FilmSessions(List<FilmSession> all, Map<Integer, FilmSession> sessions)
+            implements FilmSessionRepository {
+
+        @Override
+        public List<FilmSession> findAll() {
+            return all;
+        }
+
+        @Override
+        public Optional<FilmSession> findById(Integer id) {
+            return Optional.ofNullable(sessions.get(id));
+        }
+
+        @Override
+        public List<FilmSession> findByFilmId(Integer filmId) {
+            return all.stream().filter(session -> filmId.equals(session.getFilmId())).toList();
+        }
+
+        @Override
+        public List<FilmSession> findStartingFrom(LocalDateTime from) {
+            return all.stream().filter(session -> !session.getStartTime().isBefore(from)).toList();
+        }
+
+        @Override
+        public List<FilmSession> findPage(LocalDateTime from, LocalDateTime to, LocalDateTime afterStartTime,
+                                          Integer afterId, int limit) {
+            Comparator<FilmSession> order = Comparator.comparing(FilmSession::getStartTime)
+                    .thenComparing(FilmSession::getId);
+            FilmSession after = afterStartTime == null ? null
+                    : FilmSession.builder().startTime(afterStartTime).id(afterId).build();
+            return all.stream()
+                    .filter(session -> !session.getStartTime().isBefore(from))
+                    .filter(session -> to == null || session.getStartTime().isBefore(to))
+                    .filter(session -> after == null || order.compare(session, after) > 0)
+                    .sorted(order)
+                    .limit(limit)
+                    .toList();
+        }
+    }
+
+    private record Genres(Map<Integer, Genre> genres) implements GenreRepository {
+
+        @Override
+        public Optional<Genre> findById(Integer id) {
+            return Optional.ofNullable(genres.get(id));
+        }
+
+        @Override
+        public List<Genre> findAllByIds(Collection<Integer> ids) {
+            return InMemoryRepositories.findAllByIds(genres, ids);
+        }
+    }
+
+    private record Halls(Map<Integer, Hall> halls) implements HallRepository {
+
+        @Override
+        public Optional<Hall> findById(Integer id) {
+            return Optional.ofNullable(halls.get(id));
+        }
+
+        @Override
+        public List<Hall> findAllByIds(Collection<Integer> ids) {
+            return InMemoryRepositories.findAllByIds(halls, ids);
+        }
+    }
+
+    private static final class Tickets implements TicketRepository {
+
+        private final AtomicInteger ids = new AtomicInteger();
+
+        @Override
+        public PurchaseResult claim(Ticket ticket) {
+            return PurchaseResult.sold(withId(ticket));
+        }
+
+        @Override
+        public BasketPurchaseResult claimAll(List<Ticket> tickets) {
+            return BasketPurchaseResult.sold(tickets.stream().map(this::withId).toList());
+        }
+
+        @Override
+        public List<Ticket> findBySessionId(Integer sessionId) {
+            return List.of();
+        }
+
+        private Ticket withId(Ticket ticket) {
+            return Ticket.builder()
+                    .id(ids.incrementAndGet())
+                    .sessionId(ticket.getSessionId())
+                    .rowNumber(ticket.getRowNumber())
+                    .placeNumber(ticket.getPlaceNumber())
+                    .userId(ticket.getUserId())
+                    .build();
+        }
+    }
+}
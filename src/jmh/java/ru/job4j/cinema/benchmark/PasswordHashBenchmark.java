@@ -0,0 +1,71 @@
+package ru.job4j.cinema.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import ru.job4j.cinema.service.impl.PasswordServiceImpl;
+import ru.job4j.cinema.util.PasswordHashingBusyException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sizes {@code password.bcrypt.strength} against a login latency budget. {@code verify} is the
+ * cost of one check on an idle pool; {@code storm} runs more callers than pool threads with the
+ * production-sized queue, so its percentiles show what a login waits during a credential-stuffing
+ * burst. Pick the highest strength whose {@code storm} p99 stays within
+ * {@code password.hash.timeout-millis}; checks rejected with {@link PasswordHashingBusyException}
+ * return at once and count as fast samples.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PasswordHashBenchmark {
+
+    private static final String PASSWORD = "correct horse battery staple";
+    private static final int THREADS = 2;
+    private static final int QUEUE_CAPACITY = 32;
+    private static final long TIMEOUT_MILLIS = 10_000;
+
+    @Param({"8", "10", "12"})
+    public int strength;
+
+    private PasswordServiceImpl passwordService;
+    private String hash;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        passwordService = new PasswordServiceImpl(new SimpleMeterRegistry(), strength, THREADS, QUEUE_CAPACITY,
+                TIMEOUT_MILLIS);
+        hash = passwordService.hash(PASSWORD);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        passwordService.shutdown();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean verify() {
+        return passwordService.matches(PASSWORD, hash);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean storm() {
+        try {
+            return passwordService.matches(PASSWORD, hash);
+        } catch (PasswordHashingBusyException e) {
+            return false;
+        }
+    }
+}
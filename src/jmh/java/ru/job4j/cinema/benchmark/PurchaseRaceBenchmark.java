@@ -0,0 +1,153 @@
+package ru.job4j.cinema.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import ru.job4j.cinema.dto.BasketPurchaseResult;
+import ru.job4j.cinema.dto.PurchaseResult;
+import ru.job4j.cinema.model.Ticket;
+import ru.job4j.cinema.repository.TicketRepository;
+import ru.job4j.cinema.service.SeatMapService;
+import ru.job4j.cinema.service.TicketService;
+import ru.job4j.cinema.service.impl.HallServiceImpl;
+import ru.job4j.cinema.service.impl.SeatEventServiceImpl;
+import ru.job4j.cinema.service.impl.SeatHoldServiceImpl;
+import ru.job4j.cinema.service.impl.SeatMapServiceImpl;
+import ru.job4j.cinema.service.impl.TicketServiceImpl;
+import ru.job4j.cinema.util.LruCache;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Buyers racing for the same places: each seat is requested {@value #BUYERS_PER_SEAT} times
+ * by whichever threads get there first. Besides throughput it reports how the calls ended:
+ * {@code claims} is the number of purchases that reached the repository, so with purchases
+ * serialized per row it stays close to {@code sold}, and losers show up as {@code rejected}.
+ * The stub backend accepts every claim, which makes wasted round trips visible as extra sales.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(4)
+public class PurchaseRaceBenchmark {
+
+    private static final int ROWS = 100;
+    private static final int PLACES = 100;
+    private static final int SESSIONS = 64;
+    private static final int BUYERS_PER_SEAT = 4;
+
+    @Param({"STUB", "H2"})
+    public String backend;
+
+    @Param({"1", "256"})
+    public int lockStripes;
+
+    private Repositories repositories;
+    private SeatMapService seatMapService;
+    private SeatEventServiceImpl seatEventService;
+    private TicketService ticketService;
+    private final AtomicLong requests = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkData data = BenchmarkData.generate(SESSIONS, ROWS, PLACES, Path.of("posters"));
+        repositories = Repositories.create(backend, data);
+        var hallService = new HallServiceImpl(repositories.halls(), new LruCache<>(64));
+        seatMapService = new SeatMapServiceImpl(repositories.filmSessions(), hallService, repositories.tickets(),
+                new LruCache<>(SESSIONS));
+        seatEventService = new SeatEventServiceImpl(new ObjectMapper(), new SimpleMeterRegistry(), 1800, 10_000);
+        var seatHoldService = new SeatHoldServiceImpl(seatMapService, seatEventService, 300, 900, 10, 100, 512);
+        ticketService = new TicketServiceImpl(new CountingTickets(repositories.tickets()), seatMapService,
+                seatHoldService, seatEventService, lockStripes);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetSeats() {
+        repositories.clearTickets();
+        for (int sessionId = 1; sessionId <= SESSIONS; sessionId++) {
+            seatMapService.invalidate(sessionId);
+        }
+        requests.set(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        seatEventService.shutdown();
+        repositories.close();
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Outcomes {
+
+        public long sold;
+        public long rejected;
+        public long claims;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            sold = 0;
+            rejected = 0;
+            claims = 0;
+        }
+    }
+
+    @Benchmark
+    public PurchaseResult race(Outcomes outcomes) {
+        long seat = requests.getAndIncrement() / BUYERS_PER_SEAT;
+        int index = (int) (seat % ((long) SESSIONS * ROWS * PLACES));
+        int sessionId = index / (ROWS * PLACES) + 1;
+        int rowNumber = index % (ROWS * PLACES) / PLACES + 1;
+        int placeNumber = index % PLACES + 1;
+        long claimsBefore = CountingTickets.CLAIMS.get()[0];
+        PurchaseResult result = ticketService.buyTicket(Ticket.builder()
+                .sessionId(sessionId)
+                .rowNumber(rowNumber)
+                .placeNumber(placeNumber)
+                .userId(1)
+                .build());
+        outcomes.claims += CountingTickets.CLAIMS.get()[0] - claimsBefore;
+        if (result.isSold()) {
+            outcomes.sold++;
+        } else {
+            outcomes.rejected++;
+        }
+        return result;
+    }
+
+    private record CountingTickets(TicketRepository delegate) implements TicketRepository {
+
+        private static final ThreadLocal<long[]> CLAIMS = ThreadLocal.withInitial(() -> new long[1]);
+
+        @Override
+        public PurchaseResult claim(Ticket ticket) {
+            CLAIMS.get()[0]++;
+            return delegate.claim(ticket);
+        }
+
+        @Override
+        public BasketPurchaseResult claimAll(List<Ticket> tickets) {
+            CLAIMS.get()[0]++;
+            return delegate.claimAll(tickets);
+        }
+
+        @Override
+        public List<Ticket> findBySessionId(Integer sessionId) {
+            return delegate.findBySessionId(sessionId);
+        }
+    }
+}
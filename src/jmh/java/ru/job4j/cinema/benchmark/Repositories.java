@@ -0,0 +1,34 @@
+package ru.job4j.cinema.benchmark;
+
+import ru.job4j.cinema.repository.FileRepository;
+import ru.job4j.cinema.repository.FilmRepository;
+import ru.job4j.cinema.repository.FilmSessionRepository;
+import ru.job4j.cinema.repository.GenreRepository;
+import ru.job4j.cinema.repository.HallRepository;
+import ru.job4j.cinema.repository.TicketRepository;
+
+record Repositories(FileRepository files,
+                    FilmRepository films,
+                    FilmSessionRepository filmSessions,
+                    GenreRepository genres,
+                    HallRepository halls,
+                    TicketRepository tickets,
+                    Runnable ticketCleaner,
+                    AutoCloseable resources) implements AutoCloseable {
+
+    static Repositories create(String backend, BenchmarkData data) {
+        return switch (Backend.valueOf(backend)) {
+            case STUB -> InMemoryRepositories.create(data);
+            case H2 -> EmbeddedDatabase.create(data);
+        };
+    }
+
+    void clearTickets() {
+        ticketCleaner.run();
+    }
+
+    @Override
+    public void close() throws Exception {
+        resources.close();
+    }
+}
@@ -0,0 +1,134 @@
+package ru.job4j.cinema.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import ru.job4j.cinema.dto.PurchaseResult;
+import ru.job4j.cinema.model.Ticket;
+import ru.job4j.cinema.service.SeatMapService;
+import ru.job4j.cinema.service.TicketService;
+import ru.job4j.cinema.service.impl.HallServiceImpl;
+import ru.job4j.cinema.service.impl.SeatEventServiceImpl;
+import ru.job4j.cinema.service.impl.SeatHoldServiceImpl;
+import ru.job4j.cinema.service.impl.SeatMapServiceImpl;
+import ru.job4j.cinema.service.impl.TicketServiceImpl;
+import ru.job4j.cinema.util.LruCache;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Selling free seats from several threads at once. {@code contended}: all threads sell seats
+ * of one session; {@code uncontended}: every thread has a session of its own.
+ * Each call buys the next free seat of a 1000 x 1000 hall. The stub backend keeps no tickets,
+ * so once the cursor has gone round the whole hall the seat map is dropped and reloaded empty.
+ * With a single lock stripe every purchase queues behind every other one; with 256 stripes
+ * {@code uncontended} sessions should not slow each other down.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(4)
+public class TicketServiceBenchmark {
+
+    private static final int ROWS = 1000;
+    private static final int PLACES = 1000;
+    private static final int SESSIONS = 16;
+    private static final int SHARED_SESSION = 1;
+
+    @Param({"STUB", "H2"})
+    public String backend;
+
+    @Param({"1", "256"})
+    public int lockStripes;
+
+    private Repositories repositories;
+    private SeatMapService seatMapService;
+    private SeatEventServiceImpl seatEventService;
+    private TicketService ticketService;
+    private final AtomicLong sharedCursor = new AtomicLong();
+    private final AtomicInteger nextOwnSession = new AtomicInteger(SHARED_SESSION);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkData data = BenchmarkData.generate(SESSIONS, ROWS, PLACES, Path.of("posters"));
+        repositories = Repositories.create(backend, data);
+        var hallService = new HallServiceImpl(repositories.halls(), new LruCache<>(64));
+        seatMapService = new SeatMapServiceImpl(repositories.filmSessions(), hallService, repositories.tickets(),
+                new LruCache<>(SESSIONS));
+        seatEventService = new SeatEventServiceImpl(new ObjectMapper(), new SimpleMeterRegistry(), 1800, 10_000);
+        var seatHoldService = new SeatHoldServiceImpl(seatMapService, seatEventService, 300, 900, 10, 100, 512);
+        ticketService = new TicketServiceImpl(repositories.tickets(), seatMapService, seatHoldService, seatEventService,
+                lockStripes);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetSeats() {
+        repositories.clearTickets();
+        for (int sessionId = 1; sessionId <= SESSIONS; sessionId++) {
+            seatMapService.invalidate(sessionId);
+        }
+        sharedCursor.set(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        seatEventService.shutdown();
+        repositories.close();
+    }
+
+    @State(Scope.Thread)
+    public static class OwnSession {
+
+        private int sessionId;
+        private long cursor;
+
+        @Setup(Level.Trial)
+        public void assign(TicketServiceBenchmark benchmark) {
+            sessionId = benchmark.nextOwnSession.incrementAndGet();
+        }
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            cursor = 0;
+        }
+    }
+
+    @Benchmark
+    public PurchaseResult contended() {
+        return buy(SHARED_SESSION, sharedCursor.getAndIncrement());
+    }
+
+    @Benchmark
+    public PurchaseResult uncontended(OwnSession own) {
+        return buy(own.sessionId, own.cursor++);
+    }
+
+    private PurchaseResult buy(int sessionId, long seat) {
+        int index = (int) (seat % ((long) ROWS * PLACES));
+        int rowNumber = index / PLACES + 1;
+        int placeNumber = index % PLACES + 1;
+        PurchaseResult result = ticketService.buyTicket(Ticket.builder()
+                .sessionId(sessionId)
+                .rowNumber(rowNumber)
+                .placeNumber(placeNumber)
+                .userId(1)
+                .build());
+        if (index == ROWS * PLACES - 1 && Backend.valueOf(backend) == Backend.STUB) {
+            seatMapService.invalidate(sessionId);
+        }
+        return result;
+    }
+}
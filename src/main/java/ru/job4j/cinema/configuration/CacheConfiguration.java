@@ -0,0 +1,109 @@
+package ru.job4j.cinema.configuration;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.job4j.cinema.dto.FileContent;
+import ru.job4j.cinema.dto.IdempotencyEntry;
+import ru.job4j.cinema.model.Film;
+import ru.job4j.cinema.model.Genre;
+import ru.job4j.cinema.model.Hall;
+import ru.job4j.cinema.model.SeatMap;
+import ru.job4j.cinema.model.User;
+import ru.job4j.cinema.util.LruCache;
+import ru.job4j.cinema.util.LruCacheMetrics;
+
+@Configuration
+public class CacheConfiguration {
+
+    @Bean
+    public LruCache<Integer, Hall> hallCache(@Value("${cache.halls.max-size:64}") int maxSize) {
+        return new LruCache<>(maxSize);
+    }
+
+    @Bean
+    public LruCache<Integer, Genre> genreCache(@Value("${cache.genres.max-size:64}") int maxSize) {
+        return new LruCache<>(maxSize);
+    }
+
+    @Bean
+    public LruCache<Integer, Film> filmCache(@Value("${cache.films.max-size:1024}") int maxSize) {
+        return new LruCache<>(maxSize);
+    }
+
+    @Bean
+    public LruCache<Integer, FileContent> fileContentCache(@Value("${cache.files.max-size:1024}") int maxSize) {
+        return new LruCache<>(maxSize);
+    }
+
+    @Bean
+    public LruCache<Integer, byte[]> posterCache(@Value("${cache.posters.max-bytes:67108864}") long maxBytes) {
+        return new LruCache<>(maxBytes, bytes -> bytes.length);
+    }
+
+    @Bean
+    public LruCache<String, FileContent> variantCache(@Value("${cache.variants.max-bytes:16777216}") long maxBytes) {
+        return new LruCache<>(maxBytes, FileContent::contentLength);
+    }
+
+    @Bean
+    public LruCache<Integer, User> userCache(@Value("${cache.users.max-size:1024}") int maxSize) {
+        return new LruCache<>(maxSize);
+    }
+
+    @Bean
+    public LruCache<Integer, SeatMap> seatMapCache(@Value("${cache.seat-maps.max-size:256}") int maxSize) {
+        return new LruCache<>(maxSize);
+    }
+
+    @Bean
+    public LruCache<String, IdempotencyEntry> idempotencyCache(@Value("${idempotency.max-size:10000}") int maxSize) {
+        return new LruCache<>(maxSize);
+    }
+
+    @Bean
+    public MeterBinder hallCacheMetrics(LruCache<Integer, Hall> hallCache) {
+        return new LruCacheMetrics(hallCache, "halls");
+    }
+
+    @Bean
+    public MeterBinder genreCacheMetrics(LruCache<Integer, Genre> genreCache) {
+        return new LruCacheMetrics(genreCache, "genres");
+    }
+
+    @Bean
+    public MeterBinder filmCacheMetrics(LruCache<Integer, Film> filmCache) {
+        return new LruCacheMetrics(filmCache, "films");
+    }
+
+    @Bean
+    public MeterBinder fileContentCacheMetrics(LruCache<Integer, FileContent> fileContentCache) {
+        return new LruCacheMetrics(fileContentCache, "files");
+    }
+
+    @Bean
+    public MeterBinder posterCacheMetrics(LruCache<Integer, byte[]> posterCache) {
+        return new LruCacheMetrics(posterCache, "posters");
+    }
+
+    @Bean
+    public MeterBinder variantCacheMetrics(LruCache<String, FileContent> variantCache) {
+        return new LruCacheMetrics(variantCache, "variants");
+    }
+
+    @Bean
+    public MeterBinder userCacheMetrics(LruCache<Integer, User> userCache) {
+        return new LruCacheMetrics(userCache, "users");
+    }
+
+    @Bean
+    public MeterBinder idempotencyCacheMetrics(LruCache<String, IdempotencyEntry> idempotencyCache) {
+        return new LruCacheMetrics(idempotencyCache, "idempotency");
+    }
+
+    @Bean
+    public MeterBinder seatMapCacheMetrics(LruCache<Integer, SeatMap> seatMapCache) {
+        return new LruCacheMetrics(seatMapCache, "seat-maps");
+    }
+}
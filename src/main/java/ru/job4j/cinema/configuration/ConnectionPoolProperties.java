@@ -0,0 +1,30 @@
+package ru.job4j.cinema.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Sizing and timeouts of the JDBC pool, bound from {@code datasource.pool.*}.
+ * A zero {@code leakDetectionThreshold} or {@code statementCacheSize} turns the feature off.
+ * {@code queueDepth} is how many callers may wait for one of the {@code maxSize} connections
+ * before further database calls are rejected.
+ */
+@ConfigurationProperties("datasource.pool")
+public record ConnectionPoolProperties(@DefaultValue("dbcp2") Type type,
+                                       @DefaultValue("10") int maxSize,
+                                       @DefaultValue("2") int minIdle,
+                                       @DefaultValue("3s") Duration acquireTimeout,
+                                       @DefaultValue("0s") Duration leakDetectionThreshold,
+                                       @DefaultValue("64") int statementCacheSize,
+                                       @DefaultValue("200") int queueDepth) {
+
+    public static final ConnectionPoolProperties DEFAULTS =
+            new ConnectionPoolProperties(Type.DBCP2, 10, 2, Duration.ofSeconds(3), Duration.ZERO, 64, 200);
+
+    public enum Type {
+        DBCP2,
+        HIKARI
+    }
+}
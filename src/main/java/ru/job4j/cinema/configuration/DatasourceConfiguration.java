@@ -1,7 +1,11 @@
 package ru.job4j.cinema.configuration;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.commons.dbcp2.BasicDataSource;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.sql2o.Sql2o;
@@ -9,27 +13,82 @@ import org.sql2o.converters.Converter;
 import org.sql2o.converters.ConverterException;
 import org.sql2o.quirks.NoQuirks;
 import org.sql2o.quirks.Quirks;
+import ru.job4j.cinema.util.ConcurrencyLimitedDataSource;
+import ru.job4j.cinema.util.MeteredDataSource;
 
 import javax.sql.DataSource;
 import java.sql.Timestamp;
+import java.time.Duration;
 import java.time.LocalDateTime;
 
 @Configuration
+@EnableConfigurationProperties(ConnectionPoolProperties.class)
 public class DatasourceConfiguration {
+
+    private static final String POOL_NAME = "cinema";
+    private static final Duration IDLE_CHECK_INTERVAL = Duration.ofSeconds(30);
+
     @Bean
     public DataSource connectionPool(@Value("${datasource.url}") String url,
                                      @Value("${datasource.username}") String username,
-                                     @Value("${datasource.password}") String password) {
-        return new BasicDataSource() {
-            {
-                setUrl(url);
-                setUsername(username);
-                setPassword(password);
-            }
-        };
+                                     @Value("${datasource.password}") String password,
+                                     ConnectionPoolProperties pool,
+                                     MeterRegistry meterRegistry) {
+        return new MeteredDataSource(connectionPool(url, username, password, pool), POOL_NAME, meterRegistry);
+    }
+
+    public DataSource connectionPool(String url, String username, String password) {
+        return connectionPool(url, username, password, ConnectionPoolProperties.DEFAULTS);
+    }
+
+    DataSource connectionPool(String url, String username, String password, ConnectionPoolProperties pool) {
+        return pool.type() == ConnectionPoolProperties.Type.HIKARI
+                ? hikariPool(url, username, password, pool)
+                : dbcpPool(url, username, password, pool);
+    }
+
+    private DataSource dbcpPool(String url, String username, String password, ConnectionPoolProperties pool) {
+        var dataSource = new BasicDataSource();
+        dataSource.setUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setMaxTotal(pool.maxSize());
+        dataSource.setMaxIdle(pool.maxSize());
+        dataSource.setMinIdle(pool.minIdle());
+        dataSource.setMaxWaitMillis(pool.acquireTimeout().toMillis());
+        dataSource.setTestWhileIdle(true);
+        dataSource.setTimeBetweenEvictionRunsMillis(IDLE_CHECK_INTERVAL.toMillis());
+        if (pool.statementCacheSize() > 0) {
+            dataSource.setPoolPreparedStatements(true);
+            dataSource.setMaxOpenPreparedStatements(pool.statementCacheSize());
+        }
+        if (!pool.leakDetectionThreshold().isZero()) {
+            dataSource.setLogAbandoned(true);
+            dataSource.setRemoveAbandonedOnMaintenance(true);
+            dataSource.setRemoveAbandonedTimeout((int) pool.leakDetectionThreshold().toSeconds());
+        }
+        return dataSource;
+    }
+
+    private DataSource hikariPool(String url, String username, String password, ConnectionPoolProperties pool) {
+        var config = new HikariConfig();
+        config.setPoolName(POOL_NAME);
+        config.setJdbcUrl(url);
+        config.setUsername(username);
+        config.setPassword(password);
+        config.setMaximumPoolSize(pool.maxSize());
+        config.setMinimumIdle(pool.minIdle());
+        config.setConnectionTimeout(pool.acquireTimeout().toMillis());
+        config.setLeakDetectionThreshold(pool.leakDetectionThreshold().toMillis());
+        return new HikariDataSource(config);
     }
 
     @Bean
+    public Sql2o databaseClient(DataSource dataSource, ConnectionPoolProperties pool, MeterRegistry meterRegistry) {
+        return databaseClient(new ConcurrencyLimitedDataSource(dataSource,
+                pool.maxSize(), pool.queueDepth(), pool.acquireTimeout(), meterRegistry));
+    }
+
     public Sql2o databaseClient(DataSource dataSource) {
         return new Sql2o(dataSource, createConverters());
     }
@@ -0,0 +1,14 @@
+package ru.job4j.cinema.configuration;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} tasks. Their pool is sized by {@code spring.task.scheduling.pool.size}:
+ * with Spring's default of one thread a slow schedule refresh would hold back hold expiry and
+ * queue admission, which tick every few hundred milliseconds.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfiguration {
+}
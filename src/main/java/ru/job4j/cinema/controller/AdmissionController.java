@@ -0,0 +1,64 @@
+package ru.job4j.cinema.controller;
+
+import lombok.AllArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+import ru.job4j.cinema.dto.AdmissionStatus;
+import ru.job4j.cinema.dto.FilmSessionDto;
+import ru.job4j.cinema.model.User;
+import ru.job4j.cinema.service.AdmissionService;
+import ru.job4j.cinema.service.ScheduleSnapshotService;
+
+import java.util.Optional;
+
+@Controller
+@RequestMapping("/sessions/{sessionId}/queue")
+@AllArgsConstructor
+public class AdmissionController {
+
+    private final AdmissionService admissionService;
+    private final ScheduleSnapshotService scheduleSnapshotService;
+
+    @GetMapping
+    public String getQueuePage(@PathVariable int sessionId,
+                               @RequestAttribute(name = "user", required = false) User user,
+                               Model model) {
+        if (user == null || user.getId() == null) {
+            return "redirect:/users/login";
+        }
+        Optional<FilmSessionDto> session = scheduleSnapshotService.getSnapshot().findById(sessionId);
+        if (session.isEmpty()) {
+            return "redirect:/tickets/buy/" + sessionId;
+        }
+        AdmissionStatus status = admissionService.enter(sessionId, user.getId());
+        if (status.isAdmitted()) {
+            return "redirect:/tickets/buy/" + sessionId;
+        }
+        model.addAttribute("filmSession", session.get());
+        model.addAttribute("admission", status);
+        return "sessions/queue";
+    }
+
+    /**
+     * Polled by the queue page; answers from memory only.
+     */
+    @GetMapping("/status")
+    @ResponseBody
+    public ResponseEntity<AdmissionStatus> getStatus(@PathVariable int sessionId,
+                                                     @RequestAttribute(name = "user", required = false) User user) {
+        if (user == null || user.getId() == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(admissionService.getStatus(sessionId, user.getId()));
+    }
+}
@@ -0,0 +1,27 @@
+package ru.job4j.cinema.controller;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.servlet.ModelAndView;
+import ru.job4j.cinema.util.DatabaseBusyException;
+
+/**
+ * Turns a rejected database call into a quick 503 with {@code Retry-After}.
+ * The exception usually arrives wrapped in a {@code Sql2oException}; Spring matches on the cause.
+ */
+@ControllerAdvice
+public class DatabaseBusyAdvice {
+
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    @ExceptionHandler(DatabaseBusyException.class)
+    public ModelAndView handleDatabaseBusy(DatabaseBusyException exception, HttpServletResponse response) {
+        response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+        var modelAndView = new ModelAndView("errors/503", HttpStatus.SERVICE_UNAVAILABLE);
+        modelAndView.addObject("message", "Слишком много запросов, попробуйте повторить через несколько секунд.");
+        return modelAndView;
+    }
+}
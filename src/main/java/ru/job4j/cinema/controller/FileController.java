@@ -1,15 +1,22 @@
 package ru.job4j.cinema.controller;
 
 import lombok.AllArgsConstructor;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import ru.job4j.cinema.dto.FileContent;
+import ru.job4j.cinema.dto.ImageVariant;
 import ru.job4j.cinema.service.FileService;
+import ru.job4j.cinema.service.ImageVariantService;
 
+import java.time.Duration;
 import java.util.Optional;
 
 @RestController
@@ -17,21 +24,50 @@ import java.util.Optional;
 @AllArgsConstructor
 public class FileController {
 
+    private static final CacheControl CACHE_CONTROL = CacheControl.maxAge(Duration.ofDays(365))
+            .cachePublic()
+            .immutable();
+
     private final FileService fileService;
+    private final ImageVariantService imageVariantService;
 
     @GetMapping("/{id}")
-    public ResponseEntity<byte[]> getFile(@PathVariable int id) {
-        Optional<byte[]> fileContent = fileService.getFileContent(id);
+    public ResponseEntity<Resource> getFile(@PathVariable int id,
+                                            @RequestParam(required = false) String variant,
+                                            WebRequest request) {
+        Optional<ImageVariant> imageVariant = ImageVariant.fromParam(variant);
+        if (imageVariant.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Optional<FileContent> fileContent = fileService.getFileContent(id);
         
         if (fileContent.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.IMAGE_JPEG);
-        
+        Optional<FileContent> variantContent = imageVariantService.findVariant(id, fileContent.get(), imageVariant.get());
+        if (variantContent.isEmpty()) {
+            return respond(fileContent.get(), CacheControl.noCache(), request);
+        }
+        return respond(variantContent.get(), CACHE_CONTROL, request);
+    }
+
+    private ResponseEntity<Resource> respond(FileContent content, CacheControl cacheControl, WebRequest request) {
+        if (request.checkNotModified(content.etag(), content.lastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(content.etag())
+                    .lastModified(content.lastModified())
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+
         return ResponseEntity.ok()
-                .headers(headers)
-                .body(fileContent.get());
+                .contentType(content.mediaType())
+                .contentLength(content.contentLength())
+                .eTag(content.etag())
+                .lastModified(content.lastModified())
+                .cacheControl(cacheControl)
+                .body(content.resource());
     }
 }
@@ -7,7 +7,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import ru.job4j.cinema.service.FilmService;
-import ru.job4j.cinema.service.FilmSessionService;
+import ru.job4j.cinema.service.ScheduleSnapshotService;
 
 @Controller
 @RequestMapping("/films")
@@ -15,7 +15,7 @@ import ru.job4j.cinema.service.FilmSessionService;
 public class FilmController {
 
     private final FilmService filmService;
-    private final FilmSessionService filmSessionService;
+    private final ScheduleSnapshotService scheduleSnapshotService;
 
     @GetMapping
     public String getAll(Model model) {
@@ -32,7 +32,7 @@ public class FilmController {
         }
         
         var film = filmOptional.get();
-        var sessions = filmSessionService.findByFilmId(id);
+        var sessions = scheduleSnapshotService.getSnapshot().findByFilmId(id);
         
         model.addAttribute("film", film);
         model.addAttribute("sessions", sessions);
@@ -1,22 +1,85 @@
 package ru.job4j.cinema.controller;
 
 import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestMapping;
-import ru.job4j.cinema.service.FilmSessionService;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.job4j.cinema.dto.SeatOccupancy;
+import ru.job4j.cinema.dto.SessionCursor;
+import ru.job4j.cinema.dto.SessionPage;
+import ru.job4j.cinema.model.User;
+import ru.job4j.cinema.service.ScheduleSnapshotService;
+import ru.job4j.cinema.service.SeatEventService;
+import ru.job4j.cinema.service.SeatHoldService;
+import ru.job4j.cinema.service.SeatMapService;
+
+import java.time.LocalDate;
 
 @Controller
 @RequestMapping("/sessions")
 @AllArgsConstructor
 public class FilmSessionController {
 
-    private final FilmSessionService filmSessionService;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final ScheduleSnapshotService scheduleSnapshotService;
+    private final SeatMapService seatMapService;
+    private final SeatHoldService seatHoldService;
+    private final SeatEventService seatEventService;
 
     @GetMapping
-    public String getAll(Model model) {
-            model.addAttribute("sessions", filmSessionService.findAll());
-            return "sessions/list";
+    public String getAll(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                         @RequestParam(required = false) String after,
+                         @RequestParam(defaultValue = "20") int size,
+                         Model model) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        SessionCursor cursor = SessionCursor.parse(after).orElse(null);
+        SessionPage page = scheduleSnapshotService.findPage(from, to, cursor, pageSize);
+        model.addAttribute("sessions", page.sessions());
+        model.addAttribute("page", page);
+        model.addAttribute("from", from);
+        model.addAttribute("to", to);
+        model.addAttribute("size", pageSize);
+        model.addAttribute("firstPage", cursor == null);
+        return "sessions/list";
+    }
+
+    /**
+     * Sold and held places of the session in one response, built from the in-memory seat map
+     * instead of a query per place. Places held by the current user are reported as free.
+     */
+    @GetMapping("/{id}/seats")
+    @ResponseBody
+    public ResponseEntity<SeatOccupancy> getSeats(@PathVariable int id,
+                                                  @RequestAttribute(name = "user", required = false) User user) {
+        Integer userId = user == null ? null : user.getId();
+        return seatMapService.findBySessionId(id)
+                .map(seatMap -> SeatOccupancy.of(id, seatMap, seatHoldService.findHeldByOthers(id, userId)))
+                .map(occupancy -> ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(occupancy))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Stream of seat changes (taken, held, released) for the session; pair it with
+     * {@link #getSeats} to load the starting state.
+     */
+    @GetMapping(path = "/{id}/seats/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public ResponseEntity<SseEmitter> subscribeToSeats(@PathVariable int id) {
+        if (seatMapService.findBySessionId(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
         }
+        return ResponseEntity.ok(seatEventService.subscribe(id));
     }
+}
@@ -0,0 +1,27 @@
+package ru.job4j.cinema.controller;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.servlet.ModelAndView;
+import ru.job4j.cinema.util.PasswordHashingBusyException;
+
+/**
+ * Turns a login or registration turned away by the hashing pool into a 503. The wait is longer
+ * than for a busy database: a bcrypt backlog drains in seconds, not milliseconds.
+ */
+@ControllerAdvice
+public class PasswordHashingBusyAdvice {
+
+    private static final String RETRY_AFTER_SECONDS = "5";
+
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ModelAndView handlePasswordHashingBusy(PasswordHashingBusyException exception, HttpServletResponse response) {
+        response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+        var modelAndView = new ModelAndView("errors/503", HttpStatus.SERVICE_UNAVAILABLE);
+        modelAndView.addObject("message", "Слишком много попыток входа одновременно, повторите через несколько секунд.");
+        return modelAndView;
+    }
+}
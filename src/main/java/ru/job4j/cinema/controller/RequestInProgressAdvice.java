@@ -0,0 +1,27 @@
+package ru.job4j.cinema.controller;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.servlet.ModelAndView;
+import ru.job4j.cinema.util.RequestInProgressException;
+
+/**
+ * Answers a double submit that outlived the first request with 409: the purchase is not rejected,
+ * its outcome is just not known yet, so the page asks to retry instead of reporting an overload.
+ */
+@ControllerAdvice
+public class RequestInProgressAdvice {
+
+    private static final String RETRY_AFTER_SECONDS = "2";
+
+    @ExceptionHandler(RequestInProgressException.class)
+    public ModelAndView handleRequestInProgress(RequestInProgressException exception, HttpServletResponse response) {
+        response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+        var modelAndView = new ModelAndView("errors/409", HttpStatus.CONFLICT);
+        modelAndView.addObject("message", "Предыдущий запрос ещё обрабатывается, обновите страницу через несколько секунд.");
+        return modelAndView;
+    }
+}
@@ -1,26 +1,47 @@
 package ru.job4j.cinema.controller;
 
 import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import ru.job4j.cinema.dto.BasketPurchaseResult;
+import ru.job4j.cinema.dto.PurchaseResult;
+import ru.job4j.cinema.dto.PurchaseStatus;
 import ru.job4j.cinema.model.Ticket;
 import ru.job4j.cinema.model.User;
 import ru.job4j.cinema.service.FilmSessionService;
+import ru.job4j.cinema.service.IdempotencyService;
+import ru.job4j.cinema.service.SeatHoldService;
 import ru.job4j.cinema.service.TicketService;
 
-import jakarta.servlet.http.HttpSession;
-
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Controller
 @RequestMapping("/tickets")
 @AllArgsConstructor
 public class TicketController {
 
+    private static final Map<PurchaseStatus, String> FAILURE_MESSAGES = Map.of(
+            PurchaseStatus.ALREADY_TAKEN, "Не удалось приобрести билет. Место уже занято, выберите другое.",
+            PurchaseStatus.INVALID_SEAT, "Не удалось приобрести билет. Такого места нет в зале.",
+            PurchaseStatus.DB_ERROR, "Не удалось приобрести билет. Попробуйте ещё раз позже."
+    );
+
+    private static final String SEAT_SEPARATOR = "-";
+
     private final TicketService ticketService;
     private final FilmSessionService filmSessionService;
+    private final SeatHoldService seatHoldService;
+    private final IdempotencyService idempotencyService;
 
     @GetMapping("/buy/{sessionId}")
     public String getBuyTicketPage(@PathVariable int sessionId, Model model) {
@@ -31,30 +52,123 @@ public class TicketController {
         }
 
         model.addAttribute("sessionDetail", sessionDetail);
+        model.addAttribute("idempotencyKey", UUID.randomUUID().toString());
         return "tickets/buy";
     }
 
     @PostMapping("/buy")
     public String buyTicket(@ModelAttribute Ticket ticket,
-                            HttpSession httpSession,
+                            @RequestParam(required = false) String idempotencyKey,
+                            @RequestAttribute(name = "user", required = false) User user,
                             RedirectAttributes redirectAttributes,
                             Model model) {
-
-        var user = (User) httpSession.getAttribute("user");
         if (user == null || user.getId() == null) {
             redirectAttributes.addFlashAttribute("errormessage", "Необходимо авторизоваться для покупки билетов");
             return "redirect:/users/login";
         }
 
         ticket.setUserId(user.getId());
-        Optional<Ticket> savedTicket = ticketService.buyTicket(ticket);
+        String scope = "ticket:" + ticket.getSessionId() + ":" + ticket.getRowNumber() + SEAT_SEPARATOR
+                + ticket.getPlaceNumber();
+        PurchaseResult result = idempotencyService.execute(scope, user.getId(), idempotencyKey,
+                () -> ticketService.buyTicket(ticket), purchase -> purchase.status() != PurchaseStatus.DB_ERROR);
 
-        if (savedTicket.isEmpty()) {
-            model.addAttribute("message", "Не удалось приобрести билет. Возможно, место уже занято.");
+        if (!result.isSold()) {
+            model.addAttribute("message", FAILURE_MESSAGES.get(result.status()));
             return "tickets/error";
         }
 
-        model.addAttribute("ticket", savedTicket.get());
+        model.addAttribute("ticket", result.ticket());
         return "tickets/success";
     }
+
+    @PostMapping(value = "/buy", params = "seats")
+    public String buyTickets(@RequestParam int sessionId,
+                             @RequestParam List<String> seats,
+                             @RequestParam(required = false) String idempotencyKey,
+                             @RequestAttribute(name = "user", required = false) User user,
+                             RedirectAttributes redirectAttributes,
+                             Model model) {
+        if (user == null || user.getId() == null) {
+            redirectAttributes.addFlashAttribute("errormessage", "Необходимо авторизоваться для покупки билетов");
+            return "redirect:/users/login";
+        }
+
+        Optional<List<Ticket>> tickets = parseSeats(sessionId, user.getId(), seats);
+        if (tickets.isEmpty()) {
+            model.addAttribute("message", FAILURE_MESSAGES.get(PurchaseStatus.INVALID_SEAT));
+            return "tickets/error";
+        }
+
+        String scope = "basket:" + sessionId + ":" + seatList(tickets.get());
+        BasketPurchaseResult result = idempotencyService.execute(scope, user.getId(), idempotencyKey,
+                () -> ticketService.buyTickets(tickets.get()), purchase -> purchase.status() != PurchaseStatus.DB_ERROR);
+
+        if (!result.isSold()) {
+            model.addAttribute("message", FAILURE_MESSAGES.get(result.status()));
+            return "tickets/error";
+        }
+
+        model.addAttribute("tickets", result.tickets());
+        return "tickets/success";
+    }
+
+    @PostMapping("/hold")
+    @ResponseBody
+    public ResponseEntity<Void> holdSeat(@ModelAttribute Ticket seat,
+                                         @RequestAttribute(name = "user", required = false) User user) {
+        if (user == null || user.getId() == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        seat.setUserId(user.getId());
+        if (!seatHoldService.hold(seat)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/release")
+    @ResponseBody
+    public ResponseEntity<Void> releaseSeat(@ModelAttribute Ticket seat,
+                                            @RequestAttribute(name = "user", required = false) User user) {
+        if (user == null || user.getId() == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        seat.setUserId(user.getId());
+        seatHoldService.release(seat);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Seats in hall order without duplicates, so the same basket gives the same idempotency scope
+     * however the form listed it.
+     */
+    private String seatList(List<Ticket> tickets) {
+        return tickets.stream()
+                .sorted(Comparator.comparing(Ticket::getRowNumber).thenComparing(Ticket::getPlaceNumber))
+                .map(ticket -> ticket.getRowNumber() + SEAT_SEPARATOR + ticket.getPlaceNumber())
+                .distinct()
+                .collect(Collectors.joining(","));
+    }
+
+    private Optional<List<Ticket>> parseSeats(int sessionId, Integer userId, List<String> seats) {
+        List<Ticket> tickets = new ArrayList<>(seats.size());
+        for (String seat : seats) {
+            String[] parts = seat.split(SEAT_SEPARATOR);
+            if (parts.length != 2) {
+                return Optional.empty();
+            }
+            try {
+                tickets.add(Ticket.builder()
+                        .sessionId(sessionId)
+                        .rowNumber(Integer.parseInt(parts[0].trim()))
+                        .placeNumber(Integer.parseInt(parts[1].trim()))
+                        .userId(userId)
+                        .build());
+            } catch (NumberFormatException e) {
+                return Optional.empty();
+            }
+        }
+        return Optional.of(tickets);
+    }
 }
@@ -5,10 +5,11 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import ru.job4j.cinema.model.User;
+import ru.job4j.cinema.service.AuthenticationService;
 import ru.job4j.cinema.service.UserService;
 
 import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpServletResponse;
 
 @Controller
 @RequestMapping("/users")
@@ -16,6 +17,7 @@ import jakarta.servlet.http.HttpSession;
 public class UserController {
 
     private final UserService userService;
+    private final AuthenticationService authenticationService;
 
     @GetMapping("/register")
     public String getRegistrationPage() {
@@ -33,8 +35,9 @@ public class UserController {
     }
 
     @GetMapping("/login")
-    public String getLoginPage(HttpSession session, Model model) {
-        var errorMessage = session.getAttribute("errormessage");
+    public String getLoginPage(HttpServletRequest request, Model model) {
+        var session = request.getSession(false);
+        var errorMessage = session == null ? null : session.getAttribute("errormessage");
         if (errorMessage != null) {
             model.addAttribute("errormessage", errorMessage);
             session.removeAttribute("errormessage");
@@ -43,23 +46,23 @@ public class UserController {
     }
 
     @PostMapping("/login")
-    public String loginUser(@ModelAttribute User user, 
-                           HttpServletRequest request, 
+    public String loginUser(@ModelAttribute User user,
+                           HttpServletRequest request,
+                           HttpServletResponse response,
                            Model model) {
         var userOptional = userService.findByEmailAndPassword(user.getEmail(), user.getPassword());
         if (userOptional.isEmpty()) {
             model.addAttribute("error", "Почта или пароль введены неверно");
             return "users/login";
         }
-        
-        var session = request.getSession();
-        session.setAttribute("user", userOptional.get());
+
+        authenticationService.signIn(userOptional.get(), request, response);
         return "redirect:/";
     }
 
     @GetMapping("/logout")
-    public String logout(HttpSession session) {
-        session.invalidate();
+    public String logout(HttpServletRequest request, HttpServletResponse response) {
+        authenticationService.signOut(request, response);
         return "redirect:/users/login";
     }
 }
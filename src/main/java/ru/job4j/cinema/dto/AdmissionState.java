@@ -0,0 +1,8 @@
+package ru.job4j.cinema.dto;
+
+public enum AdmissionState {
+    ADMITTED,
+    WAITING,
+    FULL,
+    NOT_QUEUED
+}
@@ -0,0 +1,28 @@
+package ru.job4j.cinema.dto;
+
+/**
+ * Place of a user in the waiting room of a session. {@code position} is 1-based and,
+ * like {@code etaSeconds}, only meaningful while {@link AdmissionState#WAITING}.
+ */
+public record AdmissionStatus(
+        AdmissionState state,
+        long position,
+        long etaSeconds
+) {
+
+    public static AdmissionStatus admitted() {
+        return new AdmissionStatus(AdmissionState.ADMITTED, 0, 0);
+    }
+
+    public static AdmissionStatus waiting(long position, long etaSeconds) {
+        return new AdmissionStatus(AdmissionState.WAITING, position, etaSeconds);
+    }
+
+    public static AdmissionStatus of(AdmissionState state) {
+        return new AdmissionStatus(state, 0, 0);
+    }
+
+    public boolean isAdmitted() {
+        return state == AdmissionState.ADMITTED;
+    }
+}
@@ -0,0 +1,23 @@
+package ru.job4j.cinema.dto;
+
+import ru.job4j.cinema.model.Ticket;
+
+import java.util.List;
+
+public record BasketPurchaseResult(
+        PurchaseStatus status,
+        List<Ticket> tickets
+) {
+
+    public static BasketPurchaseResult sold(List<Ticket> tickets) {
+        return new BasketPurchaseResult(PurchaseStatus.SOLD, tickets);
+    }
+
+    public static BasketPurchaseResult failed(PurchaseStatus status) {
+        return new BasketPurchaseResult(status, List.of());
+    }
+
+    public boolean isSold() {
+        return status == PurchaseStatus.SOLD;
+    }
+}
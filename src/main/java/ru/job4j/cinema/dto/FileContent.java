@@ -0,0 +1,12 @@
+package ru.job4j.cinema.dto;
+
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+
+public record FileContent(
+        Resource resource,
+        MediaType mediaType,
+        long contentLength,
+        long lastModified,
+        String etag
+) { }
@@ -5,6 +5,8 @@ import java.time.LocalDateTime;
 
 public record FilmSessionDto(
         Integer id,
+        Integer filmId,
+        Integer hallId,
         String filmName,
         String filmDescription,
         String posterPath,
@@ -0,0 +1,9 @@
+package ru.job4j.cinema.dto;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Outcome of a keyed request: completed once the first request with the key finishes.
+ */
+public record IdempotencyEntry(CompletableFuture<Object> result, long expiresAt) {
+}
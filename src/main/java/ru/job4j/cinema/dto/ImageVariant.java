@@ -0,0 +1,39 @@
+package ru.job4j.cinema.dto;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+public enum ImageVariant {
+    THUMB("thumb", 160),
+    CARD("card", 480),
+    FULL("full", 0);
+
+    private final String param;
+    private final int maxWidth;
+
+    ImageVariant(String param, int maxWidth) {
+        this.param = param;
+        this.maxWidth = maxWidth;
+    }
+
+    public String getParam() {
+        return param;
+    }
+
+    public int getMaxWidth() {
+        return maxWidth;
+    }
+
+    public boolean isOriginal() {
+        return maxWidth == 0;
+    }
+
+    public static Optional<ImageVariant> fromParam(String param) {
+        if (param == null) {
+            return Optional.of(FULL);
+        }
+        return Arrays.stream(values())
+                .filter(variant -> variant.param.equalsIgnoreCase(param))
+                .findFirst();
+    }
+}
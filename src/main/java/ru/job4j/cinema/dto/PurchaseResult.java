@@ -0,0 +1,21 @@
+package ru.job4j.cinema.dto;
+
+import ru.job4j.cinema.model.Ticket;
+
+public record PurchaseResult(
+        PurchaseStatus status,
+        Ticket ticket
+) {
+
+    public static PurchaseResult sold(Ticket ticket) {
+        return new PurchaseResult(PurchaseStatus.SOLD, ticket);
+    }
+
+    public static PurchaseResult failed(PurchaseStatus status) {
+        return new PurchaseResult(status, null);
+    }
+
+    public boolean isSold() {
+        return status == PurchaseStatus.SOLD;
+    }
+}
@@ -0,0 +1,8 @@
+package ru.job4j.cinema.dto;
+
+public enum PurchaseStatus {
+    SOLD,
+    ALREADY_TAKEN,
+    INVALID_SEAT,
+    DB_ERROR
+}
@@ -0,0 +1,93 @@
+package ru.job4j.cinema.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable view of the schedule from today on, ordered by start time and indexed by id, film,
+ * hall and day. A new snapshot is built as a whole and replaces the previous one.
+ */
+public record ScheduleSnapshot(
+        LocalDateTime builtAt,
+        List<FilmSessionDto> sessions,
+        Map<Integer, FilmSessionDto> byId,
+        Map<Integer, List<FilmSessionDto>> byFilmId,
+        Map<Integer, List<FilmSessionDto>> byHallId,
+        Map<LocalDate, List<FilmSessionDto>> byDay
+) {
+
+    public static ScheduleSnapshot of(LocalDateTime builtAt, List<FilmSessionDto> sessions) {
+        List<FilmSessionDto> ordered = sessions.stream()
+                .sorted(Comparator.comparing(FilmSessionDto::startTime).thenComparing(FilmSessionDto::id))
+                .toList();
+        return new ScheduleSnapshot(
+                builtAt,
+                ordered,
+                Map.copyOf(ordered.stream().collect(Collectors.toMap(FilmSessionDto::id, Function.identity()))),
+                index(ordered, FilmSessionDto::filmId),
+                index(ordered, FilmSessionDto::hallId),
+                index(ordered, session -> session.startTime().toLocalDate())
+        );
+    }
+
+    public Optional<FilmSessionDto> findById(Integer id) {
+        return Optional.ofNullable(byId.get(id));
+    }
+
+    public List<FilmSessionDto> findByFilmId(Integer filmId) {
+        return byFilmId.getOrDefault(filmId, List.of());
+    }
+
+    public List<FilmSessionDto> findByHallId(Integer hallId) {
+        return byHallId.getOrDefault(hallId, List.of());
+    }
+
+    public List<FilmSessionDto> findByDay(LocalDate day) {
+        return byDay.getOrDefault(day, List.of());
+    }
+
+    /**
+     * Keyset page over the ordered sessions: a binary search finds the first session starting at
+     * or after {@code from} and past {@code after}, then up to {@code size} sessions starting
+     * before {@code to} (unbounded when null) are taken, so a page costs the same wherever it is.
+     */
+    public SessionPage page(LocalDateTime from, LocalDateTime to, SessionCursor after, int size) {
+        List<FilmSessionDto> fetched = new ArrayList<>(size + 1);
+        for (int i = firstIndex(from, after); i < sessions.size() && fetched.size() <= size; i++) {
+            FilmSessionDto session = sessions.get(i);
+            if (to != null && !session.startTime().isBefore(to)) {
+                break;
+            }
+            fetched.add(session);
+        }
+        return SessionPage.of(fetched, size);
+    }
+
+    private int firstIndex(LocalDateTime from, SessionCursor after) {
+        int low = 0;
+        int high = sessions.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            FilmSessionDto session = sessions.get(middle);
+            if (session.startTime().isBefore(from) || (after != null && !after.isBefore(session))) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static <K> Map<K, List<FilmSessionDto>> index(List<FilmSessionDto> sessions,
+                                                          Function<FilmSessionDto, K> key) {
+        return Map.copyOf(sessions.stream()
+                .collect(Collectors.groupingBy(key, Collectors.toUnmodifiableList())));
+    }
+}
@@ -0,0 +1,10 @@
+package ru.job4j.cinema.dto;
+
+import ru.job4j.cinema.model.Ticket;
+
+public record SeatEvent(Integer sessionId, Integer rowNumber, Integer placeNumber, SeatEventType type) {
+
+    public static SeatEvent of(Ticket seat, SeatEventType type) {
+        return new SeatEvent(seat.getSessionId(), seat.getRowNumber(), seat.getPlaceNumber(), type);
+    }
+}
@@ -0,0 +1,7 @@
+package ru.job4j.cinema.dto;
+
+public enum SeatEventType {
+    TAKEN,
+    HELD,
+    RELEASED
+}
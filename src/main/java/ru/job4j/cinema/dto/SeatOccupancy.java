@@ -0,0 +1,32 @@
+package ru.job4j.cinema.dto;
+
+import ru.job4j.cinema.model.SeatMap;
+import ru.job4j.cinema.model.Ticket;
+
+import java.util.BitSet;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Occupancy of a whole session. {@code taken} and {@code held} are base64-encoded
+ * little-endian bitsets ({@link BitSet#toByteArray()}), row-major:
+ * bit {@code (row - 1) * placeCount + (place - 1)} is set for an unavailable place.
+ * Trailing free places are not encoded.
+ */
+public record SeatOccupancy(Integer sessionId, int rowCount, int placeCount, String taken, String held) {
+
+    public static SeatOccupancy of(Integer sessionId, SeatMap seatMap, List<Ticket> heldSeats) {
+        BitSet held = new BitSet(seatMap.getRowCount() * seatMap.getPlaceCount());
+        for (Ticket seat : heldSeats) {
+            if (seatMap.isValid(seat.getRowNumber(), seat.getPlaceNumber())) {
+                held.set((seat.getRowNumber() - 1) * seatMap.getPlaceCount() + seat.getPlaceNumber() - 1);
+            }
+        }
+        return new SeatOccupancy(sessionId, seatMap.getRowCount(), seatMap.getPlaceCount(),
+                encode(seatMap.toBitSet()), encode(held));
+    }
+
+    private static String encode(BitSet bits) {
+        return Base64.getEncoder().encodeToString(bits.toByteArray());
+    }
+}
@@ -0,0 +1,43 @@
+package ru.job4j.cinema.dto;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+
+/**
+ * Position in the schedule ordered by {@code (start_time, id)}: the next page starts
+ * right after the session it points to. Encoded as {@code <start time>_<id>} in links.
+ */
+public record SessionCursor(LocalDateTime startTime, Integer id) {
+
+    private static final char SEPARATOR = '_';
+
+    public static SessionCursor of(FilmSessionDto session) {
+        return new SessionCursor(session.startTime(), session.id());
+    }
+
+    public static Optional<SessionCursor> parse(String value) {
+        if (value == null) {
+            return Optional.empty();
+        }
+        int separator = value.lastIndexOf(SEPARATOR);
+        if (separator <= 0) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(new SessionCursor(LocalDateTime.parse(value.substring(0, separator)),
+                    Integer.valueOf(value.substring(separator + 1))));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    public boolean isBefore(FilmSessionDto session) {
+        int byTime = startTime.compareTo(session.startTime());
+        return byTime < 0 || (byTime == 0 && id < session.id());
+    }
+
+    public String encode() {
+        return startTime.toString() + SEPARATOR + id;
+    }
+}
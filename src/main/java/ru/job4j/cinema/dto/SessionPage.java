@@ -0,0 +1,25 @@
+package ru.job4j.cinema.dto;
+
+import java.util.List;
+
+/**
+ * One page of the schedule; {@code nextCursor} is null on the last page.
+ */
+public record SessionPage(List<FilmSessionDto> sessions, String nextCursor) {
+
+    /**
+     * Builds a page from up to {@code size + 1} sessions fetched in order; the extra one only
+     * tells that another page exists.
+     */
+    public static SessionPage of(List<FilmSessionDto> fetched, int size) {
+        if (fetched.size() <= size) {
+            return new SessionPage(fetched, null);
+        }
+        List<FilmSessionDto> sessions = fetched.subList(0, size);
+        return new SessionPage(List.copyOf(sessions), SessionCursor.of(sessions.get(size - 1)).encode());
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
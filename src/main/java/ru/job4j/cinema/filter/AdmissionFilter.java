@@ -0,0 +1,74 @@
+package ru.job4j.cinema.filter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.AllArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UrlPathHelper;
+import ru.job4j.cinema.model.User;
+import ru.job4j.cinema.service.AdmissionService;
+import ru.job4j.cinema.service.ScheduleSnapshotService;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Lets only users admitted by the waiting room reach the purchase pages of a scheduled session.
+ * Page requests of everyone else are sent to the queue page, seat holds get 429.
+ * Paths are matched the way Spring MVC resolves them (decoded, without {@code ;} parameters),
+ * so {@code /tickets/buy;x=1} is gated like {@code /tickets/buy}.
+ */
+@Component
+@Order(3)
+@AllArgsConstructor
+public class AdmissionFilter extends HttpFilter {
+
+    private static final String BUY_PAGE_PREFIX = "/tickets/buy/";
+    private static final UrlPathHelper PATH_HELPER = new UrlPathHelper();
+
+    private final transient AdmissionService admissionService;
+    private final transient ScheduleSnapshotService scheduleSnapshotService;
+
+    @Override
+    protected void doFilter(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws IOException, ServletException {
+        var uri = PATH_HELPER.getLookupPathForRequest(request);
+        var sessionId = findSessionId(request, uri);
+        var user = (User) request.getAttribute("user");
+        if (sessionId.isEmpty() || user == null || user.getId() == null
+                || scheduleSnapshotService.getSnapshot().findById(sessionId.get()).isEmpty()
+                || admissionService.enter(sessionId.get(), user.getId()).isAdmitted()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (uri.equals("/tickets/hold")) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "5");
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value());
+            return;
+        }
+        response.sendRedirect(request.getContextPath() + "/sessions/" + sessionId.get() + "/queue");
+    }
+
+    private Optional<Integer> findSessionId(HttpServletRequest request, String uri) {
+        if (uri.startsWith(BUY_PAGE_PREFIX)) {
+            return parse(uri.substring(BUY_PAGE_PREFIX.length()));
+        }
+        if (uri.equals("/tickets/buy") || uri.equals("/tickets/hold")) {
+            return parse(request.getParameter("sessionId"));
+        }
+        return Optional.empty();
+    }
+
+    private Optional<Integer> parse(String value) {
+        try {
+            return value == null ? Optional.empty() : Optional.of(Integer.valueOf(value));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+}
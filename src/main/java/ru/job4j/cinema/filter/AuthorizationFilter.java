@@ -7,11 +7,12 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
+import ru.job4j.cinema.model.User;
 
 import java.io.IOException;
 
 @Component
-@Order(1)
+@Order(2)
 public class AuthorizationFilter extends HttpFilter {
     @Override
     protected void doFilter(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws IOException, ServletException {
@@ -20,7 +21,8 @@ public class AuthorizationFilter extends HttpFilter {
             chain.doFilter(request, response);
             return;
         }
-        var userLoggedIn = request.getSession().getAttribute("user") != null;
+        var user = (User) request.getAttribute("user");
+        var userLoggedIn = user != null && user.getId() != null;
         if (!userLoggedIn) {
             if (uri.startsWith("/tickets")) {
                 request.getSession().setAttribute("errormessage", "Необходимо авторизоваться для покупки билетов");
@@ -36,12 +38,11 @@ public class AuthorizationFilter extends HttpFilter {
     private boolean isAlwaysPermitted(String uri) {
         return uri.startsWith("/users/register")
                 || uri.startsWith("/users/login")
-                || uri.startsWith("/js")
-                || uri.startsWith("/css")
+                || StaticResources.matches(uri)
                 || uri.equals("/")
                 || uri.equals("/index")
                 || uri.startsWith("/films")
                 || uri.startsWith("/sessions")
-                || uri.startsWith("/files");
+                || uri.equals("/actuator/health");
     }
 }
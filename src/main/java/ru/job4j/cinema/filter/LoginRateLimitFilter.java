@@ -0,0 +1,134 @@
+package ru.job4j.cinema.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UrlPathHelper;
+import ru.job4j.cinema.util.RateLimiter;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.util.Locale;
+
+/**
+ * Throttles login and registration attempts per client address and per email from that address
+ * before the session lookup and the user queries run. Excess attempts get 429 with {@code Retry-After}.
+ * The email bucket includes the address so that nobody can lock a victim out just by knowing
+ * their email; guessing one account from many addresses is bounded by the address buckets instead.
+ */
+@Component
+@Order(0)
+public class LoginRateLimitFilter extends HttpFilter {
+
+    private static final int MAX_EMAIL_LENGTH = 254;
+
+    private static final UrlPathHelper PATH_HELPER = new UrlPathHelper();
+
+    private final transient RateLimiter addressLimiter;
+    private final transient RateLimiter emailLimiter;
+    private final transient Counter addressRejected;
+    private final transient Counter emailRejected;
+
+    @Autowired
+    public LoginRateLimitFilter(MeterRegistry meterRegistry,
+                                @Value("${auth.rate-limit.address.rate-per-second:1}") double addressRate,
+                                @Value("${auth.rate-limit.address.burst:10}") int addressBurst,
+                                @Value("${auth.rate-limit.email.rate-per-second:0.2}") double emailRate,
+                                @Value("${auth.rate-limit.email.burst:5}") int emailBurst,
+                                @Value("${auth.rate-limit.max-keys:100000}") int maxKeys) {
+        this(new RateLimiter(Clock.systemUTC(), addressRate, addressBurst, maxKeys),
+                new RateLimiter(Clock.systemUTC(), emailRate, emailBurst, maxKeys), meterRegistry);
+    }
+
+    LoginRateLimitFilter(RateLimiter addressLimiter, RateLimiter emailLimiter, MeterRegistry meterRegistry) {
+        this.addressLimiter = addressLimiter;
+        this.emailLimiter = emailLimiter;
+        this.addressRejected = rejectedCounter(meterRegistry, "address");
+        this.emailRejected = rejectedCounter(meterRegistry, "email");
+        bucketGauge(meterRegistry, "address", addressLimiter);
+        bucketGauge(meterRegistry, "email", emailLimiter);
+        untrackedCounter(meterRegistry, "address", addressLimiter);
+        untrackedCounter(meterRegistry, "email", emailLimiter);
+    }
+
+    @Override
+    protected void doFilter(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws IOException, ServletException {
+        if (!isAttempt(request)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        var address = request.getRemoteAddr();
+        long wait = addressLimiter.tryAcquire(address);
+        if (wait > 0) {
+            addressRejected.increment();
+            reject(response, wait);
+            return;
+        }
+        var email = request.getParameter("email");
+        if (email != null) {
+            wait = emailLimiter.tryAcquire(address + "|" + normalize(email));
+            if (wait > 0) {
+                emailRejected.increment();
+                reject(response, wait);
+                return;
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    @Scheduled(fixedDelayString = "${auth.rate-limit.sweep-millis:60000}")
+    public void evictIdle() {
+        addressLimiter.evictIdle();
+        emailLimiter.evictIdle();
+    }
+
+    private boolean isAttempt(HttpServletRequest request) {
+        var uri = PATH_HELPER.getLookupPathForRequest(request);
+        return "POST".equals(request.getMethod())
+                && (uri.equals("/users/login") || uri.equals("/users/register"));
+    }
+
+    private String normalize(String email) {
+        var key = email.strip().toLowerCase(Locale.ROOT);
+        return key.length() > MAX_EMAIL_LENGTH ? key.substring(0, MAX_EMAIL_LENGTH) : key;
+    }
+
+    private void reject(HttpServletResponse response, long waitMillis) throws IOException {
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf((waitMillis + 999) / 1000));
+        response.sendError(HttpStatus.TOO_MANY_REQUESTS.value());
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String key) {
+        return Counter.builder("auth.rate-limit.rejected")
+                .description("Login and registration attempts rejected by the rate limiter")
+                .tag("key", key)
+                .register(meterRegistry);
+    }
+
+    private static void untrackedCounter(MeterRegistry meterRegistry, String key, RateLimiter limiter) {
+        FunctionCounter.builder("auth.rate-limit.untracked", limiter, RateLimiter::untrackedCount)
+                .description("Attempts let through unthrottled because the bucket table was full")
+                .tag("key", key)
+                .register(meterRegistry);
+    }
+
+    private static void bucketGauge(MeterRegistry meterRegistry, String key, RateLimiter limiter) {
+        Gauge.builder("auth.rate-limit.buckets", limiter, RateLimiter::size)
+                .description("Rate limit buckets currently tracked")
+                .tag("key", key)
+                .register(meterRegistry);
+    }
+}
@@ -5,31 +5,39 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpFilter;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import jakarta.servlet.http.HttpSession;
+import lombok.AllArgsConstructor;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 import ru.job4j.cinema.model.User;
+import ru.job4j.cinema.service.AuthenticationService;
 
 import java.io.IOException;
 
 @Component
-@Order(2)
+@Order(1)
+@AllArgsConstructor
 public class SessionFilter extends HttpFilter {
+
+    static final String GUEST_NAME = "Гость";
+
+    private final transient AuthenticationService authenticationService;
+
     @Override
     protected void doFilter(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws IOException, ServletException {
-        var session = request.getSession();
-        addUserToSession(session, request);
+        if (StaticResources.matches(request.getRequestURI())) {
+            chain.doFilter(request, response);
+            return;
+        }
+        var user = authenticationService.findCurrentUser(request).orElseGet(SessionFilter::guest);
+        request.setAttribute("user", user);
         chain.doFilter(request, response);
     }
 
-    private void addUserToSession(HttpSession session, HttpServletRequest request) {
-        var user = (User) session.getAttribute("user");
-        if (user != null) {
-            request.setAttribute("user", user);
-        } else {
-            var guest = new User();
-            guest.setFullName("Гость");
-            request.setAttribute("user", guest);
-        }
+    /**
+     * A new guest for every request: {@link User} is mutable, so a shared instance could carry one
+     * request's changes into every other anonymous request.
+     */
+    static User guest() {
+        return User.builder().fullName(GUEST_NAME).build();
     }
 }
@@ -0,0 +1,18 @@
+package ru.job4j.cinema.filter;
+
+/**
+ * Requests for static assets and posters carry no user state, so both filters let them
+ * through untouched and never look up or create an HTTP session for them.
+ */
+final class StaticResources {
+
+    private StaticResources() {
+    }
+
+    static boolean matches(String uri) {
+        return uri.startsWith("/css/")
+                || uri.startsWith("/js/")
+                || uri.startsWith("/files/")
+                || uri.equals("/favicon.ico");
+    }
+}
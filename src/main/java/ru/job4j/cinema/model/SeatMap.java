@@ -0,0 +1,70 @@
+package ru.job4j.cinema.model;
+
+import java.util.BitSet;
+
+/**
+ * Occupancy of a single film session: one bitset per hall row,
+ * a set bit means the place is sold. Rows and places are 1-based.
+ */
+public class SeatMap {
+
+    private final int rowCount;
+    private final int placeCount;
+    private final BitSet[] rows;
+
+    public SeatMap(int rowCount, int placeCount) {
+        this.rowCount = rowCount;
+        this.placeCount = placeCount;
+        this.rows = new BitSet[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            rows[i] = new BitSet(placeCount);
+        }
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getPlaceCount() {
+        return placeCount;
+    }
+
+    public boolean isValid(Integer rowNumber, Integer placeNumber) {
+        return rowNumber != null && placeNumber != null
+                && rowNumber >= 1 && rowNumber <= rowCount
+                && placeNumber >= 1 && placeNumber <= placeCount;
+    }
+
+    public boolean isTaken(int rowNumber, int placeNumber) {
+        BitSet row = rows[rowNumber - 1];
+        synchronized (row) {
+            return row.get(placeNumber - 1);
+        }
+    }
+
+    public boolean take(int rowNumber, int placeNumber) {
+        BitSet row = rows[rowNumber - 1];
+        synchronized (row) {
+            if (row.get(placeNumber - 1)) {
+                return false;
+            }
+            row.set(placeNumber - 1);
+            return true;
+        }
+    }
+
+    /**
+     * All sold places as one row-major bitset: bit {@code (row - 1) * placeCount + (place - 1)}.
+     */
+    public BitSet toBitSet() {
+        BitSet result = new BitSet(rowCount * placeCount);
+        for (int i = 0; i < rowCount; i++) {
+            BitSet row = rows[i];
+            int offset = i * placeCount;
+            synchronized (row) {
+                row.stream().forEach(place -> result.set(offset + place));
+            }
+        }
+        return result;
+    }
+}
@@ -2,6 +2,7 @@ package ru.job4j.cinema.repository;
 
 import ru.job4j.cinema.model.Film;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -10,4 +11,6 @@ public interface FilmRepository {
     List<Film> findAll();
 
     Optional<Film> findById(Integer id);
+
+    List<Film> findAllByIds(Collection<Integer> ids);
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package ru.job4j.cinema.repository;
 
 import ru.job4j.cinema.model.FilmSession;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,4 +13,13 @@ public interface FilmSessionRepository {
     Optional<FilmSession> findById(Integer id);
 
     List<FilmSession> findByFilmId(Integer filmId);
+
+    List<FilmSession> findStartingFrom(LocalDateTime from);
+
+    /**
+     * Sessions starting in {@code [from, to)} ordered by start time and id, beginning right after
+     * {@code (afterStartTime, afterId)}. {@code to} and the cursor may be null.
+     */
+    List<FilmSession> findPage(LocalDateTime from, LocalDateTime to, LocalDateTime afterStartTime, Integer afterId,
+                               int limit);
 }
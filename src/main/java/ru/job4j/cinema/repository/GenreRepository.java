@@ -2,10 +2,13 @@ package ru.job4j.cinema.repository;
 
 import ru.job4j.cinema.model.Genre;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface GenreRepository {
 
     Optional<Genre> findById(Integer id);
+
+    List<Genre> findAllByIds(Collection<Integer> ids);
 }
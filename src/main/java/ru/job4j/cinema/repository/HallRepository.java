@@ -2,10 +2,13 @@ package ru.job4j.cinema.repository;
 
 import ru.job4j.cinema.model.Hall;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface HallRepository {
 
     Optional<Hall> findById(Integer id);
+
+    List<Hall> findAllByIds(Collection<Integer> ids);
 }
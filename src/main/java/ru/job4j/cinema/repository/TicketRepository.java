@@ -1,13 +1,16 @@
 package ru.job4j.cinema.repository;
 
+import ru.job4j.cinema.dto.BasketPurchaseResult;
+import ru.job4j.cinema.dto.PurchaseResult;
 import ru.job4j.cinema.model.Ticket;
 
-import java.util.Optional;
+import java.util.List;
 
 public interface TicketRepository {
 
-    Optional<Ticket> save(Ticket ticket);
+    PurchaseResult claim(Ticket ticket);
 
-    boolean isPlaceAvailable(Integer sessionId, Integer rowNumber, Integer placeNumber);
+    BasketPurchaseResult claimAll(List<Ticket> tickets);
 
+    List<Ticket> findBySessionId(Integer sessionId);
 }
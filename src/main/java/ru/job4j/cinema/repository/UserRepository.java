@@ -2,6 +2,7 @@ package ru.job4j.cinema.repository;
 
 import ru.job4j.cinema.model.User;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository {
@@ -12,4 +13,8 @@ public interface UserRepository {
     Optional<User> findById(Integer id);
 
     boolean existsByEmail(String email);
+
+    boolean updatePassword(Integer id, String password);
+
+    List<String> findAllEmails();
 }
@@ -8,6 +8,7 @@ import org.sql2o.Sql2o;
 import ru.job4j.cinema.model.Film;
 import ru.job4j.cinema.repository.FilmRepository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -39,4 +40,18 @@ public class Sql2oFilmRepository implements FilmRepository {
             return Optional.ofNullable(film);
         }
     }
+
+    @Override
+    public List<Film> findAllByIds(Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        try (Connection connection = sql2o.open()) {
+            Query query = connection.createQuery("SELECT * FROM films WHERE id IN (:ids)");
+            return query
+                    .addParameter("ids", ids)
+                    .setColumnMappings(Film.COLUMN_MAPPING)
+                    .executeAndFetch(Film.class);
+        }
+    }
 }
@@ -8,6 +8,7 @@ import org.sql2o.Sql2o;
 import ru.job4j.cinema.model.FilmSession;
 import ru.job4j.cinema.repository.FilmSessionRepository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -53,4 +54,45 @@ public class Sql2oFilmSessionRepository implements FilmSessionRepository {
                     .executeAndFetch(FilmSession.class);
         }
     }
+
+    @Override
+    public List<FilmSession> findStartingFrom(LocalDateTime from) {
+        try (Connection connection = sql2o.open()) {
+            Query query = connection.createQuery(
+                    "SELECT * FROM film_sessions WHERE start_time >= :from ORDER BY start_time, id");
+
+            return query
+                    .addParameter("from", from)
+                    .setColumnMappings(FilmSession.COLUMN_MAPPING)
+                    .executeAndFetch(FilmSession.class);
+        }
+    }
+
+    @Override
+    public List<FilmSession> findPage(LocalDateTime from, LocalDateTime to, LocalDateTime afterStartTime,
+                                      Integer afterId, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT * FROM film_sessions WHERE start_time >= :from");
+        if (to != null) {
+            sql.append(" AND start_time < :to");
+        }
+        if (afterStartTime != null) {
+            sql.append(" AND (start_time, id) > (:afterStartTime, :afterId)");
+        }
+        sql.append(" ORDER BY start_time, id LIMIT :limit");
+        try (Connection connection = sql2o.open()) {
+            Query query = connection.createQuery(sql.toString())
+                    .addParameter("from", from)
+                    .addParameter("limit", limit);
+            if (to != null) {
+                query.addParameter("to", to);
+            }
+            if (afterStartTime != null) {
+                query.addParameter("afterStartTime", afterStartTime)
+                        .addParameter("afterId", afterId);
+            }
+            return query
+                    .setColumnMappings(FilmSession.COLUMN_MAPPING)
+                    .executeAndFetch(FilmSession.class);
+        }
+    }
 }
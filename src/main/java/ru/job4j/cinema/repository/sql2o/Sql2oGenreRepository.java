@@ -8,6 +8,8 @@ import org.sql2o.Sql2o;
 import ru.job4j.cinema.model.Genre;
 import ru.job4j.cinema.repository.GenreRepository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @AllArgsConstructor
@@ -28,4 +30,17 @@ public class Sql2oGenreRepository implements GenreRepository {
             return Optional.ofNullable(genre);
         }
     }
+
+    @Override
+    public List<Genre> findAllByIds(Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        try (Connection connection = sql2o.open()) {
+            Query query = connection.createQuery("SELECT * FROM genres WHERE id IN (:ids)");
+            return query
+                    .addParameter("ids", ids)
+                    .executeAndFetch(Genre.class);
+        }
+    }
 }
@@ -8,6 +8,8 @@ import org.sql2o.Sql2o;
 import ru.job4j.cinema.model.Hall;
 import ru.job4j.cinema.repository.HallRepository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @AllArgsConstructor
@@ -29,4 +31,18 @@ public class Sql2oHallRepository implements HallRepository {
             return Optional.ofNullable(hall);
         }
     }
+
+    @Override
+    public List<Hall> findAllByIds(Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        try (Connection connection = sql2o.open()) {
+            Query query = connection.createQuery("SELECT * FROM halls WHERE id IN (:ids)");
+            return query
+                    .addParameter("ids", ids)
+                    .setColumnMappings(Hall.COLUMN_MAPPING)
+                    .executeAndFetch(Hall.class);
+        }
+    }
 }
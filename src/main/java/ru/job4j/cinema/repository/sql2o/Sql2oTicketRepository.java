@@ -6,62 +6,122 @@ import org.sql2o.Connection;
 import org.sql2o.Query;
 import org.sql2o.Sql2o;
 import org.sql2o.Sql2oException;
+import ru.job4j.cinema.dto.BasketPurchaseResult;
+import ru.job4j.cinema.dto.PurchaseResult;
+import ru.job4j.cinema.dto.PurchaseStatus;
 import ru.job4j.cinema.model.Ticket;
 import ru.job4j.cinema.repository.TicketRepository;
+import ru.job4j.cinema.util.DatabaseBusyException;
 
-import java.util.Optional;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 @AllArgsConstructor
 @Repository
 public class Sql2oTicketRepository implements TicketRepository {
 
+    private static final String INTEGRITY_VIOLATION_CLASS = "23";
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    private static final String CLAIM_SQL = """
+            INSERT INTO tickets (session_id, "row_number", place_number, user_id)
+            VALUES (:sessionId, :rowNumber, :placeNumber, :userId)
+            ON CONFLICT DO NOTHING
+            """;
+
     private final Sql2o sql2o;
 
     @Override
-    public Optional<Ticket> save(Ticket ticket) {
+    public PurchaseResult claim(Ticket ticket) {
         try (Connection connection = sql2o.open()) {
-            String sql = """
-                    INSERT INTO tickets (session_id, "row_number", place_number, user_id)
-                    VALUES (:sessionId, :rowNumber, :placeNumber, :userId)
-                    """;
+            Query query = connection.createQuery(CLAIM_SQL, true);
+            bind(query, ticket).executeUpdate();
+            if (connection.getResult() == 0) {
+                return PurchaseResult.failed(PurchaseStatus.ALREADY_TAKEN);
+            }
+            return PurchaseResult.sold(withId(ticket, connection.getKey(Integer.class)));
+        } catch (Sql2oException e) {
+            rethrowIfBusy(e);
+            return PurchaseResult.failed(toStatus(e));
+        }
+    }
 
-            Query query = connection.createQuery(sql, true);
-            Integer generatedId = query
-                    .addParameter("sessionId", ticket.getSessionId())
-                    .addParameter("rowNumber", ticket.getRowNumber())
-                    .addParameter("placeNumber", ticket.getPlaceNumber())
-                    .addParameter("userId", ticket.getUserId())
-                    .executeUpdate()
-                    .getKey(Integer.class);
+    @Override
+    public BasketPurchaseResult claimAll(List<Ticket> tickets) {
+        try (Connection connection = sql2o.beginTransaction()) {
+            Query query = connection.createQuery(CLAIM_SQL, true);
+            for (Ticket ticket : tickets) {
+                bind(query, ticket).addToBatch();
+            }
+            query.executeBatch();
+            List<Integer> keys = connection.getKeys(Integer.class);
+            boolean conflict = Arrays.stream(connection.getBatchResult()).anyMatch(count -> count == 0);
+            if (conflict || keys.size() != tickets.size()) {
+                connection.rollback();
+                return BasketPurchaseResult.failed(PurchaseStatus.ALREADY_TAKEN);
+            }
+            connection.commit();
 
-            Ticket newTicket = Ticket.builder()
-                    .id(generatedId)
-                    .sessionId(ticket.getSessionId())
-                    .rowNumber(ticket.getRowNumber())
-                    .placeNumber(ticket.getPlaceNumber())
-                    .userId(ticket.getUserId())
-                    .build();
-            return Optional.of(newTicket);
+            List<Ticket> newTickets = new ArrayList<>(tickets.size());
+            for (int i = 0; i < tickets.size(); i++) {
+                newTickets.add(withId(tickets.get(i), keys.get(i)));
+            }
+            return BasketPurchaseResult.sold(newTickets);
         } catch (Sql2oException e) {
-            return Optional.empty();
+            rethrowIfBusy(e);
+            return BasketPurchaseResult.failed(toStatus(e));
         }
     }
 
     @Override
-    public boolean isPlaceAvailable(Integer sessionId, Integer rowNumber, Integer placeNumber) {
+    public List<Ticket> findBySessionId(Integer sessionId) {
         try (Connection connection = sql2o.open()) {
             String sql = """
-                    SELECT COUNT(*) FROM tickets
-                    WHERE session_id = :sessionId
-                    AND "row_number" = :rowNumber
-                    AND place_number = :placeNumber
+                    SELECT * FROM tickets WHERE session_id = :sessionId
                     """;
-            Integer count = connection.createQuery(sql)
+            return connection.createQuery(sql)
                     .addParameter("sessionId", sessionId)
-                    .addParameter("rowNumber", rowNumber)
-                    .addParameter("placeNumber", placeNumber)
-                    .executeScalar(Integer.class);
-            return count > 0;
+                    .setColumnMappings(Ticket.COLUMN_MAPPING)
+                    .executeAndFetch(Ticket.class);
+        }
+    }
+
+    private Query bind(Query query, Ticket ticket) {
+        return query.addParameter("sessionId", ticket.getSessionId())
+                .addParameter("rowNumber", ticket.getRowNumber())
+                .addParameter("placeNumber", ticket.getPlaceNumber())
+                .addParameter("userId", ticket.getUserId());
+    }
+
+    private Ticket withId(Ticket ticket, Integer id) {
+        return Ticket.builder()
+                .id(id)
+                .sessionId(ticket.getSessionId())
+                .rowNumber(ticket.getRowNumber())
+                .placeNumber(ticket.getPlaceNumber())
+                .userId(ticket.getUserId())
+                .build();
+    }
+
+    private void rethrowIfBusy(Sql2oException e) {
+        if (e.getCause() instanceof DatabaseBusyException) {
+            throw e;
+        }
+    }
+
+    private PurchaseStatus toStatus(Sql2oException e) {
+        if (!(e.getCause() instanceof SQLException sqlException) || sqlException.getSQLState() == null) {
+            return PurchaseStatus.DB_ERROR;
+        }
+        String sqlState = sqlException.getSQLState();
+        if (UNIQUE_VIOLATION.equals(sqlState)) {
+            return PurchaseStatus.ALREADY_TAKEN;
+        }
+        if (sqlState.startsWith(INTEGRITY_VIOLATION_CLASS)) {
+            return PurchaseStatus.INVALID_SEAT;
         }
+        return PurchaseStatus.DB_ERROR;
     }
 }
@@ -8,7 +8,9 @@ import org.sql2o.Sql2o;
 import org.sql2o.Sql2oException;
 import ru.job4j.cinema.model.User;
 import ru.job4j.cinema.repository.UserRepository;
+import ru.job4j.cinema.util.DatabaseBusyException;
 
+import java.util.List;
 import java.util.Optional;
 
 @AllArgsConstructor
@@ -42,6 +44,7 @@ public class Sql2oUserRepository implements UserRepository {
 
             return Optional.of(newUser);
         } catch (Sql2oException e) {
+            rethrowIfBusy(e);
             return Optional.empty();
         }
     }
@@ -86,4 +89,32 @@ public class Sql2oUserRepository implements UserRepository {
             return executed > 0;
         }
     }
+
+    @Override
+    public boolean updatePassword(Integer id, String password) {
+        try (Connection connection = sql2o.open()) {
+            String sql = """
+                    UPDATE users SET password = :password WHERE id = :id
+                    """;
+            return connection.createQuery(sql)
+                    .addParameter("password", password)
+                    .addParameter("id", id)
+                    .executeUpdate()
+                    .getResult() > 0;
+        }
+    }
+
+    @Override
+    public List<String> findAllEmails() {
+        try (Connection connection = sql2o.open()) {
+            return connection.createQuery("SELECT email FROM users")
+                    .executeScalarList(String.class);
+        }
+    }
+
+    private void rethrowIfBusy(Sql2oException e) {
+        if (e.getCause() instanceof DatabaseBusyException) {
+            throw e;
+        }
+    }
 }
@@ -0,0 +1,10 @@
+package ru.job4j.cinema.service;
+
+import ru.job4j.cinema.dto.AdmissionStatus;
+
+public interface AdmissionService {
+
+    AdmissionStatus enter(Integer sessionId, Integer userId);
+
+    AdmissionStatus getStatus(Integer sessionId, Integer userId);
+}
@@ -0,0 +1,21 @@
+package ru.job4j.cinema.service;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import ru.job4j.cinema.model.User;
+
+import java.util.Optional;
+
+/**
+ * Keeps track of who is logged in. Selected by {@code auth.mode}:
+ * {@code session} (default) keeps the user in the container session,
+ * {@code token} keeps only a signed cookie on the client.
+ */
+public interface AuthenticationService {
+
+    Optional<User> findCurrentUser(HttpServletRequest request);
+
+    void signIn(User user, HttpServletRequest request, HttpServletResponse response);
+
+    void signOut(HttpServletRequest request, HttpServletResponse response);
+}
@@ -0,0 +1,13 @@
+package ru.job4j.cinema.service;
+
+public interface EmailIndexService {
+
+    /**
+     * False only when no user with this email has been registered; true means "ask the database".
+     */
+    boolean mightExist(String email);
+
+    void add(String email);
+
+    void rebuild();
+}
@@ -1,5 +1,6 @@
 package ru.job4j.cinema.service;
 
+import ru.job4j.cinema.dto.FileContent;
 import ru.job4j.cinema.model.File;
 
 import java.util.Optional;
@@ -8,5 +9,7 @@ public interface FileService {
 
     Optional<File> findById(Integer id);
 
-    Optional<byte[]> getFileContent(Integer id);
+    Optional<FileContent> getFileContent(Integer id);
+
+    void invalidate(Integer id);
 }
@@ -2,6 +2,7 @@ package ru.job4j.cinema.service;
 
 import ru.job4j.cinema.dto.FilmDto;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -10,4 +11,10 @@ public interface FilmService {
     List<FilmDto> findAll();
 
     Optional<FilmDto> findById(Integer id);
+
+    List<FilmDto> findAllByIds(Collection<Integer> ids);
+
+    void invalidate(Integer id);
+
+    void invalidateAll();
 }
@@ -2,7 +2,10 @@ package ru.job4j.cinema.service;
 
 import ru.job4j.cinema.dto.FilmSessionDetailDto;
 import ru.job4j.cinema.dto.FilmSessionDto;
+import ru.job4j.cinema.dto.SessionCursor;
+import ru.job4j.cinema.dto.SessionPage;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface FilmSessionService {
@@ -12,4 +15,8 @@ public interface FilmSessionService {
     FilmSessionDetailDto findById(Integer id);
 
     List<FilmSessionDto> findByFilmId(Integer filmId);
+
+    List<FilmSessionDto> findStartingFrom(LocalDateTime from);
+
+    SessionPage findPage(LocalDateTime from, LocalDateTime to, SessionCursor after, int size);
 }
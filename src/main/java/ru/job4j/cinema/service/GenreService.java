@@ -2,8 +2,16 @@ package ru.job4j.cinema.service;
 
 import ru.job4j.cinema.model.Genre;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface GenreService {
     Optional<Genre> findById(Integer id);
+
+    List<Genre> findAllByIds(Collection<Integer> ids);
+
+    void invalidate(Integer id);
+
+    void invalidateAll();
 }
@@ -2,8 +2,16 @@ package ru.job4j.cinema.service;
 
 import ru.job4j.cinema.model.Hall;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface HallService {
     Optional<Hall> findById(Integer id);
+
+    List<Hall> findAllByIds(Collection<Integer> ids);
+
+    void invalidate(Integer id);
+
+    void invalidateAll();
 }
@@ -0,0 +1,15 @@
+package ru.job4j.cinema.service;
+
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+public interface IdempotencyService {
+
+    /**
+     * Runs {@code action} once per user, scope and key: a repeated call with the same triple
+     * returns the remembered result, waiting for it if the first call is still running.
+     * Results rejected by {@code remember} (and failures) are forgotten so the next call retries.
+     * Without a key the action simply runs.
+     */
+    <T> T execute(String scope, Integer userId, String key, Supplier<T> action, Predicate<T> remember);
+}
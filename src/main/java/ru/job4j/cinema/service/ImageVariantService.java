@@ -0,0 +1,16 @@
+package ru.job4j.cinema.service;
+
+import ru.job4j.cinema.dto.FileContent;
+import ru.job4j.cinema.dto.ImageVariant;
+
+import java.util.Optional;
+
+public interface ImageVariantService {
+
+    /**
+     * Returns the resized variant of the given original if it has already been generated,
+     * otherwise schedules its generation in the background and returns empty. An original that
+     * could not be decoded is remembered and keeps returning empty without being scheduled again.
+     */
+    Optional<FileContent> findVariant(Integer fileId, FileContent original, ImageVariant variant);
+}
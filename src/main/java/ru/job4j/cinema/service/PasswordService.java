@@ -0,0 +1,23 @@
+package ru.job4j.cinema.service;
+
+public interface PasswordService {
+
+    String hash(String rawPassword);
+
+    /**
+     * Checks {@code rawPassword} against a stored bcrypt hash; a stored value that is not
+     * a hash is a legacy plaintext password and is compared as is.
+     */
+    boolean matches(String rawPassword, String storedPassword);
+
+    /**
+     * Does the work of {@link #matches} against a hash no password matches; used when the user
+     * is not found so that the login takes as long as one with a wrong password.
+     */
+    void matchDummy(String rawPassword);
+
+    /**
+     * True for legacy plaintext passwords and for hashes made with a lower cost than the current one.
+     */
+    boolean needsRehash(String storedPassword);
+}
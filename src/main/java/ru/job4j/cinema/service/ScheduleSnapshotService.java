@@ -0,0 +1,20 @@
+package ru.job4j.cinema.service;
+
+import ru.job4j.cinema.dto.ScheduleSnapshot;
+import ru.job4j.cinema.dto.SessionCursor;
+import ru.job4j.cinema.dto.SessionPage;
+
+import java.time.LocalDate;
+
+public interface ScheduleSnapshotService {
+
+    ScheduleSnapshot getSnapshot();
+
+    void refresh();
+
+    /**
+     * Sessions of the days {@code from}..{@code to} inclusive, a page of {@code size} after
+     * {@code after}. Without {@code from} the schedule starts today; without {@code to} it is open-ended.
+     */
+    SessionPage findPage(LocalDate from, LocalDate to, SessionCursor after, int size);
+}
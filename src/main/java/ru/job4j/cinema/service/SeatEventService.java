@@ -0,0 +1,11 @@
+package ru.job4j.cinema.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.job4j.cinema.dto.SeatEvent;
+
+public interface SeatEventService {
+
+    SseEmitter subscribe(Integer sessionId);
+
+    void publish(SeatEvent event);
+}
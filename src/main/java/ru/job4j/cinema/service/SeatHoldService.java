@@ -0,0 +1,22 @@
+package ru.job4j.cinema.service;
+
+import ru.job4j.cinema.model.Ticket;
+
+import java.util.List;
+
+public interface SeatHoldService {
+
+    boolean hold(Ticket seat);
+
+    void release(Ticket seat);
+
+    /**
+     * Drops the owner's hold without publishing {@code RELEASED}: used once the seat is sold,
+     * so subscribers go straight from held to taken.
+     */
+    void discard(Ticket seat);
+
+    boolean isHeldByOther(Ticket seat);
+
+    List<Ticket> findHeldByOthers(Integer sessionId, Integer userId);
+}
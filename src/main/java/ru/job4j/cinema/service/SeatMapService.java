@@ -0,0 +1,12 @@
+package ru.job4j.cinema.service;
+
+import ru.job4j.cinema.model.SeatMap;
+
+import java.util.Optional;
+
+public interface SeatMapService {
+
+    Optional<SeatMap> findBySessionId(Integer sessionId);
+
+    void invalidate(Integer sessionId);
+}
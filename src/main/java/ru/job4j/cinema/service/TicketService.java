@@ -1,9 +1,13 @@
 package ru.job4j.cinema.service;
 
+import ru.job4j.cinema.dto.BasketPurchaseResult;
+import ru.job4j.cinema.dto.PurchaseResult;
 import ru.job4j.cinema.model.Ticket;
 
-import java.util.Optional;
+import java.util.List;
 
 public interface TicketService {
-    Optional<Ticket> buyTicket(Ticket ticket);
+    PurchaseResult buyTicket(Ticket ticket);
+
+    BasketPurchaseResult buyTickets(List<Ticket> tickets);
 }
@@ -0,0 +1,199 @@
+package ru.job4j.cinema.service.impl;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ru.job4j.cinema.dto.AdmissionState;
+import ru.job4j.cinema.dto.AdmissionStatus;
+import ru.job4j.cinema.service.AdmissionService;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Virtual waiting room, one FIFO queue per film session. Users are let through at
+ * {@code admission.rate-per-second} with bursts of up to {@code admission.burst}; while
+ * the session is quiet nobody waits, when it spikes the excess queues up and is admitted
+ * in arrival order by {@link #tick()}. Everything lives in memory: checking a place in
+ * the queue never reaches the database.
+ */
+@Service
+public class AdmissionServiceImpl implements AdmissionService {
+
+    private final Clock clock;
+    private final double ratePerSecond;
+    private final int burst;
+    private final long admittedTtlMillis;
+    private final long abandonMillis;
+    private final int maxWaiting;
+    private final Map<Integer, SessionQueue> queues = new ConcurrentHashMap<>();
+
+    @Autowired
+    public AdmissionServiceImpl(@Value("${admission.rate-per-second:5}") double ratePerSecond,
+                                @Value("${admission.burst:20}") int burst,
+                                @Value("${admission.admitted-ttl-seconds:900}") long admittedTtlSeconds,
+                                @Value("${admission.abandon-seconds:60}") long abandonSeconds,
+                                @Value("${admission.max-waiting:10000}") int maxWaiting) {
+        this(Clock.systemUTC(), ratePerSecond, burst, Duration.ofSeconds(admittedTtlSeconds),
+                Duration.ofSeconds(abandonSeconds), maxWaiting);
+    }
+
+    AdmissionServiceImpl(Clock clock, double ratePerSecond, int burst, Duration admittedTtl,
+                         Duration abandonAfter, int maxWaiting) {
+        if (ratePerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("ratePerSecond and burst must be positive");
+        }
+        this.clock = clock;
+        this.ratePerSecond = ratePerSecond;
+        this.burst = burst;
+        this.admittedTtlMillis = admittedTtl.toMillis();
+        this.abandonMillis = abandonAfter.toMillis();
+        this.maxWaiting = maxWaiting;
+    }
+
+    @Override
+    public AdmissionStatus enter(Integer sessionId, Integer userId) {
+        long now = clock.millis();
+        AdmissionStatus[] status = new AdmissionStatus[1];
+        queues.compute(sessionId, (id, existing) -> {
+            SessionQueue queue = existing == null ? new SessionQueue(burst, now) : existing;
+            synchronized (queue) {
+                status[0] = queue.enter(userId, now);
+            }
+            return queue;
+        });
+        return status[0];
+    }
+
+    @Override
+    public AdmissionStatus getStatus(Integer sessionId, Integer userId) {
+        SessionQueue queue = queues.get(sessionId);
+        if (queue == null) {
+            return AdmissionStatus.of(AdmissionState.NOT_QUEUED);
+        }
+        synchronized (queue) {
+            return queue.status(userId, clock.millis());
+        }
+    }
+
+    /**
+     * Admits waiting users as tokens accrue and drops queues that have nobody left in them.
+     */
+    @Scheduled(fixedRateString = "${admission.tick-millis:250}")
+    public void tick() {
+        long now = clock.millis();
+        for (Integer sessionId : queues.keySet()) {
+            queues.computeIfPresent(sessionId, (id, queue) -> {
+                synchronized (queue) {
+                    queue.admit(now);
+                    return queue.isIdle() ? null : queue;
+                }
+            });
+        }
+    }
+
+    int getQueueCount() {
+        return queues.size();
+    }
+
+    /**
+     * Queue and token bucket of one session; guarded by its own monitor.
+     */
+    private final class SessionQueue {
+
+        private final Map<Integer, Waiting> waiting = new LinkedHashMap<>();
+        private final Map<Integer, Long> admittedUntil = new HashMap<>();
+        private double tokens;
+        private long refilledAt;
+        private long issued;
+
+        private SessionQueue(double tokens, long now) {
+            this.tokens = tokens;
+            this.refilledAt = now;
+        }
+
+        private AdmissionStatus enter(Integer userId, long now) {
+            if (isAdmitted(userId, now)) {
+                return AdmissionStatus.admitted();
+            }
+            Waiting entry = waiting.get(userId);
+            if (entry == null) {
+                refill(now);
+                if (waiting.isEmpty() && tokens >= 1) {
+                    tokens--;
+                    admittedUntil.put(userId, now + admittedTtlMillis);
+                    return AdmissionStatus.admitted();
+                }
+                if (waiting.size() >= maxWaiting) {
+                    return AdmissionStatus.of(AdmissionState.FULL);
+                }
+                issued++;
+                entry = new Waiting(issued);
+                waiting.put(userId, entry);
+            }
+            entry.lastSeen = now;
+            return positionOf(entry);
+        }
+
+        private AdmissionStatus status(Integer userId, long now) {
+            if (isAdmitted(userId, now)) {
+                return AdmissionStatus.admitted();
+            }
+            Waiting entry = waiting.get(userId);
+            if (entry == null) {
+                return AdmissionStatus.of(AdmissionState.NOT_QUEUED);
+            }
+            entry.lastSeen = now;
+            return positionOf(entry);
+        }
+
+        private void admit(long now) {
+            refill(now);
+            Iterator<Map.Entry<Integer, Waiting>> heads = waiting.entrySet().iterator();
+            while (tokens >= 1 && heads.hasNext()) {
+                Map.Entry<Integer, Waiting> head = heads.next();
+                heads.remove();
+                if (now - head.getValue().lastSeen <= abandonMillis) {
+                    tokens--;
+                    admittedUntil.put(head.getKey(), now + admittedTtlMillis);
+                }
+            }
+            admittedUntil.values().removeIf(until -> until <= now);
+        }
+
+        private boolean isIdle() {
+            return waiting.isEmpty() && admittedUntil.isEmpty();
+        }
+
+        private boolean isAdmitted(Integer userId, long now) {
+            Long until = admittedUntil.get(userId);
+            return until != null && until > now;
+        }
+
+        private void refill(long now) {
+            tokens = Math.min(burst, tokens + (now - refilledAt) * ratePerSecond / 1000);
+            refilledAt = now;
+        }
+
+        private AdmissionStatus positionOf(Waiting entry) {
+            long position = entry.number - waiting.values().iterator().next().number + 1;
+            return AdmissionStatus.waiting(position, (long) Math.ceil(position / ratePerSecond));
+        }
+    }
+
+    private static final class Waiting {
+
+        private final long number;
+        private long lastSeen;
+
+        private Waiting(long number) {
+            this.number = number;
+        }
+    }
+}
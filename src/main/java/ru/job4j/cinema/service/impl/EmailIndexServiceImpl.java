@@ -0,0 +1,139 @@
+package ru.job4j.cinema.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.sql2o.Sql2oException;
+import ru.job4j.cinema.repository.UserRepository;
+import ru.job4j.cinema.service.EmailIndexService;
+import ru.job4j.cinema.util.BloomFilter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bloom filter of registered emails, loaded from {@code users} on the first scheduled run and
+ * rebuilt periodically with room for twice the current user count. Until it is loaded every
+ * email is reported as possibly existing, so callers fall back to the database. Emails saved
+ * while a rebuild reads the table are replayed into the new filter before it is published.
+ * The table scan runs on its own thread so it never delays the shared scheduler; a rebuild
+ * requested while one is already queued is dropped.
+ */
+@Service
+public class EmailIndexServiceImpl implements EmailIndexService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EmailIndexServiceImpl.class);
+
+    private final UserRepository userRepository;
+    private final long expectedUsers;
+    private final double falsePositiveRate;
+    private final Counter skipped;
+    private final ExecutorService rebuilder;
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile BloomFilter filter;
+    private List<String> pending;
+
+    @Autowired
+    public EmailIndexServiceImpl(UserRepository userRepository, MeterRegistry meterRegistry,
+                                 @Value("${user.email-index.expected-users:100000}") long expectedUsers,
+                                 @Value("${user.email-index.false-positive-rate:0.01}") double falsePositiveRate) {
+        this(userRepository, meterRegistry, expectedUsers, falsePositiveRate,
+                new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1),
+                        runnable -> {
+                            Thread thread = new Thread(runnable, "email-index");
+                            thread.setDaemon(true);
+                            return thread;
+                        }, new ThreadPoolExecutor.DiscardPolicy()));
+    }
+
+    EmailIndexServiceImpl(UserRepository userRepository, MeterRegistry meterRegistry, long expectedUsers,
+                          double falsePositiveRate, ExecutorService rebuilder) {
+        this.userRepository = userRepository;
+        this.rebuilder = rebuilder;
+        this.expectedUsers = expectedUsers;
+        this.falsePositiveRate = falsePositiveRate;
+        Gauge.builder("user.email-index.bytes", this, EmailIndexServiceImpl::getMemoryBytes)
+                .description("Memory held by the registered email filter")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.skipped = Counter.builder("user.email-index.skipped")
+                .description("Email existence queries answered by the filter without the database")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean mightExist(String email) {
+        BloomFilter current = filter;
+        if (current == null || current.mightContain(email)) {
+            return true;
+        }
+        skipped.increment();
+        return false;
+    }
+
+    @Override
+    public synchronized void add(String email) {
+        if (filter != null) {
+            filter.add(email);
+        }
+        if (pending != null) {
+            pending.add(email);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${user.email-index.rebuild-millis:86400000}")
+    public void scheduleRebuild() {
+        rebuilder.execute(this::rebuild);
+    }
+
+    @Override
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            synchronized (this) {
+                pending = new ArrayList<>();
+            }
+            try {
+                List<String> emails = userRepository.findAllEmails();
+                BloomFilter rebuilt = new BloomFilter(Math.max(expectedUsers, 2L * emails.size()), falsePositiveRate);
+                emails.forEach(rebuilt::add);
+                synchronized (this) {
+                    pending.forEach(rebuilt::add);
+                    filter = rebuilt;
+                }
+                LOG.info("Email index rebuilt: {} users, {} bytes, {} hash functions",
+                        emails.size(), rebuilt.memoryBytes(), rebuilt.hashFunctions());
+            } catch (Sql2oException e) {
+                LOG.warn("Cannot rebuild email index, keeping the previous one", e);
+            } finally {
+                synchronized (this) {
+                    pending = null;
+                }
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    long getMemoryBytes() {
+        BloomFilter current = filter;
+        return current == null ? 0 : current.memoryBytes();
+    }
+}
@@ -1,22 +1,44 @@
 package ru.job4j.cinema.service.impl;
 
-import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+import ru.job4j.cinema.dto.FileContent;
 import ru.job4j.cinema.model.File;
 import ru.job4j.cinema.repository.FileRepository;
 import ru.job4j.cinema.service.FileService;
+import ru.job4j.cinema.util.LruCache;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Optional;
 
 @Service
-@AllArgsConstructor
 public class FileServiceImpl implements FileService {
 
     private final FileRepository fileRepository;
+    private final LruCache<Integer, FileContent> fileContentCache;
+    private final LruCache<Integer, byte[]> posterCache;
+    private final long maxCachedFileBytes;
+
+    public FileServiceImpl(FileRepository fileRepository,
+                           LruCache<Integer, FileContent> fileContentCache,
+                           LruCache<Integer, byte[]> posterCache,
+                           @Value("${cache.posters.max-file-bytes:2097152}") long maxCachedFileBytes) {
+        this.fileRepository = fileRepository;
+        this.fileContentCache = fileContentCache;
+        this.posterCache = posterCache;
+        this.maxCachedFileBytes = maxCachedFileBytes;
+    }
 
     @Override
     public Optional<File> findById(Integer id) {
@@ -24,17 +46,60 @@ public class FileServiceImpl implements FileService {
     }
 
     @Override
-    public Optional<byte[]> getFileContent(Integer id) {
+    public Optional<FileContent> getFileContent(Integer id) {
+        return fileContentCache.get(id, this::loadFileContent)
+                .map(fileContent -> withCachedBytes(id, fileContent));
+    }
+
+    @Override
+    public void invalidate(Integer id) {
+        fileContentCache.invalidate(id);
+        posterCache.invalidate(id);
+    }
+
+    private FileContent withCachedBytes(Integer id, FileContent fileContent) {
+        if (fileContent.contentLength() > maxCachedFileBytes) {
+            return fileContent;
+        }
+        return posterCache.get(id, key -> readBytes(fileContent.resource()))
+                .map(bytes -> new FileContent(
+                        new ByteArrayResource(bytes),
+                        fileContent.mediaType(),
+                        bytes.length,
+                        fileContent.lastModified(),
+                        fileContent.etag()))
+                .orElse(fileContent);
+    }
+
+    private Optional<byte[]> readBytes(Resource resource) {
+        try (InputStream inputStream = resource.getInputStream()) {
+            return Optional.of(inputStream.readAllBytes());
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    private Optional<FileContent> loadFileContent(Integer id) {
         Optional<File> fileOptional = findById(id);
         if (fileOptional.isEmpty()) {
             return Optional.empty();
         }
 
-        File file = fileOptional.get();
-        try {
-            Path filePath = Paths.get(file.getPath());
-            byte[] fileBytes = Files.readAllBytes(filePath);
-            return Optional.of(fileBytes);
+        Path filePath = Paths.get(fileOptional.get().getPath());
+        if (!Files.isRegularFile(filePath) || !Files.isReadable(filePath)) {
+            return Optional.empty();
+        }
+        try (InputStream inputStream = Files.newInputStream(filePath)) {
+            BasicFileAttributes attributes = Files.readAttributes(filePath, BasicFileAttributes.class);
+            MediaType mediaType = MediaTypeFactory.getMediaType(filePath.getFileName().toString())
+                    .orElse(MediaType.APPLICATION_OCTET_STREAM);
+            return Optional.of(new FileContent(
+                    new FileSystemResource(filePath),
+                    mediaType,
+                    attributes.size(),
+                    attributes.lastModifiedTime().toMillis(),
+                    DigestUtils.md5DigestAsHex(inputStream)
+            ));
         } catch (IOException e) {
             return Optional.empty();
         }
@@ -8,35 +8,76 @@ import ru.job4j.cinema.model.Genre;
 import ru.job4j.cinema.repository.FilmRepository;
 import ru.job4j.cinema.service.FilmService;
 import ru.job4j.cinema.service.GenreService;
+import ru.job4j.cinema.util.LruCache;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @AllArgsConstructor
 public class FilmServiceImpl implements FilmService {
 
+    private static final String UNKNOWN_GENRE = "Неизвестно";
+
     private final FilmRepository filmRepository;
     private final GenreService genreService;
+    private final LruCache<Integer, Film> filmCache;
 
     @Override
     public List<FilmDto> findAll() {
-        var films = filmRepository.findAll();
-        return films.stream()
-                .map(this::mapToFilmDto)
-                .toList();
+        List<Film> films = filmRepository.findAll();
+        films.forEach(film -> filmCache.put(film.getId(), film));
+        return mapToFilmDtos(films);
     }
 
     @Override
     public Optional<FilmDto> findById(Integer id) {
-        return filmRepository.findById(id).map(this::mapToFilmDto);
+        return filmCache.get(id, filmRepository::findById).map(this::mapToFilmDto);
+    }
+
+    @Override
+    public List<FilmDto> findAllByIds(Collection<Integer> ids) {
+        Map<Integer, Film> films = filmCache.getAll(ids, missing -> filmRepository.findAllByIds(missing).stream()
+                .collect(Collectors.toMap(Film::getId, Function.identity())));
+        return mapToFilmDtos(new ArrayList<>(films.values()));
+    }
+
+    @Override
+    public void invalidate(Integer id) {
+        filmCache.invalidate(id);
+    }
+
+    @Override
+    public void invalidateAll() {
+        filmCache.invalidateAll();
+    }
+
+    private List<FilmDto> mapToFilmDtos(List<Film> films) {
+        Set<Integer> genreIds = films.stream()
+                .map(Film::getGenreId)
+                .collect(Collectors.toSet());
+        Map<Integer, String> genreNames = genreService.findAllByIds(genreIds).stream()
+                .collect(Collectors.toMap(Genre::getId, Genre::getName));
+        return films.stream()
+                .map(film -> mapToFilmDto(film, genreNames.getOrDefault(film.getGenreId(), UNKNOWN_GENRE)))
+                .toList();
     }
 
     private FilmDto mapToFilmDto(Film film) {
         String genreName = genreService
                 .findById(film.getGenreId())
                 .map(Genre::getName)
-                .orElse("Неизвестно");
+                .orElse(UNKNOWN_GENRE);
+        return mapToFilmDto(film, genreName);
+    }
+
+    private FilmDto mapToFilmDto(Film film, String genreName) {
         String fileUrl = "/files/" + film.getFileId();
         return new FilmDto(
                 film.getId(),
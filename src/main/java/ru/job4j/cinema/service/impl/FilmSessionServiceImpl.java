@@ -5,12 +5,19 @@ import org.springframework.stereotype.Service;
 import ru.job4j.cinema.dto.FilmDto;
 import ru.job4j.cinema.dto.FilmSessionDetailDto;
 import ru.job4j.cinema.dto.FilmSessionDto;
+import ru.job4j.cinema.dto.SessionCursor;
+import ru.job4j.cinema.dto.SessionPage;
 import ru.job4j.cinema.model.*;
 import ru.job4j.cinema.repository.*;
 import ru.job4j.cinema.service.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @AllArgsConstructor
@@ -23,10 +30,7 @@ public class FilmSessionServiceImpl implements FilmSessionService {
 
     @Override
     public List<FilmSessionDto> findAll() {
-        List<FilmSession> filmSessionList = filmSessionRepository.findAll();
-        return filmSessionList.stream()
-                .map(this::mapToFilmSessionDto)
-                .toList();
+        return mapToFilmSessionDtos(filmSessionRepository.findAll());
     }
 
     @Override
@@ -37,20 +41,49 @@ public class FilmSessionServiceImpl implements FilmSessionService {
 
     @Override
     public List<FilmSessionDto> findByFilmId(Integer filmId) {
-        List<FilmSession> filmSessionList = filmSessionRepository.findByFilmId(filmId);
-        return filmSessionList.stream()
-                .map(this::mapToFilmSessionDto)
+        return mapToFilmSessionDtos(filmSessionRepository.findByFilmId(filmId));
+    }
+
+    @Override
+    public List<FilmSessionDto> findStartingFrom(LocalDateTime from) {
+        return mapToFilmSessionDtos(filmSessionRepository.findStartingFrom(from));
+    }
+
+    @Override
+    public SessionPage findPage(LocalDateTime from, LocalDateTime to, SessionCursor after, int size) {
+        List<FilmSession> filmSessions = after == null
+                ? filmSessionRepository.findPage(from, to, null, null, size + 1)
+                : filmSessionRepository.findPage(from, to, after.startTime(), after.id(), size + 1);
+        return SessionPage.of(mapToFilmSessionDtos(filmSessions), size);
+    }
+
+    private List<FilmSessionDto> mapToFilmSessionDtos(List<FilmSession> filmSessions) {
+        if (filmSessions.isEmpty()) {
+            return List.of();
+        }
+        Set<Integer> filmIds = filmSessions.stream()
+                .map(FilmSession::getFilmId)
+                .collect(Collectors.toSet());
+        Set<Integer> hallIds = filmSessions.stream()
+                .map(FilmSession::getHallId)
+                .collect(Collectors.toSet());
+        Map<Integer, FilmDto> films = filmService.findAllByIds(filmIds).stream()
+                .collect(Collectors.toMap(FilmDto::id, Function.identity()));
+        Map<Integer, String> hallNames = hallService.findAllByIds(hallIds).stream()
+                .collect(Collectors.toMap(Hall::getId, Hall::getName));
+        return filmSessions.stream()
+                .map(filmSession -> mapToFilmSessionDto(
+                        filmSession,
+                        films.get(filmSession.getFilmId()),
+                        hallNames.getOrDefault(filmSession.getHallId(), "Неизвестен")))
                 .toList();
     }
 
-    private FilmSessionDto mapToFilmSessionDto(FilmSession filmSession) {
-        FilmDto filmDto = getFilm(filmSession);
-        
-        String hallName = hallService.findById(filmSession.getHallId())
-                .map(Hall::getName)
-                .orElse("Неизвестен");
+    private FilmSessionDto mapToFilmSessionDto(FilmSession filmSession, FilmDto filmDto, String hallName) {
         return new FilmSessionDto(
                 filmSession.getId(),
+                filmSession.getFilmId(),
+                filmSession.getHallId(),
                 filmDto.name(),
                 filmDto.description(),
                 filmDto.filePath(),
@@ -5,17 +5,40 @@ import org.springframework.stereotype.Service;
 import ru.job4j.cinema.model.Genre;
 import ru.job4j.cinema.repository.GenreRepository;
 import ru.job4j.cinema.service.GenreService;
+import ru.job4j.cinema.util.LruCache;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @AllArgsConstructor
 public class GenreServiceImpl implements GenreService {
 
     private final GenreRepository genreRepository;
+    private final LruCache<Integer, Genre> genreCache;
 
     @Override
     public Optional<Genre> findById(Integer id) {
-        return genreRepository.findById(id);
+        return genreCache.get(id, genreRepository::findById);
+    }
+
+    @Override
+    public List<Genre> findAllByIds(Collection<Integer> ids) {
+        return new ArrayList<>(genreCache.getAll(ids, missing -> genreRepository.findAllByIds(missing).stream()
+                .collect(Collectors.toMap(Genre::getId, Function.identity()))).values());
+    }
+
+    @Override
+    public void invalidate(Integer id) {
+        genreCache.invalidate(id);
+    }
+
+    @Override
+    public void invalidateAll() {
+        genreCache.invalidateAll();
     }
 }
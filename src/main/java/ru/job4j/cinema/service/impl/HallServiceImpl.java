@@ -5,17 +5,40 @@ import org.springframework.stereotype.Service;
 import ru.job4j.cinema.model.Hall;
 import ru.job4j.cinema.repository.HallRepository;
 import ru.job4j.cinema.service.HallService;
+import ru.job4j.cinema.util.LruCache;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @AllArgsConstructor
 public class HallServiceImpl implements HallService {
 
     private final HallRepository hallRepository;
+    private final LruCache<Integer, Hall> hallCache;
 
     @Override
     public Optional<Hall> findById(Integer id) {
-        return hallRepository.findById(id);
+        return hallCache.get(id, hallRepository::findById);
+    }
+
+    @Override
+    public List<Hall> findAllByIds(Collection<Integer> ids) {
+        return new ArrayList<>(hallCache.getAll(ids, missing -> hallRepository.findAllByIds(missing).stream()
+                .collect(Collectors.toMap(Hall::getId, Function.identity()))).values());
+    }
+
+    @Override
+    public void invalidate(Integer id) {
+        hallCache.invalidate(id);
+    }
+
+    @Override
+    public void invalidateAll() {
+        hallCache.invalidateAll();
     }
 }
@@ -0,0 +1,43 @@
+package ru.job4j.cinema.service.impl;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import ru.job4j.cinema.model.User;
+import ru.job4j.cinema.service.AuthenticationService;
+
+import java.util.Optional;
+
+@Service
+@ConditionalOnProperty(name = "auth.mode", havingValue = "session", matchIfMissing = true)
+public class HttpSessionAuthenticationService implements AuthenticationService {
+
+    private static final String USER_ATTRIBUTE = "user";
+
+    @Override
+    public Optional<User> findCurrentUser(HttpServletRequest request) {
+        var session = request.getSession(false);
+        return session == null
+                ? Optional.empty()
+                : Optional.ofNullable((User) session.getAttribute(USER_ATTRIBUTE));
+    }
+
+    @Override
+    public void signIn(User user, HttpServletRequest request, HttpServletResponse response) {
+        var principal = User.builder()
+                .id(user.getId())
+                .fullName(user.getFullName())
+                .email(user.getEmail())
+                .build();
+        request.getSession().setAttribute(USER_ATTRIBUTE, principal);
+    }
+
+    @Override
+    public void signOut(HttpServletRequest request, HttpServletResponse response) {
+        var session = request.getSession(false);
+        if (session != null) {
+            session.invalidate();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package ru.job4j.cinema.service.impl;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import ru.job4j.cinema.dto.IdempotencyEntry;
+import ru.job4j.cinema.service.IdempotencyService;
+import ru.job4j.cinema.util.LruCache;
+import ru.job4j.cinema.util.RequestInProgressException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the outcome of keyed requests in a bounded LRU table for {@code idempotency.ttl-seconds}.
+ * The entry is registered before the action runs, so a double submit that arrives while the first
+ * one is still in flight waits for its result instead of running the action again.
+ */
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 64;
+
+    private final LruCache<String, IdempotencyEntry> results;
+    private final Clock clock;
+    private final long ttlMillis;
+    private final long waitMillis;
+
+    @Autowired
+    public IdempotencyServiceImpl(LruCache<String, IdempotencyEntry> idempotencyCache,
+                                  @Value("${idempotency.ttl-seconds:600}") long ttlSeconds,
+                                  @Value("${idempotency.wait-seconds:10}") long waitSeconds) {
+        this(idempotencyCache, Clock.systemUTC(), Duration.ofSeconds(ttlSeconds), Duration.ofSeconds(waitSeconds));
+    }
+
+    IdempotencyServiceImpl(LruCache<String, IdempotencyEntry> results, Clock clock, Duration ttl, Duration wait) {
+        this.results = results;
+        this.clock = clock;
+        this.ttlMillis = ttl.toMillis();
+        this.waitMillis = wait.toMillis();
+    }
+
+    @Override
+    public <T> T execute(String scope, Integer userId, String key, Supplier<T> action, Predicate<T> remember) {
+        if (key == null || key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            return action.get();
+        }
+        String cacheKey = userId + ":" + key + ":" + scope;
+        IdempotencyEntry entry = new IdempotencyEntry(new CompletableFuture<>(), clock.millis() + ttlMillis);
+        Optional<IdempotencyEntry> existing = results.putIfAbsent(cacheKey, entry);
+        if (existing.isPresent() && existing.get().expiresAt() <= clock.millis()) {
+            results.invalidate(cacheKey, existing.get());
+            existing = results.putIfAbsent(cacheKey, entry);
+        }
+        if (existing.isPresent()) {
+            return awaitResult(existing.get());
+        }
+        try {
+            T result = action.get();
+            if (!remember.test(result)) {
+                results.invalidate(cacheKey, entry);
+            }
+            entry.result().complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            results.invalidate(cacheKey, entry);
+            entry.result().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T awaitResult(IdempotencyEntry entry) {
+        try {
+            return (T) entry.result().get(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new RequestInProgressException("Previous request with the same key is still running");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RequestInProgressException("Interrupted while waiting for a previous request");
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package ru.job4j.cinema.service.impl;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+import ru.job4j.cinema.dto.FileContent;
+import ru.job4j.cinema.dto.ImageVariant;
+import ru.job4j.cinema.service.ImageVariantService;
+import ru.job4j.cinema.util.LruCache;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+@Service
+public class ImageVariantServiceImpl implements ImageVariantService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ImageVariantServiceImpl.class);
+
+    private static final float JPEG_QUALITY = 0.85f;
+
+    private static final int MAX_REMEMBERED_FAILURES = 1024;
+
+    private final Path variantsDirectory;
+    private final LruCache<String, FileContent> variantCache;
+    private final ExecutorService executor;
+    private final Set<String> inProgress = ConcurrentHashMap.newKeySet();
+    private final LruCache<String, Boolean> undecodable = new LruCache<>(MAX_REMEMBERED_FAILURES);
+
+    @Autowired
+    public ImageVariantServiceImpl(@Value("${file.variants-directory:files/variants}") String variantsDirectory,
+                                   LruCache<String, FileContent> variantCache) {
+        this(Paths.get(variantsDirectory), variantCache,
+                Executors.newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "image-variants");
+                    thread.setDaemon(true);
+                    return thread;
+                }));
+    }
+
+    ImageVariantServiceImpl(Path variantsDirectory, LruCache<String, FileContent> variantCache,
+                            ExecutorService executor) {
+        this.variantsDirectory = variantsDirectory;
+        this.variantCache = variantCache;
+        this.executor = executor;
+    }
+
+    @Override
+    public Optional<FileContent> findVariant(Integer fileId, FileContent original, ImageVariant variant) {
+        if (variant.isOriginal()) {
+            return Optional.of(original);
+        }
+        String key = fileId + "-" + variant.getParam() + "-" + original.etag();
+        if (undecodable.get(key, k -> Optional.empty()).isPresent()) {
+            return Optional.empty();
+        }
+        Optional<FileContent> stored = variantCache.get(key, this::readStoredVariant);
+        if (stored.isEmpty() && inProgress.add(key)) {
+            try {
+                executor.execute(() -> generate(key, original, variant));
+            } catch (RejectedExecutionException e) {
+                inProgress.remove(key);
+            }
+        }
+        return stored;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private Optional<FileContent> readStoredVariant(String key) {
+        Path path = variantPath(key);
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(toFileContent(Files.readAllBytes(path), Files.getLastModifiedTime(path).toMillis()));
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    private void generate(String key, FileContent original, ImageVariant variant) {
+        try (InputStream inputStream = original.resource().getInputStream()) {
+            BufferedImage source = ImageIO.read(inputStream);
+            if (source == null) {
+                LOG.warn("Cannot decode image for variant {}, serving the original from now on", key);
+                undecodable.put(key, Boolean.TRUE);
+                return;
+            }
+            byte[] bytes = encodeJpeg(resize(source, variant.getMaxWidth()));
+            Files.createDirectories(variantsDirectory);
+            Path temp = Files.createTempFile(variantsDirectory, key, ".tmp");
+            Files.write(temp, bytes);
+            Path target = variantPath(key);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            variantCache.put(key, toFileContent(bytes, Files.getLastModifiedTime(target).toMillis()));
+        } catch (IOException e) {
+            LOG.warn("Cannot generate image variant {}", key, e);
+        } finally {
+            inProgress.remove(key);
+        }
+    }
+
+    private BufferedImage resize(BufferedImage source, int maxWidth) {
+        int width = Math.min(maxWidth, source.getWidth());
+        int height = Math.max(1, Math.round((float) source.getHeight() * width / source.getWidth()));
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (ImageOutputStream imageOutputStream = ImageIO.createImageOutputStream(outputStream)) {
+            writer.setOutput(imageOutputStream);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return outputStream.toByteArray();
+    }
+
+    private FileContent toFileContent(byte[] bytes, long lastModified) {
+        return new FileContent(
+                new ByteArrayResource(bytes),
+                MediaType.IMAGE_JPEG,
+                bytes.length,
+                lastModified,
+                DigestUtils.md5DigestAsHex(bytes)
+        );
+    }
+
+    private Path variantPath(String key) {
+        return variantsDirectory.resolve(key + ".jpg");
+    }
+}
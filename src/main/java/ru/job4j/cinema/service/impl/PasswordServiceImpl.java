@@ -0,0 +1,141 @@
+package ru.job4j.cinema.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+import ru.job4j.cinema.service.PasswordService;
+import ru.job4j.cinema.util.PasswordHashingBusyException;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Bcrypt hashing on a small fixed pool with a bounded queue. A login storm can occupy at most
+ * {@code password.hash.threads} cores; once the queue is full further logins are answered
+ * with 503 right away instead of piling up on request threads. Logins with an unknown email are
+ * checked against a dummy hash of the same cost, so response time does not tell which emails exist.
+ */
+@Service
+public class PasswordServiceImpl implements PasswordService {
+
+    private static final Pattern BCRYPT_HASH = Pattern.compile("\\$2[aby]\\$\\d{2}\\$[./A-Za-z0-9]{53}");
+
+    private final BCryptPasswordEncoder encoder;
+    private final ExecutorService executor;
+    private final long timeoutMillis;
+    private final Counter rejected;
+    private final String dummyHash;
+
+    @Autowired
+    public PasswordServiceImpl(MeterRegistry meterRegistry,
+                               @Value("${password.bcrypt.strength:10}") int strength,
+                               @Value("${password.hash.threads:2}") int threads,
+                               @Value("${password.hash.queue-capacity:32}") int queueCapacity,
+                               @Value("${password.hash.timeout-millis:3000}") long timeoutMillis) {
+        this(new BCryptPasswordEncoder(strength), newExecutor(threads, queueCapacity),
+                Duration.ofMillis(timeoutMillis), meterRegistry);
+    }
+
+    PasswordServiceImpl(BCryptPasswordEncoder encoder, ExecutorService executor, Duration timeout,
+                        MeterRegistry meterRegistry) {
+        this.encoder = encoder;
+        this.executor = executor;
+        this.timeoutMillis = timeout.toMillis();
+        this.rejected = Counter.builder("password.hash.rejected")
+                .description("Password hash or check requests turned away because the hashing pool was saturated")
+                .register(meterRegistry);
+        this.dummyHash = encoder.encode("dummy-password-for-unknown-users");
+    }
+
+    @Override
+    public String hash(String rawPassword) {
+        Objects.requireNonNull(rawPassword, "rawPassword");
+        return run(() -> encoder.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(String rawPassword, String storedPassword) {
+        if (!isHash(storedPassword)) {
+            return Objects.equals(rawPassword, storedPassword);
+        }
+        if (rawPassword == null) {
+            return false;
+        }
+        return run(() -> encoder.matches(rawPassword, storedPassword));
+    }
+
+    @Override
+    public void matchDummy(String rawPassword) {
+        if (rawPassword != null) {
+            run(() -> encoder.matches(rawPassword, dummyHash));
+        }
+    }
+
+    @Override
+    public boolean needsRehash(String storedPassword) {
+        if (storedPassword == null) {
+            return false;
+        }
+        return !isHash(storedPassword) || encoder.upgradeEncoding(storedPassword);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private boolean isHash(String storedPassword) {
+        return storedPassword != null && BCRYPT_HASH.matcher(storedPassword).matches();
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingBusyException("Too many password checks in progress");
+        }
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            rejected.increment();
+            throw new PasswordHashingBusyException("Password check timed out");
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingBusyException("Interrupted while waiting for a password check");
+        }
+    }
+
+    private static ExecutorService newExecutor(int threads, int queueCapacity) {
+        AtomicInteger counter = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+}
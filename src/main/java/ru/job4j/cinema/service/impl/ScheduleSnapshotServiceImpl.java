@@ -0,0 +1,82 @@
+package ru.job4j.cinema.service.impl;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ru.job4j.cinema.dto.ScheduleSnapshot;
+import ru.job4j.cinema.dto.SessionCursor;
+import ru.job4j.cinema.dto.SessionPage;
+import ru.job4j.cinema.service.FilmSessionService;
+import ru.job4j.cinema.service.ScheduleSnapshotService;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Service
+public class ScheduleSnapshotServiceImpl implements ScheduleSnapshotService {
+
+    private final FilmSessionService filmSessionService;
+    private final Clock clock;
+    private final AtomicReference<ScheduleSnapshot> snapshot = new AtomicReference<>();
+
+    @Autowired
+    public ScheduleSnapshotServiceImpl(FilmSessionService filmSessionService) {
+        this(filmSessionService, Clock.systemDefaultZone());
+    }
+
+    ScheduleSnapshotServiceImpl(FilmSessionService filmSessionService, Clock clock) {
+        this.filmSessionService = filmSessionService;
+        this.clock = clock;
+    }
+
+    @Override
+    public ScheduleSnapshot getSnapshot() {
+        ScheduleSnapshot current = snapshot.get();
+        if (current != null) {
+            return current;
+        }
+        snapshot.compareAndSet(null, build());
+        return snapshot.get();
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${schedule.snapshot.refresh-millis:60000}")
+    public void refresh() {
+        snapshot.set(build());
+    }
+
+    /**
+     * Windows that start today or later are paged in memory; only windows reaching into past days
+     * go to the database, where the {@code (start_time, id)} index serves the keyset query.
+     */
+    @Override
+    public SessionPage findPage(LocalDate from, LocalDate to, SessionCursor after, int size) {
+        LocalDateTime start = (from == null ? LocalDate.now(clock) : from).atStartOfDay();
+        LocalDateTime end = to == null ? null : to.plusDays(1).atStartOfDay();
+        ScheduleSnapshot current = getSnapshot();
+        if (coveredBySnapshot(start, after, current)) {
+            return current.page(start, end, after, size);
+        }
+        return filmSessionService.findPage(start, end, after, size);
+    }
+
+    /**
+     * The snapshot holds every session starting at or after {@code builtAt}: it can serve a page
+     * whose window, or whose cursor, already lies past that point.
+     */
+    private boolean coveredBySnapshot(LocalDateTime start, SessionCursor after, ScheduleSnapshot snapshot) {
+        return !start.isBefore(snapshot.builtAt())
+                || (after != null && !after.startTime().isBefore(snapshot.builtAt()));
+    }
+
+    /**
+     * Starts at midnight, like the default {@link #findPage} window, so today's schedule including
+     * sessions already under way is always served from memory.
+     */
+    private ScheduleSnapshot build() {
+        LocalDateTime today = LocalDate.now(clock).atStartOfDay();
+        return ScheduleSnapshot.of(today, filmSessionService.findStartingFrom(today));
+    }
+}
@@ -0,0 +1,184 @@
+package ru.job4j.cinema.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.job4j.cinema.dto.SeatEvent;
+import ru.job4j.cinema.service.SeatEventService;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes seat changes to pages watching a session. Subscribers are async
+ * {@link SseEmitter}s, so a watcher holds a connection but no thread; a single
+ * dispatcher thread serializes each event once and writes the same payload to
+ * every subscriber of the session.
+ */
+@Service
+public class SeatEventServiceImpl implements SeatEventService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SeatEventServiceImpl.class);
+
+    private final ObjectMapper objectMapper;
+    private final long timeoutMillis;
+    private final ExecutorService dispatcher;
+    private final Map<Integer, Set<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final Counter dropped;
+
+    @Autowired
+    public SeatEventServiceImpl(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                @Value("${seat.events.timeout-seconds:1800}") long timeoutSeconds,
+                                @Value("${seat.events.queue-capacity:10000}") int queueCapacity) {
+        this(objectMapper, meterRegistry, Duration.ofSeconds(timeoutSeconds),
+                new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                        runnable -> {
+                            Thread thread = new Thread(runnable, "seat-events");
+                            thread.setDaemon(true);
+                            return thread;
+                        }));
+    }
+
+    SeatEventServiceImpl(ObjectMapper objectMapper, MeterRegistry meterRegistry, Duration timeout,
+                         ExecutorService dispatcher) {
+        this.objectMapper = objectMapper;
+        this.timeoutMillis = timeout.toMillis();
+        this.dispatcher = dispatcher;
+        Gauge.builder("seat.events.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open seat event streams")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("seat.events.dropped")
+                .description("Seat events discarded because the dispatch queue was full")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public SseEmitter subscribe(Integer sessionId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        register(sessionId, emitter);
+        return emitter;
+    }
+
+    @Override
+    public void publish(SeatEvent event) {
+        if (!subscribers.containsKey(event.sessionId())) {
+            return;
+        }
+        execute(() -> dispatch(event));
+    }
+
+    /**
+     * Comment line sent to every stream: keeps proxies from closing idle connections
+     * and drops subscribers whose client went away without completing the request.
+     */
+    @Scheduled(fixedRateString = "${seat.events.heartbeat-millis:30000}")
+    public void heartbeat() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        execute(() -> {
+            Set<DataWithMediaType> payload = SseEmitter.event().comment("").build();
+            subscribers.forEach((sessionId, emitters) -> sendAll(sessionId, emitters, payload));
+        });
+    }
+
+    /**
+     * Ends open streams before graceful shutdown starts waiting for in-flight requests;
+     * browsers reconnect to another node on their own.
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void completeAll() {
+        subscribers.values().forEach(emitters -> emitters.forEach(SseEmitter::complete));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+    }
+
+    void register(Integer sessionId, SseEmitter emitter) {
+        subscribers.compute(sessionId, (id, emitters) -> {
+            Set<SseEmitter> result = emitters == null ? ConcurrentHashMap.newKeySet() : emitters;
+            if (result.add(emitter)) {
+                subscriberCount.incrementAndGet();
+            }
+            return result;
+        });
+        emitter.onCompletion(() -> unregister(sessionId, emitter));
+        emitter.onTimeout(() -> unregister(sessionId, emitter));
+        emitter.onError(e -> unregister(sessionId, emitter));
+    }
+
+    int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    private void unregister(Integer sessionId, SseEmitter emitter) {
+        subscribers.computeIfPresent(sessionId, (id, emitters) -> {
+            if (emitters.remove(emitter)) {
+                subscriberCount.decrementAndGet();
+            }
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+
+    private void execute(Runnable task) {
+        try {
+            dispatcher.execute(task);
+        } catch (RejectedExecutionException e) {
+            dropped.increment();
+        }
+    }
+
+    private void dispatch(SeatEvent event) {
+        Set<SseEmitter> emitters = subscribers.get(event.sessionId());
+        if (emitters == null) {
+            return;
+        }
+        Set<DataWithMediaType> payload;
+        try {
+            payload = SseEmitter.event()
+                    .name(event.type().name().toLowerCase(Locale.ROOT))
+                    .data(objectMapper.writeValueAsString(event))
+                    .build();
+        } catch (JsonProcessingException e) {
+            LOG.warn("Cannot serialize seat event {}", event, e);
+            return;
+        }
+        sendAll(event.sessionId(), emitters, payload);
+    }
+
+    private void sendAll(Integer sessionId, Set<SseEmitter> emitters, Set<DataWithMediaType> payload) {
+        for (SseEmitter emitter : emitters) {
+            try {
+                emitter.send(payload);
+            } catch (IOException | IllegalStateException e) {
+                unregister(sessionId, emitter);
+            }
+        }
+    }
+}
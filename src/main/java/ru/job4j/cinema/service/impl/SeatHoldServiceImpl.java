@@ -0,0 +1,212 @@
+package ru.job4j.cinema.service.impl;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ru.job4j.cinema.dto.SeatEvent;
+import ru.job4j.cinema.dto.SeatEventType;
+import ru.job4j.cinema.model.SeatMap;
+import ru.job4j.cinema.model.Ticket;
+import ru.job4j.cinema.service.SeatEventService;
+import ru.job4j.cinema.service.SeatHoldService;
+import ru.job4j.cinema.service.SeatMapService;
+import ru.job4j.cinema.util.TimingWheel;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Short-lived seat holds, indexed by session so that listing the holds of one session does not
+ * scan every session. A session's seat map is only changed inside {@code compute} on its entry
+ * in {@code holds}, and the entry is dropped once its last hold is gone. A user may hold at most
+ * {@code seat.hold.max-per-user} seats of one session, and holding a seat again extends it by the
+ * TTL but never past {@code seat.hold.max-lifetime-seconds} from when it was first taken.
+ */
+@Service
+public class SeatHoldServiceImpl implements SeatHoldService {
+
+    private final SeatMapService seatMapService;
+    private final SeatEventService seatEventService;
+    private final Clock clock;
+    private final long ttlMillis;
+    private final long maxLifetimeMillis;
+    private final int maxPerUser;
+    private final TimingWheel<Hold> wheel;
+
+    private final Map<Integer, Map<SeatKey, Hold>> holds = new ConcurrentHashMap<>();
+
+    @Autowired
+    public SeatHoldServiceImpl(SeatMapService seatMapService,
+                               SeatEventService seatEventService,
+                               @Value("${seat.hold.ttl-seconds:300}") long ttlSeconds,
+                               @Value("${seat.hold.max-lifetime-seconds:900}") long maxLifetimeSeconds,
+                               @Value("${seat.hold.max-per-user:10}") int maxPerUser,
+                               @Value("${seat.hold.tick-millis:100}") long tickMillis,
+                               @Value("${seat.hold.wheel-size:512}") int wheelSize) {
+        this(seatMapService, seatEventService, Clock.systemUTC(),
+                new Limits(Duration.ofSeconds(ttlSeconds), Duration.ofSeconds(maxLifetimeSeconds), maxPerUser),
+                tickMillis, wheelSize);
+    }
+
+    SeatHoldServiceImpl(SeatMapService seatMapService, SeatEventService seatEventService,
+                        Clock clock, Limits limits, long tickMillis, int wheelSize) {
+        this.seatMapService = seatMapService;
+        this.seatEventService = seatEventService;
+        this.clock = clock;
+        this.ttlMillis = limits.ttl().toMillis();
+        this.maxLifetimeMillis = limits.maxLifetime().toMillis();
+        this.maxPerUser = limits.maxPerUser();
+        this.wheel = new TimingWheel<>(tickMillis, wheelSize, clock.millis(), this::expire);
+    }
+
+    @Override
+    public boolean hold(Ticket seat) {
+        Optional<SeatMap> seatMap = seatMapService.findBySessionId(seat.getSessionId());
+        if (seat.getUserId() == null
+                || seatMap.isEmpty()
+                || !seatMap.get().isValid(seat.getRowNumber(), seat.getPlaceNumber())
+                || seatMap.get().isTaken(seat.getRowNumber(), seat.getPlaceNumber())) {
+            return false;
+        }
+        SeatKey key = SeatKey.of(seat);
+        long now = clock.millis();
+        AtomicBoolean placed = new AtomicBoolean();
+        holds.compute(key.sessionId(), (sessionId, seats) -> {
+            Map<SeatKey, Hold> result = seats == null ? new ConcurrentHashMap<>() : seats;
+            placed.set(place(result, key, seat.getUserId(), now));
+            return result.isEmpty() ? null : result;
+        });
+        if (!placed.get()) {
+            return false;
+        }
+        seatEventService.publish(SeatEvent.of(seat, SeatEventType.HELD));
+        return true;
+    }
+
+    @Override
+    public void release(Ticket seat) {
+        if (removeOwn(seat)) {
+            seatEventService.publish(SeatEvent.of(seat, SeatEventType.RELEASED));
+        }
+    }
+
+    @Override
+    public void discard(Ticket seat) {
+        removeOwn(seat);
+    }
+
+    @Override
+    public boolean isHeldByOther(Ticket seat) {
+        Hold hold = find(SeatKey.of(seat));
+        return hold != null && !Objects.equals(hold.userId, seat.getUserId());
+    }
+
+    @Override
+    public List<Ticket> findHeldByOthers(Integer sessionId, Integer userId) {
+        List<Ticket> seats = new ArrayList<>();
+        for (Hold hold : holds.getOrDefault(sessionId, Map.of()).values()) {
+            if (!Objects.equals(hold.userId, userId)) {
+                seats.add(Ticket.builder()
+                        .sessionId(sessionId)
+                        .rowNumber(hold.key.rowNumber())
+                        .placeNumber(hold.key.placeNumber())
+                        .build());
+            }
+        }
+        return seats;
+    }
+
+    @Scheduled(fixedRateString = "${seat.hold.tick-millis:100}")
+    public void tick() {
+        wheel.advance(clock.millis());
+    }
+
+    int sessionCount() {
+        return holds.size();
+    }
+
+    /**
+     * Runs inside {@code compute} on the session entry, so the count and the put are atomic.
+     */
+    private boolean place(Map<SeatKey, Hold> seats, SeatKey key, Integer userId, long now) {
+        Hold existing = seats.get(key);
+        long heldSince;
+        if (existing == null) {
+            long ownHolds = seats.values().stream().filter(other -> other.userId.equals(userId)).count();
+            if (ownHolds >= maxPerUser) {
+                return false;
+            }
+            heldSince = now;
+        } else if (existing.userId.equals(userId) && now < existing.heldSince + maxLifetimeMillis) {
+            existing.timeout.cancel();
+            heldSince = existing.heldSince;
+        } else {
+            return false;
+        }
+        Hold hold = new Hold(key, userId, heldSince);
+        hold.timeout = wheel.schedule(hold, Math.min(now + ttlMillis, heldSince + maxLifetimeMillis));
+        seats.put(key, hold);
+        return true;
+    }
+
+    private Hold find(SeatKey key) {
+        return holds.getOrDefault(key.sessionId(), Map.of()).get(key);
+    }
+
+    private boolean removeOwn(Ticket seat) {
+        Hold existing = find(SeatKey.of(seat));
+        if (existing != null && existing.userId.equals(seat.getUserId()) && remove(existing)) {
+            existing.timeout.cancel();
+            return true;
+        }
+        return false;
+    }
+
+    private boolean remove(Hold hold) {
+        AtomicBoolean removed = new AtomicBoolean();
+        holds.computeIfPresent(hold.key.sessionId(), (sessionId, seats) -> {
+            removed.set(seats.remove(hold.key, hold));
+            return seats.isEmpty() ? null : seats;
+        });
+        return removed.get();
+    }
+
+    private void expire(Hold hold) {
+        if (remove(hold)) {
+            seatEventService.publish(new SeatEvent(hold.key.sessionId(), hold.key.rowNumber(),
+                    hold.key.placeNumber(), SeatEventType.RELEASED));
+        }
+    }
+
+    private record SeatKey(Integer sessionId, Integer rowNumber, Integer placeNumber) {
+
+        static SeatKey of(Ticket seat) {
+            return new SeatKey(seat.getSessionId(), seat.getRowNumber(), seat.getPlaceNumber());
+        }
+    }
+
+    private static final class Hold {
+
+        private final SeatKey key;
+        private final Integer userId;
+        private final long heldSince;
+        private volatile TimingWheel.Timeout<Hold> timeout;
+
+        private Hold(SeatKey key, Integer userId, long heldSince) {
+            this.key = key;
+            this.userId = userId;
+            this.heldSince = heldSince;
+        }
+    }
+
+    record Limits(Duration ttl, Duration maxLifetime, int maxPerUser) {
+    }
+}
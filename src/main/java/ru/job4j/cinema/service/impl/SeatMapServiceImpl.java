@@ -0,0 +1,59 @@
+package ru.job4j.cinema.service.impl;
+
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Service;
+import ru.job4j.cinema.model.FilmSession;
+import ru.job4j.cinema.model.Hall;
+import ru.job4j.cinema.model.SeatMap;
+import ru.job4j.cinema.model.Ticket;
+import ru.job4j.cinema.repository.FilmSessionRepository;
+import ru.job4j.cinema.repository.TicketRepository;
+import ru.job4j.cinema.service.HallService;
+import ru.job4j.cinema.service.SeatMapService;
+import ru.job4j.cinema.util.LruCache;
+
+import java.util.Optional;
+
+/**
+ * Seat maps of recently viewed sessions, bounded by {@code cache.seat-maps.max-size}.
+ * An evicted map is rebuilt from the tickets table on the next lookup. The hall and tickets
+ * are read outside the cache lock, and concurrent loads of one session share the first stored map.
+ */
+@Service
+@AllArgsConstructor
+public class SeatMapServiceImpl implements SeatMapService {
+
+    private final FilmSessionRepository filmSessionRepository;
+    private final HallService hallService;
+    private final TicketRepository ticketRepository;
+    private final LruCache<Integer, SeatMap> seatMapCache;
+
+    @Override
+    public Optional<SeatMap> findBySessionId(Integer sessionId) {
+        if (sessionId == null) {
+            return Optional.empty();
+        }
+        return seatMapCache.get(sessionId, this::load);
+    }
+
+    @Override
+    public void invalidate(Integer sessionId) {
+        seatMapCache.invalidate(sessionId);
+    }
+
+    private Optional<SeatMap> load(Integer sessionId) {
+        Optional<Hall> hall = filmSessionRepository.findById(sessionId)
+                .map(FilmSession::getHallId)
+                .flatMap(hallService::findById);
+        if (hall.isEmpty()) {
+            return Optional.empty();
+        }
+        SeatMap seatMap = new SeatMap(hall.get().getRowCount(), hall.get().getPlaceCount());
+        for (Ticket ticket : ticketRepository.findBySessionId(sessionId)) {
+            if (seatMap.isValid(ticket.getRowNumber(), ticket.getPlaceNumber())) {
+                seatMap.take(ticket.getRowNumber(), ticket.getPlaceNumber());
+            }
+        }
+        return Optional.of(seatMap);
+    }
+}
@@ -1,27 +1,151 @@
 package ru.job4j.cinema.service.impl;
 
-import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import ru.job4j.cinema.dto.BasketPurchaseResult;
+import ru.job4j.cinema.dto.PurchaseResult;
+import ru.job4j.cinema.dto.PurchaseStatus;
+import ru.job4j.cinema.dto.SeatEvent;
+import ru.job4j.cinema.dto.SeatEventType;
+import ru.job4j.cinema.model.SeatMap;
 import ru.job4j.cinema.model.Ticket;
 import ru.job4j.cinema.repository.TicketRepository;
+import ru.job4j.cinema.service.SeatEventService;
+import ru.job4j.cinema.service.SeatHoldService;
+import ru.job4j.cinema.service.SeatMapService;
 import ru.job4j.cinema.service.TicketService;
+import ru.job4j.cinema.util.LockStripes;
 
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Purchases of seats in the same session row are serialized on a lock stripe, so of two
+ * buyers racing for a place the second one finds it taken in the seat map and is rejected
+ * without a database round trip.
+ */
 @Service
-@AllArgsConstructor
 public class TicketServiceImpl implements TicketService {
 
     private final TicketRepository ticketRepository;
+    private final SeatMapService seatMapService;
+    private final SeatHoldService seatHoldService;
+    private final SeatEventService seatEventService;
+    private final LockStripes purchaseLocks;
+
+    @Autowired
+    public TicketServiceImpl(TicketRepository ticketRepository, SeatMapService seatMapService,
+                             SeatHoldService seatHoldService, SeatEventService seatEventService,
+                             @Value("${ticket.lock-stripes:256}") int lockStripes) {
+        this(ticketRepository, seatMapService, seatHoldService, seatEventService, new LockStripes(lockStripes));
+    }
+
+    TicketServiceImpl(TicketRepository ticketRepository, SeatMapService seatMapService,
+                      SeatHoldService seatHoldService, SeatEventService seatEventService,
+                      LockStripes purchaseLocks) {
+        this.ticketRepository = ticketRepository;
+        this.seatMapService = seatMapService;
+        this.seatHoldService = seatHoldService;
+        this.seatEventService = seatEventService;
+        this.purchaseLocks = purchaseLocks;
+    }
+
+    @Override
+    public PurchaseResult buyTicket(Ticket ticket) {
+        Optional<SeatMap> optionalSeatMap = seatMapService.findBySessionId(ticket.getSessionId());
+        if (optionalSeatMap.isEmpty()) {
+            return PurchaseResult.failed(PurchaseStatus.INVALID_SEAT);
+        }
+        SeatMap seatMap = optionalSeatMap.get();
+        if (!seatMap.isValid(ticket.getRowNumber(), ticket.getPlaceNumber())) {
+            return PurchaseResult.failed(PurchaseStatus.INVALID_SEAT);
+        }
+        Lock lock = purchaseLocks.get(lockKey(ticket));
+        lock.lock();
+        try {
+            return claim(ticket, seatMap);
+        } finally {
+            lock.unlock();
+        }
+    }
 
     @Override
-    public Optional<Ticket> buyTicket(Ticket ticket) {
-        if (ticketRepository.isPlaceAvailable(
-                ticket.getSessionId(),
-                ticket.getRowNumber(),
-                ticket.getPlaceNumber())) {
-            return Optional.empty();
-        }
-        return ticketRepository.save(ticket);
+    public BasketPurchaseResult buyTickets(List<Ticket> tickets) {
+        if (tickets.isEmpty()) {
+            return BasketPurchaseResult.failed(PurchaseStatus.INVALID_SEAT);
+        }
+        Integer sessionId = tickets.get(0).getSessionId();
+        Optional<SeatMap> optionalSeatMap = seatMapService.findBySessionId(sessionId);
+        if (optionalSeatMap.isEmpty()) {
+            return BasketPurchaseResult.failed(PurchaseStatus.INVALID_SEAT);
+        }
+        SeatMap seatMap = optionalSeatMap.get();
+        Set<Long> seats = new HashSet<>();
+        for (Ticket ticket : tickets) {
+            if (!sessionId.equals(ticket.getSessionId())
+                    || !seatMap.isValid(ticket.getRowNumber(), ticket.getPlaceNumber())
+                    || !seats.add(((long) ticket.getRowNumber() << 32) | ticket.getPlaceNumber())) {
+                return BasketPurchaseResult.failed(PurchaseStatus.INVALID_SEAT);
+            }
+        }
+        List<ReentrantLock> locks = purchaseLocks.getAll(tickets.stream().map(this::lockKey).toList());
+        locks.forEach(Lock::lock);
+        try {
+            return claimAll(tickets, seatMap);
+        } finally {
+            for (int i = locks.size() - 1; i >= 0; i--) {
+                locks.get(i).unlock();
+            }
+        }
+    }
+
+    private PurchaseResult claim(Ticket ticket, SeatMap seatMap) {
+        if (seatMap.isTaken(ticket.getRowNumber(), ticket.getPlaceNumber())
+                || seatHoldService.isHeldByOther(ticket)) {
+            return PurchaseResult.failed(PurchaseStatus.ALREADY_TAKEN);
+        }
+        PurchaseResult result = ticketRepository.claim(ticket);
+        if (result.isSold()) {
+            seatMap.take(ticket.getRowNumber(), ticket.getPlaceNumber());
+            seatHoldService.discard(ticket);
+            seatEventService.publish(SeatEvent.of(ticket, SeatEventType.TAKEN));
+        } else if (result.status() == PurchaseStatus.ALREADY_TAKEN) {
+            seatMap.take(ticket.getRowNumber(), ticket.getPlaceNumber());
+        } else if (result.status() == PurchaseStatus.INVALID_SEAT) {
+            seatMapService.invalidate(ticket.getSessionId());
+        }
+        return result;
+    }
+
+    private BasketPurchaseResult claimAll(List<Ticket> tickets, SeatMap seatMap) {
+        for (Ticket ticket : tickets) {
+            if (seatMap.isTaken(ticket.getRowNumber(), ticket.getPlaceNumber())
+                    || seatHoldService.isHeldByOther(ticket)) {
+                return BasketPurchaseResult.failed(PurchaseStatus.ALREADY_TAKEN);
+            }
+        }
+        BasketPurchaseResult result = ticketRepository.claimAll(tickets);
+        if (result.isSold()) {
+            for (Ticket ticket : tickets) {
+                seatMap.take(ticket.getRowNumber(), ticket.getPlaceNumber());
+                seatHoldService.discard(ticket);
+                seatEventService.publish(SeatEvent.of(ticket, SeatEventType.TAKEN));
+            }
+        } else if (result.status() != PurchaseStatus.DB_ERROR) {
+            seatMapService.invalidate(tickets.get(0).getSessionId());
+        }
+        return result;
+    }
+
+    /**
+     * Session id in the high half, row in the low half: every session row gets its own key.
+     */
+    private Long lockKey(Ticket ticket) {
+        return ((long) ticket.getSessionId() << 32) | ticket.getRowNumber();
     }
 }
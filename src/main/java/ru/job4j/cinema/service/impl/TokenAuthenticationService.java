@@ -0,0 +1,171 @@
+package ru.job4j.cinema.service.impl;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Service;
+import ru.job4j.cinema.model.User;
+import ru.job4j.cinema.service.AuthenticationService;
+import ru.job4j.cinema.service.UserService;
+import ru.job4j.cinema.util.LruCache;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Stateless login: the client keeps a cookie of the form
+ * {@code userId.expiresAtEpochSecond.signature}, signed with HMAC-SHA256.
+ * Nothing is stored per user on the server except a small cache of user details,
+ * so any node sharing {@code auth.token.secret} can serve any request.
+ */
+@Service
+@ConditionalOnProperty(name = "auth.mode", havingValue = "token")
+public class TokenAuthenticationService implements AuthenticationService {
+
+    static final String COOKIE_NAME = "CINEMA_AUTH";
+
+    private static final Logger LOG = LoggerFactory.getLogger(TokenAuthenticationService.class);
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String SEPARATOR = ".";
+
+    private final UserService userService;
+    private final LruCache<Integer, User> userCache;
+    private final SecretKeySpec key;
+    private final Duration ttl;
+    private final boolean secureCookie;
+    private final Clock clock;
+
+    @Autowired
+    public TokenAuthenticationService(UserService userService,
+                                      LruCache<Integer, User> userCache,
+                                      @Value("${auth.token.secret:}") String secret,
+                                      @Value("${auth.token.ttl-seconds:43200}") long ttlSeconds,
+                                      @Value("${auth.token.secure-cookie:false}") boolean secureCookie) {
+        this(userService, userCache, secret, Duration.ofSeconds(ttlSeconds), secureCookie, Clock.systemUTC());
+    }
+
+    TokenAuthenticationService(UserService userService,
+                               LruCache<Integer, User> userCache,
+                               String secret,
+                               Duration ttl,
+                               boolean secureCookie,
+                               Clock clock) {
+        this.userService = userService;
+        this.userCache = userCache;
+        this.key = new SecretKeySpec(secretBytes(secret), ALGORITHM);
+        this.ttl = ttl;
+        this.secureCookie = secureCookie;
+        this.clock = clock;
+    }
+
+    @Override
+    public Optional<User> findCurrentUser(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return Optional.empty();
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                return verify(cookie.getValue())
+                        .flatMap(id -> userCache.get(id, userId -> userService.findById(userId).map(this::withoutPassword)));
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public void signIn(User user, HttpServletRequest request, HttpServletResponse response) {
+        userCache.put(user.getId(), withoutPassword(user));
+        writeCookie(request, response, issue(user.getId()), ttl);
+    }
+
+    @Override
+    public void signOut(HttpServletRequest request, HttpServletResponse response) {
+        writeCookie(request, response, "", Duration.ZERO);
+    }
+
+    String issue(Integer userId) {
+        String payload = userId + SEPARATOR + clock.instant().plus(ttl).getEpochSecond();
+        return payload + SEPARATOR + sign(payload);
+    }
+
+    Optional<Integer> verify(String token) {
+        int signatureStart = token.lastIndexOf(SEPARATOR);
+        int expiryStart = token.indexOf(SEPARATOR);
+        if (expiryStart <= 0 || signatureStart == expiryStart) {
+            return Optional.empty();
+        }
+        String payload = token.substring(0, signatureStart);
+        byte[] expected = sign(payload).getBytes(StandardCharsets.US_ASCII);
+        byte[] actual = token.substring(signatureStart + 1).getBytes(StandardCharsets.US_ASCII);
+        if (!MessageDigest.isEqual(expected, actual)) {
+            return Optional.empty();
+        }
+        try {
+            long expiresAt = Long.parseLong(payload.substring(expiryStart + 1));
+            if (clock.instant().getEpochSecond() >= expiresAt) {
+                return Optional.empty();
+            }
+            return Optional.of(Integer.parseInt(payload.substring(0, expiryStart)));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    private String sign(String payload) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            byte[] signature = mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+
+    private void writeCookie(HttpServletRequest request, HttpServletResponse response, String value, Duration maxAge) {
+        String path = request.getContextPath().isEmpty() ? "/" : request.getContextPath();
+        ResponseCookie cookie = ResponseCookie.from(COOKIE_NAME, value)
+                .httpOnly(true)
+                .secure(secureCookie)
+                .sameSite("Lax")
+                .path(path)
+                .maxAge(maxAge)
+                .build();
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+    }
+
+    private User withoutPassword(User user) {
+        return User.builder()
+                .id(user.getId())
+                .fullName(user.getFullName())
+                .email(user.getEmail())
+                .build();
+    }
+
+    private static byte[] secretBytes(String secret) {
+        if (secret != null && !secret.isBlank()) {
+            return secret.getBytes(StandardCharsets.UTF_8);
+        }
+        LOG.warn("auth.token.secret is not set, using a random key: tokens will not survive a restart "
+                + "and will not be accepted by other nodes");
+        byte[] random = new byte[32];
+        new SecureRandom().nextBytes(random);
+        return random;
+    }
+}
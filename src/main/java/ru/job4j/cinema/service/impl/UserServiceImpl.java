@@ -1,34 +1,51 @@
 package ru.job4j.cinema.service.impl;
 
 import lombok.AllArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import ru.job4j.cinema.model.User;
 import ru.job4j.cinema.repository.UserRepository;
+import ru.job4j.cinema.service.EmailIndexService;
+import ru.job4j.cinema.service.PasswordService;
 import ru.job4j.cinema.service.UserService;
+import ru.job4j.cinema.util.PasswordHashingBusyException;
 
-import java.util.Objects;
 import java.util.Optional;
 
 @AllArgsConstructor
 @Service
 public class UserServiceImpl implements UserService {
 
+    private static final Logger LOG = LoggerFactory.getLogger(UserServiceImpl.class);
+
     private final UserRepository userRepository;
+    private final PasswordService passwordService;
+    private final EmailIndexService emailIndexService;
 
     @Override
     public Optional<User> register(User user) {
-        if (userRepository.existsByEmail(user.getEmail())) {
+        if (user.getEmail() == null || user.getPassword() == null
+                || (emailIndexService.mightExist(user.getEmail()) && userRepository.existsByEmail(user.getEmail()))) {
             return Optional.empty();
         }
-        return userRepository.save(user);
+        user.setPassword(passwordService.hash(user.getPassword()));
+        Optional<User> savedUser = userRepository.save(user);
+        savedUser.ifPresent(saved -> emailIndexService.add(saved.getEmail()));
+        return savedUser;
     }
 
     @Override
     public Optional<User> findByEmailAndPassword(String email, String password) {
         Optional<User> optionalUser = userRepository.findByEmail(email);
-        if (optionalUser.isPresent()) {
+        if (optionalUser.isEmpty()) {
+            passwordService.matchDummy(password);
+        } else {
             User user = optionalUser.get();
-            if (Objects.equals(user.getPassword(), password)) {
+            if (passwordService.matches(password, user.getPassword())) {
+                if (passwordService.needsRehash(user.getPassword())) {
+                    rehash(user, password);
+                }
                 return Optional.of(user);
             }
         }
@@ -39,4 +56,19 @@ public class UserServiceImpl implements UserService {
     public Optional<User> findById(Integer id) {
         return userRepository.findById(id);
     }
+
+    /**
+     * Upgrades a legacy or cheaper hash after a successful login; if the hashing pool is busy
+     * the login still succeeds and the upgrade waits for the next one.
+     */
+    private void rehash(User user, String password) {
+        try {
+            String hash = passwordService.hash(password);
+            if (userRepository.updatePassword(user.getId(), hash)) {
+                user.setPassword(hash);
+            }
+        } catch (PasswordHashingBusyException e) {
+            LOG.debug("Skipped password rehash for user {}: {}", user.getId(), e.getMessage());
+        }
+    }
 }
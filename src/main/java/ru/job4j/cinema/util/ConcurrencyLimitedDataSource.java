@@ -0,0 +1,121 @@
+package ru.job4j.cinema.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lets at most {@code maxConcurrent} callers hold a connection at once and at most
+ * {@code queueDepth} more wait for one. Anyone beyond that, or anyone who waits longer
+ * than {@code waitTimeout}, gets a {@link DatabaseBusyException} right away, so a burst of
+ * (virtual) request threads turns into fast rejections instead of a pile-up inside the pool.
+ * The permit is returned when the connection is closed.
+ */
+public class ConcurrencyLimitedDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final int queueDepth;
+    private final long waitTimeoutNanos;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Counter rejected;
+
+    public ConcurrencyLimitedDataSource(DataSource target,
+                                        int maxConcurrent,
+                                        int queueDepth,
+                                        Duration waitTimeout,
+                                        MeterRegistry registry) {
+        super(target);
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.queueDepth = queueDepth;
+        this.waitTimeoutNanos = waitTimeout.toNanos();
+        this.rejected = Counter.builder("db.limiter.rejected")
+                .description("Database calls rejected because the wait queue was full or timed out")
+                .register(registry);
+        Gauge.builder("db.limiter.waiting", waiting, AtomicInteger::get)
+                .description("Callers waiting for a database permit")
+                .register(registry);
+        Gauge.builder("db.limiter.available", permits, Semaphore::availablePermits)
+                .description("Free database permits")
+                .register(registry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return releasingOnClose(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return releasingOnClose(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public int getWaiting() {
+        return waiting.get();
+    }
+
+    private void acquire() {
+        if (permits.tryAcquire()) {
+            return;
+        }
+        if (waiting.incrementAndGet() > queueDepth) {
+            waiting.decrementAndGet();
+            throw reject("Database wait queue is full");
+        }
+        try {
+            if (!permits.tryAcquire(waitTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw reject("Timed out waiting for the database");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw reject("Interrupted while waiting for the database");
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    private DatabaseBusyException reject(String message) {
+        rejected.increment();
+        return new DatabaseBusyException(message);
+    }
+
+    private Connection releasingOnClose(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    } finally {
+                        if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+                            permits.release();
+                        }
+                    }
+                });
+    }
+}
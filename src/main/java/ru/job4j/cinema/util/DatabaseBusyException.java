@@ -0,0 +1,11 @@
+package ru.job4j.cinema.util;
+
+/**
+ * Thrown instead of queueing when too many requests are already waiting for the database.
+ */
+public class DatabaseBusyException extends RuntimeException {
+
+    public DatabaseBusyException(String message) {
+        super(message);
+    }
+}
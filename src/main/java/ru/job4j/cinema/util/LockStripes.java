@@ -0,0 +1,51 @@
+package ru.job4j.cinema.util;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed array of locks addressed by key hash. Memory does not grow with the number of keys;
+ * keys that land on different stripes never contend. {@link #getAll(Collection)} returns
+ * the stripes in index order, so callers locking overlapping key sets cannot deadlock.
+ */
+public class LockStripes {
+
+    private final ReentrantLock[] locks;
+    private final int mask;
+
+    public LockStripes(int stripes) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("stripes must be positive");
+        }
+        int size = Math.max(Integer.highestOneBit(stripes - 1) << 1, 1);
+        this.locks = new ReentrantLock[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public int size() {
+        return locks.length;
+    }
+
+    public ReentrantLock get(long key) {
+        return locks[indexOf(key)];
+    }
+
+    public List<ReentrantLock> getAll(Collection<Long> keys) {
+        return keys.stream()
+                .mapToInt(this::indexOf)
+                .distinct()
+                .sorted()
+                .mapToObj(index -> locks[index])
+                .toList();
+    }
+
+    private int indexOf(long key) {
+        long product = key * 0x9E3779B97F4A7C15L;
+        int hash = (int) (product ^ (product >>> 32));
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,177 @@
+package ru.job4j.cinema.util;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Bounded read-through cache with least-recently-used eviction. The bound is a total
+ * weight: one per entry by default, or whatever the weigher reports, e.g. bytes. Loaders run outside
+ * the lock; a value loaded before an {@link #invalidate} or {@link #invalidateAll}
+ * is discarded instead of being stored, so invalidation is never undone by a slow load.
+ * When two loads of one key race, the value stored first wins and is returned to both callers.
+ */
+public class LruCache<K, V> {
+
+    private final long maxWeight;
+    private final ToLongFunction<? super V> weigher;
+    private final Map<K, V> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private long weight;
+    private long generation;
+
+    public LruCache(int maxSize) {
+        this(maxSize, value -> 1);
+    }
+
+    public LruCache(long maxWeight, ToLongFunction<? super V> weigher) {
+        if (maxWeight <= 0) {
+            throw new IllegalArgumentException("maxWeight must be positive");
+        }
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    public Optional<V> get(K key, Function<? super K, Optional<V>> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            V value = entries.get(key);
+            if (value != null) {
+                hits.increment();
+                return Optional.of(value);
+            }
+            misses.increment();
+            loadGeneration = generation;
+        }
+        return loader.apply(key).map(value -> putIfCurrent(key, value, loadGeneration));
+    }
+
+    public Map<K, V> getAll(Collection<? extends K> keys, Function<Set<K>, Map<K, V>> loader) {
+        Map<K, V> result = new HashMap<>();
+        Set<K> missing = new HashSet<>();
+        long loadGeneration;
+        synchronized (this) {
+            for (K key : keys) {
+                V value = entries.get(key);
+                if (value != null) {
+                    result.put(key, value);
+                } else {
+                    missing.add(key);
+                }
+            }
+            hits.add(result.size());
+            misses.add(missing.size());
+            loadGeneration = generation;
+        }
+        if (!missing.isEmpty()) {
+            Map<K, V> loaded = loader.apply(missing);
+            loaded.forEach((key, value) -> result.put(key, putIfCurrent(key, value, loadGeneration)));
+        }
+        return result;
+    }
+
+    public synchronized void put(K key, V value) {
+        long valueWeight = weigher.applyAsLong(value);
+        remove(key);
+        if (valueWeight > maxWeight) {
+            return;
+        }
+        entries.put(key, value);
+        weight += valueWeight;
+        puts.increment();
+        Iterator<V> eldest = entries.values().iterator();
+        while (weight > maxWeight) {
+            weight -= weigher.applyAsLong(eldest.next());
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Stores the value unless the key is already cached, in which case the cached value is returned
+     * and the cache is left unchanged.
+     */
+    public synchronized Optional<V> putIfAbsent(K key, V value) {
+        V existing = entries.get(key);
+        if (existing != null) {
+            return Optional.of(existing);
+        }
+        put(key, value);
+        return Optional.empty();
+    }
+
+    public synchronized void invalidate(K key) {
+        remove(key);
+        generation++;
+    }
+
+    /**
+     * Invalidates the key only while it is still mapped to {@code expected}.
+     */
+    public synchronized boolean invalidate(K key, V expected) {
+        if (entries.get(key) != expected) {
+            return false;
+        }
+        invalidate(key);
+        return true;
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+        weight = 0;
+        generation++;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long weight() {
+        return weight;
+    }
+
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long putCount() {
+        return puts.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    private void remove(K key) {
+        V previous = entries.remove(key);
+        if (previous != null) {
+            weight -= weigher.applyAsLong(previous);
+        }
+    }
+
+    private synchronized V putIfCurrent(K key, V value, long loadGeneration) {
+        if (generation != loadGeneration) {
+            return value;
+        }
+        return putIfAbsent(key, value).orElse(value);
+    }
+}
@@ -0,0 +1,68 @@
+package ru.job4j.cinema.util;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+
+public class LruCacheMetrics extends CacheMeterBinder<LruCache<?, ?>> {
+
+    public LruCacheMetrics(LruCache<?, ?> cache, String cacheName) {
+        super(cache, cacheName, Tags.empty());
+    }
+
+    @Override
+    protected Long size() {
+        LruCache<?, ?> cache = getCache();
+        return cache == null ? null : (long) cache.size();
+    }
+
+    @Override
+    protected long hitCount() {
+        LruCache<?, ?> cache = getCache();
+        return cache == null ? 0 : cache.hitCount();
+    }
+
+    @Override
+    protected Long missCount() {
+        LruCache<?, ?> cache = getCache();
+        return cache == null ? null : cache.missCount();
+    }
+
+    @Override
+    protected Long evictionCount() {
+        LruCache<?, ?> cache = getCache();
+        return cache == null ? null : cache.evictionCount();
+    }
+
+    @Override
+    protected long putCount() {
+        LruCache<?, ?> cache = getCache();
+        return cache == null ? 0 : cache.putCount();
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        Gauge.builder("cache.weight", getCache(), cache -> cache == null ? 0 : cache.weight())
+                .tags(getTagsWithCacheName())
+                .description("The total weight of the cached entries: entries, or bytes for byte-weighted caches")
+                .register(registry);
+        Gauge.builder("cache.max.weight", getCache(), cache -> cache == null ? 0 : cache.getMaxWeight())
+                .tags(getTagsWithCacheName())
+                .description("The weight the cache evicts down to")
+                .register(registry);
+        Gauge.builder("cache.hit.ratio", getCache(), LruCacheMetrics::hitRatio)
+                .tags(getTagsWithCacheName())
+                .description("The share of lookups served from the cache since startup")
+                .register(registry);
+    }
+
+    private static double hitRatio(LruCache<?, ?> cache) {
+        if (cache == null) {
+            return 0;
+        }
+        long hits = cache.hitCount();
+        long lookups = hits + cache.missCount();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+}
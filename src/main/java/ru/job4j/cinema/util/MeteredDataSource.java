@@ -0,0 +1,86 @@
+package ru.job4j.cinema.util;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Times every connection checkout of the wrapped pool. Publishes
+ * {@code jdbc.connections.acquire} (histogram, tagged with the outcome) and
+ * {@code jdbc.connections.pending}, the number of threads currently waiting for a connection.
+ * Active and idle counts come from Spring Boot's own {@code jdbc.connections.*} gauges.
+ * Closing it closes the wrapped pool, so the bean is still shut down with the context.
+ */
+public class MeteredDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Timer acquired;
+    private final Timer failed;
+
+    public MeteredDataSource(DataSource target, String poolName, MeterRegistry registry) {
+        super(target);
+        this.acquired = acquireTimer(poolName, "success", registry);
+        this.failed = acquireTimer(poolName, "failure", registry);
+        Gauge.builder("jdbc.connections.pending", pending, AtomicInteger::get)
+                .description("Threads waiting for a pooled connection")
+                .tag("pool", poolName)
+                .register(registry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return timed(() -> super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return timed(() -> super.getConnection(username, password));
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (getTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    public int getPending() {
+        return pending.get();
+    }
+
+    private Connection timed(ConnectionSupplier supplier) throws SQLException {
+        long start = System.nanoTime();
+        pending.incrementAndGet();
+        try {
+            Connection connection = supplier.get();
+            acquired.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return connection;
+        } catch (SQLException | RuntimeException e) {
+            failed.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        } finally {
+            pending.decrementAndGet();
+        }
+    }
+
+    private static Timer acquireTimer(String poolName, String outcome, MeterRegistry registry) {
+        return Timer.builder("jdbc.connections.acquire")
+                .description("Time spent waiting for a pooled connection")
+                .tag("pool", poolName)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSupplier {
+        Connection get() throws SQLException;
+    }
+}
@@ -0,0 +1,11 @@
+package ru.job4j.cinema.util;
+
+/**
+ * Thrown when the password hashing pool is saturated or a check waits longer than allowed.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,93 @@
+package ru.job4j.cinema.util;
+
+import java.time.Clock;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token buckets keyed by string, one {@link AtomicLong} per key. The long holds the moment the
+ * bucket will be full again (the GCRA form of a token bucket), so taking a token is a single CAS
+ * and needs no lock. A bucket whose moment has passed is full and carries no state, which is what
+ * {@link #evictIdle()} drops. Once {@code maxKeys} buckets exist, a new key first triggers
+ * an eviction of idle buckets (at most once per second); if the table is still full the key is let
+ * through untracked and counted, so memory stays bounded when keys are sprayed without throttling
+ * unrelated newcomers together with the sprayer.
+ */
+public class RateLimiter {
+
+    private static final long SWEEP_INTERVAL_MILLIS = 1000;
+
+    private final Clock clock;
+    private final long intervalMillis;
+    private final long capacityMillis;
+    private final int maxKeys;
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweepAt = new AtomicLong();
+    private final LongAdder untracked = new LongAdder();
+
+    public RateLimiter(Clock clock, double ratePerSecond, int burst, int maxKeys) {
+        if (ratePerSecond <= 0 || burst <= 0 || maxKeys <= 0) {
+            throw new IllegalArgumentException("rate, burst and maxKeys must be positive");
+        }
+        this.clock = clock;
+        this.intervalMillis = Math.max(1L, Math.round(1000 / ratePerSecond));
+        this.capacityMillis = intervalMillis * burst;
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * Takes a token from the bucket of {@code key}.
+     *
+     * @return 0 when a token was taken, otherwise milliseconds until the next one is available
+     */
+    public long tryAcquire(String key) {
+        long now = clock.millis();
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = track(key, now);
+            if (bucket == null) {
+                untracked.increment();
+                return 0;
+            }
+        }
+        while (true) {
+            long fullAt = bucket.get();
+            long next = Math.max(fullAt, now) + intervalMillis;
+            long wait = next - now - capacityMillis;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public void evictIdle() {
+        long now = clock.millis();
+        buckets.values().removeIf(bucket -> bucket.get() <= now);
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    public long untrackedCount() {
+        return untracked.sum();
+    }
+
+    private AtomicLong track(String key, long now) {
+        if (buckets.size() >= maxKeys) {
+            long sweepAt = nextSweepAt.get();
+            if (now >= sweepAt && nextSweepAt.compareAndSet(sweepAt, now + SWEEP_INTERVAL_MILLIS)) {
+                evictIdle();
+            }
+            if (buckets.size() >= maxKeys) {
+                return null;
+            }
+        }
+        return buckets.computeIfAbsent(key, k -> new AtomicLong());
+    }
+}
@@ -0,0 +1,12 @@
+package ru.job4j.cinema.util;
+
+/**
+ * Thrown when a repeated request gives up waiting for the still running request with the same
+ * idempotency key.
+ */
+public class RequestInProgressException extends RuntimeException {
+
+    public RequestInProgressException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,105 @@
+package ru.job4j.cinema.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel. Timeouts are hashed into {@code wheelSize} buckets by their
+ * deadline tick; each {@link #advance(long)} only visits the buckets whose tick has
+ * passed, so expiring a timeout costs O(1) regardless of how many are scheduled.
+ * Scheduling and cancellation are lock-free; {@code advance} is meant to be called
+ * from a single timer thread.
+ */
+public class TimingWheel<T> {
+
+    private final long tickMillis;
+    private final long startMillis;
+    private final int mask;
+    private final List<Queue<Timeout<T>>> buckets;
+    private final Queue<Timeout<T>> pending = new ConcurrentLinkedQueue<>();
+    private final Consumer<T> onExpire;
+    private long currentTick;
+
+    public TimingWheel(long tickMillis, int wheelSize, long startMillis, Consumer<T> onExpire) {
+        if (tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("tickMillis and wheelSize must be positive");
+        }
+        int size = Integer.highestOneBit(wheelSize - 1) << 1;
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+        this.mask = Math.max(size, 1) - 1;
+        this.buckets = new ArrayList<>(mask + 1);
+        for (int i = 0; i <= mask; i++) {
+            buckets.add(new ArrayDeque<>());
+        }
+        this.onExpire = onExpire;
+    }
+
+    public Timeout<T> schedule(T value, long deadlineMillis) {
+        long deadlineTick = Math.max(0, (deadlineMillis - startMillis + tickMillis - 1) / tickMillis);
+        Timeout<T> timeout = new Timeout<>(value, deadlineTick);
+        pending.add(timeout);
+        return timeout;
+    }
+
+    public synchronized void advance(long nowMillis) {
+        long targetTick = (nowMillis - startMillis) / tickMillis;
+        transferPending();
+        while (currentTick <= targetTick) {
+            expire(buckets.get((int) (currentTick & mask)));
+            currentTick++;
+        }
+    }
+
+    private void transferPending() {
+        for (Timeout<T> timeout = pending.poll(); timeout != null; timeout = pending.poll()) {
+            if (!timeout.isCancelled()) {
+                long tick = Math.max(timeout.deadlineTick, currentTick);
+                buckets.get((int) (tick & mask)).add(timeout);
+            }
+        }
+    }
+
+    private void expire(Queue<Timeout<T>> bucket) {
+        int size = bucket.size();
+        for (int i = 0; i < size; i++) {
+            Timeout<T> timeout = bucket.poll();
+            if (timeout.isCancelled()) {
+                continue;
+            }
+            if (timeout.deadlineTick <= currentTick) {
+                onExpire.accept(timeout.value);
+            } else {
+                bucket.add(timeout);
+            }
+        }
+    }
+
+    public static final class Timeout<T> {
+
+        private final T value;
+        private final long deadlineTick;
+        private volatile boolean cancelled;
+
+        private Timeout(T value, long deadlineTick) {
+            this.value = value;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+}
@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS idx_film_sessions_start_time_id ON film_sessions (start_time, id);
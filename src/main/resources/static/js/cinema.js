@@ -0,0 +1,114 @@
+var SOLD_TITLE = 'Место продано';
+var HELD_TITLE = 'Место выбрано другим покупателем';
+
+document.addEventListener('DOMContentLoaded', function () {
+    var form = document.querySelector('form[data-hold-url]');
+    if (!form) {
+        return;
+    }
+    var sessionId = form.querySelector('input[name="sessionId"]').value;
+    var sold = {};
+    if (form.dataset.eventsUrl && window.EventSource) {
+        var events = new EventSource(form.dataset.eventsUrl);
+        events.addEventListener('taken', function (event) {
+            var seat = JSON.parse(event.data);
+            sold[seat.rowNumber + '-' + seat.placeNumber] = true;
+            disableSeat(form, seat.rowNumber, seat.placeNumber, SOLD_TITLE);
+        });
+        events.addEventListener('held', function (event) {
+            var seat = JSON.parse(event.data);
+            disableSeat(form, seat.rowNumber, seat.placeNumber, HELD_TITLE);
+        });
+        events.addEventListener('released', function (event) {
+            var seat = JSON.parse(event.data);
+            if (!sold[seat.rowNumber + '-' + seat.placeNumber]) {
+                enableSeat(form, seat.rowNumber, seat.placeNumber);
+            }
+        });
+        window.addEventListener('pagehide', function () {
+            events.close();
+        });
+    }
+    if (form.dataset.seatsUrl) {
+        fetch(form.dataset.seatsUrl).then(function (response) {
+            return response.ok ? response.json() : null;
+        }).then(function (occupancy) {
+            if (occupancy) {
+                markSeats(form, occupancy, occupancy.taken, function (row, place) {
+                    sold[row + '-' + place] = true;
+                    disableSeat(form, row, place, SOLD_TITLE);
+                });
+                markSeats(form, occupancy, occupancy.held, function (row, place) {
+                    disableSeat(form, row, place, HELD_TITLE);
+                });
+            }
+        });
+    }
+    form.querySelectorAll('input[name="seats"]').forEach(function (seat) {
+        seat.addEventListener('change', function () {
+            var parts = seat.value.split('-');
+            var body = new URLSearchParams({sessionId: sessionId, rowNumber: parts[0], placeNumber: parts[1]});
+            var url = seat.checked ? form.dataset.holdUrl : form.dataset.releaseUrl;
+            fetch(url, {method: 'POST', body: body}).then(function (response) {
+                if (seat.checked && response.status === 409) {
+                    seat.checked = false;
+                    seat.disabled = true;
+                }
+            });
+        });
+    });
+});
+
+function markSeats(form, occupancy, encoded, mark) {
+    var bytes = atob(encoded);
+    for (var i = 0; i < bytes.length; i++) {
+        var octet = bytes.charCodeAt(i);
+        for (var bit = 0; bit < 8; bit++) {
+            if (octet & (1 << bit)) {
+                var index = i * 8 + bit;
+                mark(Math.floor(index / occupancy.placeCount) + 1, index % occupancy.placeCount + 1);
+            }
+        }
+    }
+}
+
+function disableSeat(form, row, place, title) {
+    var seat = form.querySelector('#seat-' + row + '-' + place);
+    if (seat && !seat.checked) {
+        seat.disabled = true;
+        form.querySelector('label[for="' + seat.id + '"]').title = title;
+    }
+}
+
+function enableSeat(form, row, place) {
+    var seat = form.querySelector('#seat-' + row + '-' + place);
+    if (seat && seat.disabled) {
+        seat.disabled = false;
+        form.querySelector('label[for="' + seat.id + '"]').removeAttribute('title');
+    }
+}
+
+document.addEventListener('DOMContentLoaded', function () {
+    var queue = document.querySelector('[data-queue][data-status-url]');
+    if (!queue || !queue.querySelector('[data-queue-position]')) {
+        return;
+    }
+    var poll = function () {
+        fetch(queue.dataset.statusUrl).then(function (response) {
+            return response.ok ? response.json() : null;
+        }).then(function (status) {
+            if (status && (status.state === 'ADMITTED' || status.state === 'NOT_QUEUED')) {
+                window.location.href = queue.dataset.buyUrl;
+                return;
+            }
+            if (status && status.state === 'WAITING') {
+                queue.querySelector('[data-queue-position]').textContent = status.position;
+                queue.querySelector('[data-queue-eta]').textContent = status.etaSeconds;
+            }
+            setTimeout(poll, 3000);
+        }).catch(function () {
+            setTimeout(poll, 3000);
+        });
+    };
+    setTimeout(poll, 3000);
+});
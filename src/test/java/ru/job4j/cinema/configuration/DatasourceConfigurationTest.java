@@ -0,0 +1,62 @@
+package ru.job4j.cinema.configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.junit.jupiter.api.Test;
+import ru.job4j.cinema.util.MeteredDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DatasourceConfigurationTest {
+
+    private static final String URL = "jdbc:h2:mem:pool;MODE=PostgreSQL;DB_CLOSE_DELAY=-1";
+
+    private final DatasourceConfiguration configuration = new DatasourceConfiguration();
+
+    @Test
+    void whenDbcpPoolThenApplySizingAndTimeouts() {
+        var pool = new ConnectionPoolProperties(ConnectionPoolProperties.Type.DBCP2,
+                5, 1, Duration.ofMillis(250), Duration.ofMinutes(1), 32, 0);
+
+        var dataSource = (BasicDataSource) configuration.connectionPool(URL, "", "", pool);
+
+        assertThat(dataSource.getMaxTotal()).isEqualTo(5);
+        assertThat(dataSource.getMinIdle()).isEqualTo(1);
+        assertThat(dataSource.getMaxWaitMillis()).isEqualTo(250);
+        assertThat(dataSource.isPoolPreparedStatements()).isTrue();
+        assertThat(dataSource.getMaxOpenPreparedStatements()).isEqualTo(32);
+        assertThat(dataSource.getRemoveAbandonedTimeout()).isEqualTo(60);
+    }
+
+    @Test
+    void whenPoolIsExhaustedThenFailAfterAcquireTimeout() throws SQLException {
+        var pool = new ConnectionPoolProperties(ConnectionPoolProperties.Type.HIKARI,
+                1, 1, Duration.ofMillis(250), Duration.ZERO, 0, 0);
+        DataSource dataSource = configuration.connectionPool(URL, "", "", pool);
+
+        try (Connection held = dataSource.getConnection()) {
+            assertThat(held.isValid(1)).isTrue();
+            assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLException.class);
+        } finally {
+            ((HikariDataSource) dataSource).close();
+        }
+    }
+
+    @Test
+    void whenPoolBeanIsClosedThenUnderlyingPoolIsClosed() throws Exception {
+        var dataSource = (MeteredDataSource) configuration.connectionPool(URL, "", "",
+                ConnectionPoolProperties.DEFAULTS, new SimpleMeterRegistry());
+        var pool = (BasicDataSource) dataSource.getTargetDataSource();
+
+        dataSource.close();
+
+        assertThat(pool.isClosed()).isTrue();
+    }
+}
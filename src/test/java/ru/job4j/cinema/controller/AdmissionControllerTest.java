@@ -0,0 +1,103 @@
+package ru.job4j.cinema.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.ui.Model;
+import ru.job4j.cinema.dto.AdmissionStatus;
+import ru.job4j.cinema.dto.FilmSessionDto;
+import ru.job4j.cinema.dto.ScheduleSnapshot;
+import ru.job4j.cinema.model.User;
+import ru.job4j.cinema.service.AdmissionService;
+import ru.job4j.cinema.service.ScheduleSnapshotService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class AdmissionControllerTest {
+
+    @Mock
+    private AdmissionService admissionService;
+
+    @Mock
+    private ScheduleSnapshotService scheduleSnapshotService;
+
+    @Mock
+    private Model model;
+
+    @InjectMocks
+    private AdmissionController admissionController;
+
+    private final User user = User.builder().id(7).build();
+
+    private final FilmSessionDto session = new FilmSessionDto(1, 1, 1, "Film", "Description", "/files/1", "Hall",
+            LocalDateTime.of(2030, 1, 1, 18, 0), LocalDateTime.of(2030, 1, 1, 20, 0), 500);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(scheduleSnapshotService.getSnapshot()).thenReturn(ScheduleSnapshot.of(LocalDateTime.now(), List.of(session)));
+    }
+
+    @Test
+    void whenUserHasToWaitThenShowQueuePage() {
+        AdmissionStatus waiting = AdmissionStatus.waiting(4, 2);
+        when(admissionService.enter(1, 7)).thenReturn(waiting);
+
+        String result = admissionController.getQueuePage(1, user, model);
+
+        assertThat(result).isEqualTo("sessions/queue");
+        verify(model).addAttribute("filmSession", session);
+        verify(model).addAttribute("admission", waiting);
+    }
+
+    @Test
+    void whenUserIsAdmittedThenRedirectToBuyPage() {
+        when(admissionService.enter(1, 7)).thenReturn(AdmissionStatus.admitted());
+
+        String result = admissionController.getQueuePage(1, user, model);
+
+        assertThat(result).isEqualTo("redirect:/tickets/buy/1");
+    }
+
+    @Test
+    void whenGuestOpensQueueThenRedirectToLogin() {
+        String result = admissionController.getQueuePage(1, null, model);
+
+        assertThat(result).isEqualTo("redirect:/users/login");
+        verifyNoInteractions(admissionService);
+    }
+
+    @Test
+    void whenSessionIsNotScheduledThenRedirectToBuyPageWithoutQueue() {
+        String result = admissionController.getQueuePage(999, user, model);
+
+        assertThat(result).isEqualTo("redirect:/tickets/buy/999");
+        verifyNoInteractions(admissionService);
+    }
+
+    @Test
+    void whenGetStatusThenReturnItWithoutCaching() {
+        when(admissionService.getStatus(1, 7)).thenReturn(AdmissionStatus.waiting(2, 1));
+
+        ResponseEntity<AdmissionStatus> result = admissionController.getStatus(1, user);
+
+        assertThat(result.getBody()).isEqualTo(AdmissionStatus.waiting(2, 1));
+        assertThat(result.getHeaders().getCacheControl()).isEqualTo("no-store");
+        verifyNoInteractions(scheduleSnapshotService);
+    }
+
+    @Test
+    void whenGuestAsksStatusThenUnauthorized() {
+        ResponseEntity<AdmissionStatus> result = admissionController.getStatus(1, null);
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+    }
+}
@@ -0,0 +1,53 @@
+package ru.job4j.cinema.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.sql2o.Sql2oException;
+import ru.job4j.cinema.service.FilmService;
+import ru.job4j.cinema.service.ScheduleSnapshotService;
+import ru.job4j.cinema.util.DatabaseBusyException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
+
+class DatabaseBusyAdviceTest {
+
+    private final DatabaseBusyAdvice advice = new DatabaseBusyAdvice();
+
+    @Test
+    void whenDatabaseIsBusyThenRespondServiceUnavailableWithRetryAfter() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        var result = advice.handleDatabaseBusy(new DatabaseBusyException("full"), response);
+
+        assertThat(result.getViewName()).isEqualTo("errors/503");
+        assertThat(result.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(result.getModel()).containsKey("message");
+        assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+    }
+
+    @Test
+    void whenControllerFailsWithWrappedAcquireTimeoutThenAdviceAnswersServiceUnavailable() throws Exception {
+        FilmService filmService = mock(FilmService.class);
+        when(filmService.findAll()).thenThrow(new Sql2oException("Database access error",
+                new DatabaseBusyException("Timed out waiting for a database connection")));
+        MockMvc mockMvc = MockMvcBuilders
+                .standaloneSetup(new FilmController(filmService, mock(ScheduleSnapshotService.class)))
+                .setControllerAdvice(advice)
+                .build();
+
+        mockMvc.perform(get("/films"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(view().name("errors/503"));
+    }
+}
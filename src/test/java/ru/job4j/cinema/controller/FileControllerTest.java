@@ -5,10 +5,19 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import ru.job4j.cinema.dto.FileContent;
+import ru.job4j.cinema.dto.ImageVariant;
 import ru.job4j.cinema.service.FileService;
+import ru.job4j.cinema.service.ImageVariantService;
 
 import java.util.Optional;
 
@@ -17,28 +26,38 @@ import static org.mockito.Mockito.*;
 
 class FileControllerTest {
 
+    private static final long LAST_MODIFIED = 1_700_000_000_000L;
+
     @Mock
     private FileService fileService;
 
+    @Mock
+    private ImageVariantService imageVariantService;
+
     @InjectMocks
     private FileController fileController;
 
+    private MockHttpServletRequest request;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        request = new MockHttpServletRequest("GET", "/files/1");
+        when(imageVariantService.findVariant(anyInt(), any(), eq(ImageVariant.FULL)))
+                .thenAnswer(invocation -> Optional.of(invocation.getArgument(1)));
     }
 
     @Test
     void whenGetFileWithExistingIdThenReturnFileContent() {
         int fileId = 1;
-        byte[] fileContent = "test file content".getBytes();
+        FileContent fileContent = createFileContent("test file content".getBytes(), MediaType.IMAGE_JPEG);
 
         when(fileService.getFileContent(fileId)).thenReturn(Optional.of(fileContent));
 
-        ResponseEntity<byte[]> result = fileController.getFile(fileId);
+        ResponseEntity<Resource> result = fileController.getFile(fileId, null, webRequest());
 
         assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
-        assertThat(result.getBody()).isEqualTo(fileContent);
+        assertThat(result.getBody()).isSameAs(fileContent.resource());
         assertThat(result.getHeaders().getContentType()).isEqualTo(MediaType.IMAGE_JPEG);
 
         verify(fileService).getFileContent(fileId);
@@ -50,7 +69,7 @@ class FileControllerTest {
 
         when(fileService.getFileContent(fileId)).thenReturn(Optional.empty());
 
-        ResponseEntity<byte[]> result = fileController.getFile(fileId);
+        ResponseEntity<Resource> result = fileController.getFile(fileId, null, webRequest());
 
         assertThat(result.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
         assertThat(result.getBody()).isNull();
@@ -64,7 +83,7 @@ class FileControllerTest {
 
         when(fileService.getFileContent(fileId)).thenReturn(Optional.empty());
 
-        ResponseEntity<byte[]> result = fileController.getFile(fileId);
+        ResponseEntity<Resource> result = fileController.getFile(fileId, null, webRequest());
 
         assertThat(result.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
         verify(fileService).getFileContent(fileId);
@@ -73,14 +92,95 @@ class FileControllerTest {
     @Test
     void whenGetFileThenHeadersAreSetCorrectly() {
         int fileId = 1;
-        byte[] fileContent = new byte[]{1, 2, 3, 4, 5};
+        FileContent fileContent = createFileContent(new byte[]{1, 2, 3, 4, 5}, MediaType.IMAGE_PNG);
 
         when(fileService.getFileContent(fileId)).thenReturn(Optional.of(fileContent));
 
-        ResponseEntity<byte[]> result = fileController.getFile(fileId);
+        ResponseEntity<Resource> result = fileController.getFile(fileId, null, webRequest());
+
+        HttpHeaders headers = result.getHeaders();
+        assertThat(headers.getContentType()).isEqualTo(MediaType.IMAGE_PNG);
+        assertThat(headers.getContentLength()).isEqualTo(5);
+        assertThat(headers.getETag()).isEqualTo("\"abc123\"");
+        assertThat(headers.getLastModified()).isEqualTo(LAST_MODIFIED);
+        assertThat(headers.getCacheControl()).contains("max-age=31536000", "public", "immutable");
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void whenEtagMatchesThenReturnNotModifiedWithoutBody() {
+        when(fileService.getFileContent(1)).thenReturn(Optional.of(createFileContent(new byte[]{1}, MediaType.IMAGE_JPEG)));
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"abc123\"");
+
+        ResponseEntity<Resource> result = fileController.getFile(1, null, webRequest());
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(result.getBody()).isNull();
+        assertThat(result.getHeaders().getETag()).isEqualTo("\"abc123\"");
+    }
+
+    @Test
+    void whenEtagDiffersThenReturnFullContent() {
+        when(fileService.getFileContent(1)).thenReturn(Optional.of(createFileContent(new byte[]{1}, MediaType.IMAGE_JPEG)));
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"outdated\"");
+
+        ResponseEntity<Resource> result = fileController.getFile(1, null, webRequest());
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(result.getBody()).isNotNull();
+    }
+
+    @Test
+    void whenNotModifiedSinceThenReturnNotModified() {
+        when(fileService.getFileContent(1)).thenReturn(Optional.of(createFileContent(new byte[]{1}, MediaType.IMAGE_JPEG)));
+        request.addHeader(HttpHeaders.IF_MODIFIED_SINCE, LAST_MODIFIED + 60_000);
+
+        ResponseEntity<Resource> result = fileController.getFile(1, null, webRequest());
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+    }
+
+    @Test
+    void whenVariantIsReadyThenServeItWithImmutableCaching() {
+        FileContent original = createFileContent(new byte[]{1, 2, 3}, MediaType.IMAGE_JPEG);
+        FileContent thumb = new FileContent(new ByteArrayResource(new byte[]{9}), MediaType.IMAGE_JPEG, 1, LAST_MODIFIED, "thumb1");
+        when(fileService.getFileContent(1)).thenReturn(Optional.of(original));
+        when(imageVariantService.findVariant(1, original, ImageVariant.THUMB)).thenReturn(Optional.of(thumb));
+
+        ResponseEntity<Resource> result = fileController.getFile(1, "thumb", webRequest());
 
-        assertThat(result.getHeaders().getContentType()).isEqualTo(MediaType.IMAGE_JPEG);
         assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
-        assertThat(result.getBody()).isEqualTo(fileContent);
+        assertThat(result.getBody()).isSameAs(thumb.resource());
+        assertThat(result.getHeaders().getETag()).isEqualTo("\"thumb1\"");
+        assertThat(result.getHeaders().getCacheControl()).contains("immutable");
+    }
+
+    @Test
+    void whenVariantIsNotReadyThenServeOriginalWithoutLongCaching() {
+        FileContent original = createFileContent(new byte[]{1, 2, 3}, MediaType.IMAGE_JPEG);
+        when(fileService.getFileContent(1)).thenReturn(Optional.of(original));
+        when(imageVariantService.findVariant(1, original, ImageVariant.CARD)).thenReturn(Optional.empty());
+
+        ResponseEntity<Resource> result = fileController.getFile(1, "card", webRequest());
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(result.getBody()).isSameAs(original.resource());
+        assertThat(result.getHeaders().getCacheControl()).isEqualTo("no-cache");
+    }
+
+    @Test
+    void whenVariantIsUnknownThenReturnBadRequest() {
+        ResponseEntity<Resource> result = fileController.getFile(1, "huge", webRequest());
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verifyNoInteractions(fileService);
+    }
+
+    private ServletWebRequest webRequest() {
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+
+    private FileContent createFileContent(byte[] content, MediaType mediaType) {
+        return new FileContent(new ByteArrayResource(content), mediaType, content.length, LAST_MODIFIED, "abc123");
     }
-}
\ No newline at end of file
+}
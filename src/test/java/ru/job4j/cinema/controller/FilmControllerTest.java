@@ -8,8 +8,9 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.ui.Model;
 import ru.job4j.cinema.dto.FilmDto;
 import ru.job4j.cinema.dto.FilmSessionDto;
+import ru.job4j.cinema.dto.ScheduleSnapshot;
 import ru.job4j.cinema.service.FilmService;
-import ru.job4j.cinema.service.FilmSessionService;
+import ru.job4j.cinema.service.ScheduleSnapshotService;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -24,7 +25,7 @@ class FilmControllerTest {
     private FilmService filmService;
 
     @Mock
-    private FilmSessionService filmSessionService;
+    private ScheduleSnapshotService scheduleSnapshotService;
 
     @Mock
     private Model model;
@@ -70,13 +71,13 @@ class FilmControllerTest {
         List<FilmSessionDto> sessions = List.of(createTestFilmSessionDto());
 
         when(filmService.findById(filmId)).thenReturn(Optional.of(film));
-        when(filmSessionService.findByFilmId(filmId)).thenReturn(sessions);
+        when(scheduleSnapshotService.getSnapshot()).thenReturn(ScheduleSnapshot.of(LocalDateTime.now(), sessions));
 
         String result = filmController.getFilmSessions(filmId, model);
 
         assertThat(result).isEqualTo("films/sessions");
         verify(filmService).findById(filmId);
-        verify(filmSessionService).findByFilmId(filmId);
+        verify(scheduleSnapshotService).getSnapshot();
         verify(model).addAttribute("film", film);
         verify(model).addAttribute("sessions", sessions);
     }
@@ -91,7 +92,7 @@ class FilmControllerTest {
 
         assertThat(result).isEqualTo("errors/404");
         verify(filmService).findById(filmId);
-        verify(filmSessionService, never()).findByFilmId(any());
+        verify(scheduleSnapshotService, never()).getSnapshot();
         verify(model).addAttribute("message", "Фильм не найден");
     }
 
@@ -102,7 +103,7 @@ class FilmControllerTest {
         List<FilmSessionDto> emptySessions = List.of();
 
         when(filmService.findById(filmId)).thenReturn(Optional.of(film));
-        when(filmSessionService.findByFilmId(filmId)).thenReturn(emptySessions);
+        when(scheduleSnapshotService.getSnapshot()).thenReturn(ScheduleSnapshot.of(LocalDateTime.now(), emptySessions));
 
         String result = filmController.getFilmSessions(filmId, model);
 
@@ -126,6 +127,8 @@ class FilmControllerTest {
 
     private FilmSessionDto createTestFilmSessionDto() {
         return new FilmSessionDto(
+                1,
+                1,
                 1,
                 "Test Film",
                 "Test Description",
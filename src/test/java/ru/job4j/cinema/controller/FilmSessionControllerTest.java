@@ -5,12 +5,28 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.ui.Model;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.job4j.cinema.dto.FilmSessionDto;
-import ru.job4j.cinema.service.FilmSessionService;
-
+import ru.job4j.cinema.dto.SeatOccupancy;
+import ru.job4j.cinema.dto.SessionCursor;
+import ru.job4j.cinema.dto.SessionPage;
+import ru.job4j.cinema.model.SeatMap;
+import ru.job4j.cinema.model.Ticket;
+import ru.job4j.cinema.model.User;
+import ru.job4j.cinema.service.ScheduleSnapshotService;
+import ru.job4j.cinema.service.SeatEventService;
+import ru.job4j.cinema.service.SeatHoldService;
+import ru.job4j.cinema.service.SeatMapService;
+
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.BitSet;
 import java.util.List;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
@@ -18,7 +34,16 @@ import static org.mockito.Mockito.*;
 class FilmSessionControllerTest {
 
     @Mock
-    private FilmSessionService filmSessionService;
+    private ScheduleSnapshotService scheduleSnapshotService;
+
+    @Mock
+    private SeatMapService seatMapService;
+
+    @Mock
+    private SeatHoldService seatHoldService;
+
+    @Mock
+    private SeatEventService seatEventService;
 
     @Mock
     private Model model;
@@ -35,12 +60,12 @@ class FilmSessionControllerTest {
     void whenGetAllThenReturnSessionsListView() {
         List<FilmSessionDto> sessions = List.of(createTestFilmSessionDto());
 
-        when(filmSessionService.findAll()).thenReturn(sessions);
+        when(scheduleSnapshotService.findPage(null, null, null, 20)).thenReturn(new SessionPage(sessions, null));
 
-        String result = filmSessionController.getAll(model);
+        String result = filmSessionController.getAll(null, null, null, 20, model);
 
         assertThat(result).isEqualTo("sessions/list");
-        verify(filmSessionService).findAll();
+        verify(scheduleSnapshotService).findPage(null, null, null, 20);
         verify(model).addAttribute("sessions", sessions);
     }
 
@@ -48,12 +73,12 @@ class FilmSessionControllerTest {
     void whenGetAllWithEmptyListThenReturnSessionsListView() {
         List<FilmSessionDto> emptySessions = List.of();
 
-        when(filmSessionService.findAll()).thenReturn(emptySessions);
+        when(scheduleSnapshotService.findPage(null, null, null, 20)).thenReturn(new SessionPage(emptySessions, null));
 
-        String result = filmSessionController.getAll(model);
+        String result = filmSessionController.getAll(null, null, null, 20, model);
 
         assertThat(result).isEqualTo("sessions/list");
-        verify(filmSessionService).findAll();
+        verify(scheduleSnapshotService).findPage(null, null, null, 20);
         verify(model).addAttribute("sessions", emptySessions);
     }
 
@@ -61,6 +86,8 @@ class FilmSessionControllerTest {
     void whenGetAllWithMultipleSessionsThenReturnAllSessions() {
         FilmSessionDto session1 = createTestFilmSessionDto();
         FilmSessionDto session2 = new FilmSessionDto(
+                2,
+                2,
                 2,
                 "Another Film",
                 "Another Description",
@@ -72,17 +99,111 @@ class FilmSessionControllerTest {
         );
         List<FilmSessionDto> sessions = List.of(session1, session2);
 
-        when(filmSessionService.findAll()).thenReturn(sessions);
+        when(scheduleSnapshotService.findPage(null, null, null, 20)).thenReturn(new SessionPage(sessions, null));
 
-        String result = filmSessionController.getAll(model);
+        String result = filmSessionController.getAll(null, null, null, 20, model);
 
         assertThat(result).isEqualTo("sessions/list");
-        verify(filmSessionService).findAll();
+        verify(scheduleSnapshotService).findPage(null, null, null, 20);
         verify(model).addAttribute("sessions", sessions);
     }
 
+    @Test
+    void whenGetAllWithWindowAndCursorThenPassThemToService() {
+        LocalDate from = LocalDate.of(2030, 1, 1);
+        LocalDate to = LocalDate.of(2030, 1, 7);
+        SessionCursor cursor = new SessionCursor(LocalDateTime.of(2030, 1, 2, 18, 0), 5);
+        SessionPage page = new SessionPage(List.of(createTestFilmSessionDto()), "2030-01-03T10:00_9");
+        when(scheduleSnapshotService.findPage(from, to, cursor, 10)).thenReturn(page);
+
+        filmSessionController.getAll(from, to, cursor.encode(), 10, model);
+
+        verify(model).addAttribute("page", page);
+        verify(model).addAttribute("from", from);
+        verify(model).addAttribute("size", 10);
+        verify(model).addAttribute("firstPage", false);
+    }
+
+    @Test
+    void whenGetAllWithOversizedPageOrBrokenCursorThenClampAndStartOver() {
+        when(scheduleSnapshotService.findPage(null, null, null, 100)).thenReturn(new SessionPage(List.of(), null));
+
+        filmSessionController.getAll(null, null, "not-a-cursor", 100_000, model);
+
+        verify(scheduleSnapshotService).findPage(null, null, null, 100);
+        verify(model).addAttribute("firstPage", true);
+    }
+
+    @Test
+    void whenGetSeatsThenReturnTakenAndHeldBitmaps() {
+        SeatMap seatMap = new SeatMap(2, 5);
+        seatMap.take(1, 1);
+        seatMap.take(2, 5);
+        User user = User.builder().id(7).build();
+        Ticket held = Ticket.builder().sessionId(1).rowNumber(1).placeNumber(3).userId(8).build();
+
+        when(seatMapService.findBySessionId(1)).thenReturn(Optional.of(seatMap));
+        when(seatHoldService.findHeldByOthers(1, 7)).thenReturn(List.of(held));
+
+        ResponseEntity<SeatOccupancy> result = filmSessionController.getSeats(1, user);
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(result.getHeaders().getCacheControl()).isEqualTo("no-cache");
+        SeatOccupancy occupancy = result.getBody();
+        assertThat(occupancy.rowCount()).isEqualTo(2);
+        assertThat(occupancy.placeCount()).isEqualTo(5);
+        assertThat(BitSet.valueOf(Base64.getDecoder().decode(occupancy.taken())))
+                .isEqualTo(BitSet.valueOf(new long[]{1L | 1L << 9}));
+        assertThat(BitSet.valueOf(Base64.getDecoder().decode(occupancy.held())))
+                .isEqualTo(BitSet.valueOf(new long[]{1L << 2}));
+    }
+
+    @Test
+    void whenGetSeatsAsGuestThenAllHoldsAreReported() {
+        when(seatMapService.findBySessionId(1)).thenReturn(Optional.of(new SeatMap(1, 1)));
+
+        ResponseEntity<SeatOccupancy> result = filmSessionController.getSeats(1, null);
+
+        assertThat(result.getBody().taken()).isEmpty();
+        verify(seatHoldService).findHeldByOthers(1, null);
+    }
+
+    @Test
+    void whenGetSeatsOfUnknownSessionThenNotFound() {
+        when(seatMapService.findBySessionId(999)).thenReturn(Optional.empty());
+
+        ResponseEntity<SeatOccupancy> result = filmSessionController.getSeats(999, null);
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        verifyNoInteractions(seatHoldService);
+    }
+
+    @Test
+    void whenSubscribeToSeatsThenReturnEventStream() {
+        SseEmitter emitter = new SseEmitter();
+        when(seatMapService.findBySessionId(1)).thenReturn(Optional.of(new SeatMap(1, 1)));
+        when(seatEventService.subscribe(1)).thenReturn(emitter);
+
+        ResponseEntity<SseEmitter> result = filmSessionController.subscribeToSeats(1);
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(result.getBody()).isSameAs(emitter);
+    }
+
+    @Test
+    void whenSubscribeToSeatsOfUnknownSessionThenNotFound() {
+        when(seatMapService.findBySessionId(999)).thenReturn(Optional.empty());
+
+        ResponseEntity<SseEmitter> result = filmSessionController.subscribeToSeats(999);
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        verifyNoInteractions(seatEventService);
+    }
+
     private FilmSessionDto createTestFilmSessionDto() {
         return new FilmSessionDto(
+                1,
+                1,
                 1,
                 "Test Film",
                 "Test Description",
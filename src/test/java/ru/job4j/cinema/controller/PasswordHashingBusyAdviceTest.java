@@ -0,0 +1,26 @@
+package ru.job4j.cinema.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ru.job4j.cinema.util.PasswordHashingBusyException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PasswordHashingBusyAdviceTest {
+
+    private final PasswordHashingBusyAdvice advice = new PasswordHashingBusyAdvice();
+
+    @Test
+    void whenHashingPoolIsSaturatedThenRespondServiceUnavailableWithRetryAfter() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        var result = advice.handlePasswordHashingBusy(new PasswordHashingBusyException("saturated"), response);
+
+        assertThat(result.getViewName()).isEqualTo("errors/503");
+        assertThat(result.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(result.getModel()).containsKey("message");
+        assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("5");
+    }
+}
@@ -0,0 +1,26 @@
+package ru.job4j.cinema.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ru.job4j.cinema.util.RequestInProgressException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestInProgressAdviceTest {
+
+    private final RequestInProgressAdvice advice = new RequestInProgressAdvice();
+
+    @Test
+    void whenRequestIsStillInProgressThenRespondConflictWithRetryAfter() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        var result = advice.handleRequestInProgress(new RequestInProgressException("running"), response);
+
+        assertThat(result.getViewName()).isEqualTo("errors/409");
+        assertThat(result.getStatus()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(result.getModel()).containsKey("message");
+        assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+    }
+}
@@ -5,17 +5,24 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.ui.Model;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import ru.job4j.cinema.dto.BasketPurchaseResult;
 import ru.job4j.cinema.dto.FilmSessionDetailDto;
+import ru.job4j.cinema.dto.PurchaseResult;
+import ru.job4j.cinema.dto.PurchaseStatus;
 import ru.job4j.cinema.model.Ticket;
 import ru.job4j.cinema.model.User;
 import ru.job4j.cinema.service.FilmSessionService;
+import ru.job4j.cinema.service.IdempotencyService;
+import ru.job4j.cinema.service.SeatHoldService;
 import ru.job4j.cinema.service.TicketService;
 
-import jakarta.servlet.http.HttpSession;
 import java.time.LocalDateTime;
-import java.util.Optional;
+import java.util.List;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
@@ -29,10 +36,13 @@ class TicketControllerTest {
     private FilmSessionService filmSessionService;
 
     @Mock
-    private Model model;
+    private SeatHoldService seatHoldService;
+
+    @Mock
+    private IdempotencyService idempotencyService;
 
     @Mock
-    private HttpSession httpSession;
+    private Model model;
 
     @Mock
     private RedirectAttributes redirectAttributes;
@@ -43,6 +53,8 @@ class TicketControllerTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(idempotencyService.execute(anyString(), any(), any(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(3).get());
     }
 
     @Test
@@ -57,6 +69,7 @@ class TicketControllerTest {
         assertThat(result).isEqualTo("tickets/buy");
         verify(filmSessionService).findById(sessionId);
         verify(model).addAttribute("sessionDetail", sessionDetail);
+        verify(model).addAttribute(eq("idempotencyKey"), anyString());
     }
 
     @Test
@@ -76,28 +89,36 @@ class TicketControllerTest {
     void whenBuyTicketWithoutUserThenRedirectToLogin() {
         Ticket ticket = createTestTicket();
 
-        when(httpSession.getAttribute("user")).thenReturn(null);
-
-        String result = ticketController.buyTicket(ticket, httpSession, redirectAttributes, model);
+        String result = ticketController.buyTicket(ticket, null, null, redirectAttributes, model);
 
         assertThat(result).isEqualTo("redirect:/users/login");
-        verify(httpSession).getAttribute("user");
         verify(redirectAttributes).addFlashAttribute("errormessage", "Необходимо авторизоваться для покупки билетов");
         verify(ticketService, never()).buyTicket(any());
     }
 
+    @Test
+    void whenBuyTicketWithIdempotencyKeyThenPurchaseRunsThroughIdempotencyService() {
+        Ticket ticket = createTestTicket();
+        User user = createTestUser();
+        PurchaseResult remembered = PurchaseResult.sold(createTestTicket());
+        doReturn(remembered).when(idempotencyService).execute(anyString(), eq(user.getId()), eq("key-1"), any(), any());
+
+        String result = ticketController.buyTicket(ticket, "key-1", user, redirectAttributes, model);
+
+        assertThat(result).isEqualTo("tickets/success");
+        verify(model).addAttribute("ticket", remembered.ticket());
+        verify(ticketService, never()).buyTicket(any());
+    }
+
     @Test
     void whenBuyTicketWithUserWithoutIdThenRedirectToLogin() {
         Ticket ticket = createTestTicket();
         User user = new User();
         user.setId(null);
 
-        when(httpSession.getAttribute("user")).thenReturn(user);
-
-        String result = ticketController.buyTicket(ticket, httpSession, redirectAttributes, model);
+        String result = ticketController.buyTicket(ticket, null, user, redirectAttributes, model);
 
         assertThat(result).isEqualTo("redirect:/users/login");
-        verify(httpSession).getAttribute("user");
         verify(redirectAttributes).addFlashAttribute("errormessage", "Необходимо авторизоваться для покупки билетов");
         verify(ticketService, never()).buyTicket(any());
     }
@@ -109,15 +130,12 @@ class TicketControllerTest {
         Ticket savedTicket = createTestTicket();
         savedTicket.setId(1);
         savedTicket.setUserId(user.getId());
+        when(ticketService.buyTicket(ticket)).thenReturn(PurchaseResult.sold(savedTicket));
 
-        when(httpSession.getAttribute("user")).thenReturn(user);
-        when(ticketService.buyTicket(ticket)).thenReturn(Optional.of(savedTicket));
-
-        String result = ticketController.buyTicket(ticket, httpSession, redirectAttributes, model);
+        String result = ticketController.buyTicket(ticket, null, user, redirectAttributes, model);
 
         assertThat(result).isEqualTo("tickets/success");
         assertThat(ticket.getUserId()).isEqualTo(user.getId());
-        verify(httpSession).getAttribute("user");
         verify(ticketService).buyTicket(ticket);
         verify(model).addAttribute("ticket", savedTicket);
     }
@@ -126,17 +144,38 @@ class TicketControllerTest {
     void whenBuyTicketFailsThenReturnErrorView() {
         Ticket ticket = createTestTicket();
         User user = createTestUser();
+        when(ticketService.buyTicket(ticket)).thenReturn(PurchaseResult.failed(PurchaseStatus.ALREADY_TAKEN));
 
-        when(httpSession.getAttribute("user")).thenReturn(user);
-        when(ticketService.buyTicket(ticket)).thenReturn(Optional.empty());
-
-        String result = ticketController.buyTicket(ticket, httpSession, redirectAttributes, model);
+        String result = ticketController.buyTicket(ticket, null, user, redirectAttributes, model);
 
         assertThat(result).isEqualTo("tickets/error");
         assertThat(ticket.getUserId()).isEqualTo(user.getId());
-        verify(httpSession).getAttribute("user");
         verify(ticketService).buyTicket(ticket);
-        verify(model).addAttribute("message", "Не удалось приобрести билет. Возможно, место уже занято.");
+        verify(model).addAttribute("message", "Не удалось приобрести билет. Место уже занято, выберите другое.");
+    }
+
+    @Test
+    void whenBuyTicketForInvalidSeatThenReturnErrorViewWithSeatMessage() {
+        Ticket ticket = createTestTicket();
+        User user = createTestUser();
+        when(ticketService.buyTicket(ticket)).thenReturn(PurchaseResult.failed(PurchaseStatus.INVALID_SEAT));
+
+        String result = ticketController.buyTicket(ticket, null, user, redirectAttributes, model);
+
+        assertThat(result).isEqualTo("tickets/error");
+        verify(model).addAttribute("message", "Не удалось приобрести билет. Такого места нет в зале.");
+    }
+
+    @Test
+    void whenBuyTicketAndDatabaseFailsThenReturnErrorViewWithRetryMessage() {
+        Ticket ticket = createTestTicket();
+        User user = createTestUser();
+        when(ticketService.buyTicket(ticket)).thenReturn(PurchaseResult.failed(PurchaseStatus.DB_ERROR));
+
+        String result = ticketController.buyTicket(ticket, null, user, redirectAttributes, model);
+
+        assertThat(result).isEqualTo("tickets/error");
+        verify(model).addAttribute("message", "Не удалось приобрести билет. Попробуйте ещё раз позже.");
     }
 
     @Test
@@ -147,16 +186,117 @@ class TicketControllerTest {
         Ticket savedTicket = createTestTicket();
         savedTicket.setId(1);
         savedTicket.setUserId(user.getId());
+        when(ticketService.buyTicket(ticket)).thenReturn(PurchaseResult.sold(savedTicket));
 
-        when(httpSession.getAttribute("user")).thenReturn(user);
-        when(ticketService.buyTicket(ticket)).thenReturn(Optional.of(savedTicket));
-
-        ticketController.buyTicket(ticket, httpSession, redirectAttributes, model);
+        ticketController.buyTicket(ticket, null, user, redirectAttributes, model);
 
         assertThat(ticket.getUserId()).isEqualTo(user.getId());
         verify(ticketService).buyTicket(ticket);
     }
 
+    @Test
+    void whenBuyTicketsSuccessfullyThenReturnSuccessViewWithAllTickets() {
+        User user = createTestUser();
+        List<Ticket> savedTickets = List.of(
+                Ticket.builder().id(1).sessionId(1).rowNumber(2).placeNumber(3).userId(1).build(),
+                Ticket.builder().id(2).sessionId(1).rowNumber(2).placeNumber(4).userId(1).build()
+        );
+        when(ticketService.buyTickets(anyList())).thenReturn(BasketPurchaseResult.sold(savedTickets));
+
+        String result = ticketController.buyTickets(1, List.of("2-3", "2-4"), null, user, redirectAttributes, model);
+
+        assertThat(result).isEqualTo("tickets/success");
+        verify(ticketService).buyTickets(List.of(
+                Ticket.builder().sessionId(1).rowNumber(2).placeNumber(3).userId(1).build(),
+                Ticket.builder().sessionId(1).rowNumber(2).placeNumber(4).userId(1).build()
+        ));
+        verify(model).addAttribute("tickets", savedTickets);
+    }
+
+    @Test
+    void whenSameBasketIsListedInOtherOrderThenIdempotencyScopeIsTheSame() {
+        User user = createTestUser();
+        doReturn(BasketPurchaseResult.failed(PurchaseStatus.ALREADY_TAKEN))
+                .when(idempotencyService).execute(anyString(), any(), any(), any(), any());
+
+        ticketController.buyTickets(1, List.of("2-4", "2-3", "1-7"), "key-1", user, redirectAttributes, model);
+        ticketController.buyTickets(1, List.of("1-7", " 2 - 3", "2-4", "2-4"), "key-1", user, redirectAttributes, model);
+
+        verify(idempotencyService, times(2)).execute(eq("basket:1:1-7,2-3,2-4"), eq(user.getId()), eq("key-1"), any(), any());
+    }
+
+    @Test
+    void whenBuyTicketsWithMalformedSeatThenReturnErrorViewWithoutPurchase() {
+        User user = createTestUser();
+
+        String result = ticketController.buyTickets(1, List.of("2-3", "two-4"), null, user, redirectAttributes, model);
+
+        assertThat(result).isEqualTo("tickets/error");
+        verify(model).addAttribute("message", "Не удалось приобрести билет. Такого места нет в зале.");
+        verify(ticketService, never()).buyTickets(anyList());
+    }
+
+    @Test
+    void whenBuyTicketsAndOneIsTakenThenReturnErrorView() {
+        User user = createTestUser();
+        when(ticketService.buyTickets(anyList())).thenReturn(BasketPurchaseResult.failed(PurchaseStatus.ALREADY_TAKEN));
+
+        String result = ticketController.buyTickets(1, List.of("2-3", "2-4"), null, user, redirectAttributes, model);
+
+        assertThat(result).isEqualTo("tickets/error");
+        verify(model).addAttribute("message", "Не удалось приобрести билет. Место уже занято, выберите другое.");
+    }
+
+    @Test
+    void whenBuyTicketsWithoutUserThenRedirectToLogin() {
+        String result = ticketController.buyTickets(1, List.of("2-3"), null, null, redirectAttributes, model);
+
+        assertThat(result).isEqualTo("redirect:/users/login");
+        verify(ticketService, never()).buyTickets(anyList());
+    }
+
+    @Test
+    void whenHoldFreeSeatThenReturnNoContent() {
+        Ticket seat = createTestTicket();
+        User user = createTestUser();
+        when(seatHoldService.hold(seat)).thenReturn(true);
+
+        ResponseEntity<Void> result = ticketController.holdSeat(seat, user);
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        assertThat(seat.getUserId()).isEqualTo(user.getId());
+    }
+
+    @Test
+    void whenHoldSeatHeldByOtherThenReturnConflict() {
+        Ticket seat = createTestTicket();
+        when(seatHoldService.hold(seat)).thenReturn(false);
+
+        ResponseEntity<Void> result = ticketController.holdSeat(seat, createTestUser());
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+    }
+
+    @Test
+    void whenHoldSeatWithoutUserThenReturnUnauthorized() {
+        ResponseEntity<Void> result = ticketController.holdSeat(createTestTicket(), null);
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        verifyNoInteractions(seatHoldService);
+    }
+
+    @Test
+    void whenReleaseSeatThenDelegateWithSessionUser() {
+        Ticket seat = createTestTicket();
+        User user = createTestUser();
+
+        ResponseEntity<Void> result = ticketController.releaseSeat(seat, user);
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        assertThat(seat.getUserId()).isEqualTo(user.getId());
+        verify(seatHoldService).release(seat);
+    }
+
     private Ticket createTestTicket() {
         Ticket ticket = new Ticket();
         ticket.setSessionId(1);
@@ -7,9 +7,11 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.ui.Model;
 import ru.job4j.cinema.model.User;
+import ru.job4j.cinema.service.AuthenticationService;
 import ru.job4j.cinema.service.UserService;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 import java.util.Optional;
 
@@ -21,6 +23,9 @@ class UserControllerTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private AuthenticationService authenticationService;
+
     @Mock
     private Model model;
 
@@ -30,6 +35,9 @@ class UserControllerTest {
     @Mock
     private HttpServletRequest httpServletRequest;
 
+    @Mock
+    private HttpServletResponse httpServletResponse;
+
     @InjectMocks
     private UserController userController;
 
@@ -74,9 +82,10 @@ class UserControllerTest {
 
     @Test
     void whenGetLoginPageWithoutErrorMessageThenReturnLoginView() {
+        when(httpServletRequest.getSession(false)).thenReturn(httpSession);
         when(httpSession.getAttribute("errormessage")).thenReturn(null);
 
-        String result = userController.getLoginPage(httpSession, model);
+        String result = userController.getLoginPage(httpServletRequest, model);
 
         assertThat(result).isEqualTo("users/login");
         verify(httpSession).getAttribute("errormessage");
@@ -85,9 +94,10 @@ class UserControllerTest {
     @Test
     void whenGetLoginPageWithErrorMessageThenAddToModelAndRemoveFromSession() {
         String errorMessage = "Test error message";
+        when(httpServletRequest.getSession(false)).thenReturn(httpSession);
         when(httpSession.getAttribute("errormessage")).thenReturn(errorMessage);
 
-        String result = userController.getLoginPage(httpSession, model);
+        String result = userController.getLoginPage(httpServletRequest, model);
 
         assertThat(result).isEqualTo("users/login");
         verify(httpSession).getAttribute("errormessage");
@@ -96,21 +106,30 @@ class UserControllerTest {
     }
 
     @Test
-    void whenLoginUserWithValidCredentialsThenRedirectToHome() {
+    void whenGetLoginPageWithoutSessionThenDoNotCreateOne() {
+        when(httpServletRequest.getSession(false)).thenReturn(null);
+
+        String result = userController.getLoginPage(httpServletRequest, model);
+
+        assertThat(result).isEqualTo("users/login");
+        verify(httpServletRequest, never()).getSession();
+        verifyNoInteractions(model);
+    }
+
+    @Test
+    void whenLoginUserWithValidCredentialsThenSignInAndRedirectToHome() {
         User user = createTestUser();
         User authenticatedUser = createTestUser();
         authenticatedUser.setId(1);
 
         when(userService.findByEmailAndPassword(user.getEmail(), user.getPassword()))
                 .thenReturn(Optional.of(authenticatedUser));
-        when(httpServletRequest.getSession()).thenReturn(httpSession);
 
-        String result = userController.loginUser(user, httpServletRequest, model);
+        String result = userController.loginUser(user, httpServletRequest, httpServletResponse, model);
 
         assertThat(result).isEqualTo("redirect:/");
         verify(userService).findByEmailAndPassword(user.getEmail(), user.getPassword());
-        verify(httpServletRequest).getSession();
-        verify(httpSession).setAttribute("user", authenticatedUser);
+        verify(authenticationService).signIn(authenticatedUser, httpServletRequest, httpServletResponse);
     }
 
     @Test
@@ -120,19 +139,20 @@ class UserControllerTest {
         when(userService.findByEmailAndPassword(user.getEmail(), user.getPassword()))
                 .thenReturn(Optional.empty());
 
-        String result = userController.loginUser(user, httpServletRequest, model);
+        String result = userController.loginUser(user, httpServletRequest, httpServletResponse, model);
 
         assertThat(result).isEqualTo("users/login");
+        verifyNoInteractions(authenticationService);
         verify(userService).findByEmailAndPassword(user.getEmail(), user.getPassword());
         verify(model).addAttribute("error", "Почта или пароль введены неверно");
     }
 
     @Test
-    void whenLogoutThenInvalidateSessionAndRedirectToLogin() {
-        String result = userController.logout(httpSession);
+    void whenLogoutThenSignOutAndRedirectToLogin() {
+        String result = userController.logout(httpServletRequest, httpServletResponse);
 
         assertThat(result).isEqualTo("redirect:/users/login");
-        verify(httpSession).invalidate();
+        verify(authenticationService).signOut(httpServletRequest, httpServletResponse);
     }
 
     private User createTestUser() {
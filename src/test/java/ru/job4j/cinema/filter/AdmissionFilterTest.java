@@ -0,0 +1,155 @@
+package ru.job4j.cinema.filter;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ru.job4j.cinema.dto.AdmissionStatus;
+import ru.job4j.cinema.dto.FilmSessionDto;
+import ru.job4j.cinema.dto.ScheduleSnapshot;
+import ru.job4j.cinema.model.User;
+import ru.job4j.cinema.service.AdmissionService;
+import ru.job4j.cinema.service.ScheduleSnapshotService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class AdmissionFilterTest {
+
+    @Mock
+    private AdmissionService admissionService;
+
+    @Mock
+    private ScheduleSnapshotService scheduleSnapshotService;
+
+    private AdmissionFilter admissionFilter;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        admissionFilter = new AdmissionFilter(admissionService, scheduleSnapshotService);
+        FilmSessionDto session = new FilmSessionDto(1, 1, 1, "Film", "Description", "/files/1", "Hall",
+                LocalDateTime.of(2030, 1, 1, 18, 0), LocalDateTime.of(2030, 1, 1, 20, 0), 500);
+        when(scheduleSnapshotService.getSnapshot()).thenReturn(ScheduleSnapshot.of(LocalDateTime.now(), List.of(session)));
+    }
+
+    @Test
+    void whenAdmittedUserOpensBuyPageThenPass() throws Exception {
+        MockHttpServletRequest request = request("GET", "/tickets/buy/1");
+        MockFilterChain chain = new MockFilterChain();
+        when(admissionService.enter(1, 7)).thenReturn(AdmissionStatus.admitted());
+
+        admissionFilter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isSameAs(request);
+    }
+
+    @Test
+    void whenWaitingUserOpensBuyPageThenRedirectToQueue() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        when(admissionService.enter(1, 7)).thenReturn(AdmissionStatus.waiting(3, 1));
+
+        admissionFilter.doFilter(request("GET", "/tickets/buy/1"), response, chain);
+
+        assertThat(response.getRedirectedUrl()).isEqualTo("/sessions/1/queue");
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    void whenWaitingUserPostsPurchaseThenRedirectToQueue() throws Exception {
+        MockHttpServletRequest request = request("POST", "/tickets/buy");
+        request.setParameter("sessionId", "1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        when(admissionService.enter(1, 7)).thenReturn(AdmissionStatus.waiting(3, 1));
+
+        admissionFilter.doFilter(request, response, new MockFilterChain());
+
+        assertThat(response.getRedirectedUrl()).isEqualTo("/sessions/1/queue");
+    }
+
+    @Test
+    void whenWaitingUserHoldsSeatThenTooManyRequests() throws Exception {
+        MockHttpServletRequest request = request("POST", "/tickets/hold");
+        request.setParameter("sessionId", "1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        when(admissionService.enter(1, 7)).thenReturn(AdmissionStatus.waiting(3, 1));
+
+        admissionFilter.doFilter(request, response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("5");
+    }
+
+    @Test
+    void whenBuyPathCarriesSemicolonParametersThenStillGate() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        when(admissionService.enter(1, 7)).thenReturn(AdmissionStatus.waiting(3, 1));
+
+        admissionFilter.doFilter(request("GET", "/tickets/buy/1;jsessionid=ABC123"), response, chain);
+
+        assertThat(response.getRedirectedUrl()).isEqualTo("/sessions/1/queue");
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    void whenPurchasePathCarriesSemicolonParametersThenStillGate() throws Exception {
+        MockHttpServletRequest request = request("POST", "/tickets/buy;x=1");
+        request.setParameter("sessionId", "1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        when(admissionService.enter(1, 7)).thenReturn(AdmissionStatus.waiting(3, 1));
+
+        admissionFilter.doFilter(request, response, chain);
+
+        assertThat(response.getRedirectedUrl()).isEqualTo("/sessions/1/queue");
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    void whenHoldPathCarriesSemicolonParametersThenTooManyRequests() throws Exception {
+        MockHttpServletRequest request = request("POST", "/tickets/hold;jsessionid=ABC123");
+        request.setParameter("sessionId", "1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        when(admissionService.enter(1, 7)).thenReturn(AdmissionStatus.waiting(3, 1));
+
+        admissionFilter.doFilter(request, response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    void whenSessionIsNotScheduledThenPassWithoutQueue() throws Exception {
+        MockHttpServletRequest request = request("GET", "/tickets/buy/999");
+        MockFilterChain chain = new MockFilterChain();
+
+        admissionFilter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isSameAs(request);
+        verifyNoInteractions(admissionService);
+    }
+
+    @Test
+    void whenOtherPageRequestedThenPassWithoutQueue() throws Exception {
+        MockHttpServletRequest request = request("GET", "/tickets/success");
+        MockFilterChain chain = new MockFilterChain();
+
+        admissionFilter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isSameAs(request);
+        verifyNoInteractions(admissionService);
+    }
+
+    private MockHttpServletRequest request(String method, String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setAttribute("user", User.builder().id(7).build());
+        return request;
+    }
+}
@@ -0,0 +1,71 @@
+package ru.job4j.cinema.filter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ru.job4j.cinema.model.User;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuthorizationFilterTest {
+
+    private final AuthorizationFilter authorizationFilter = new AuthorizationFilter();
+
+    @Test
+    void whenPublicPageRequestedAnonymouslyThenPassWithoutSession() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/files/1");
+        MockFilterChain chain = new MockFilterChain();
+
+        authorizationFilter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isSameAs(request);
+        assertThat(request.getSession(false)).isNull();
+    }
+
+    @Test
+    void whenProtectedPageRequestedAnonymouslyThenRedirectWithoutSession() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users/profile");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        authorizationFilter.doFilter(request, response, chain);
+
+        assertThat(response.getRedirectedUrl()).isEqualTo("/users/login");
+        assertThat(chain.getRequest()).isNull();
+        assertThat(request.getSession(false)).isNull();
+    }
+
+    @Test
+    void whenTicketPageRequestedAnonymouslyThenRememberMessageForLoginPage() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/tickets/buy/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        authorizationFilter.doFilter(request, response, new MockFilterChain());
+
+        assertThat(response.getRedirectedUrl()).isEqualTo("/users/login");
+        assertThat(request.getSession(false).getAttribute("errormessage")).isNotNull();
+    }
+
+    @Test
+    void whenProtectedPageRequestedByLoggedInUserThenPass() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/tickets/buy/1");
+        request.setAttribute("user", User.builder().id(1).fullName("Test User").build());
+        MockFilterChain chain = new MockFilterChain();
+
+        authorizationFilter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isSameAs(request);
+    }
+
+    @Test
+    void whenProtectedPageRequestedByGuestThenRedirect() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users/profile");
+        request.setAttribute("user", SessionFilter.guest());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        authorizationFilter.doFilter(request, response, new MockFilterChain());
+
+        assertThat(response.getRedirectedUrl()).isEqualTo("/users/login");
+    }
+}
@@ -0,0 +1,148 @@
+package ru.job4j.cinema.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ru.job4j.cinema.util.RateLimiter;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoginRateLimitFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private LoginRateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(Instant.parse("2025-01-01T00:00:00Z"), ZoneOffset.UTC);
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new LoginRateLimitFilter(new RateLimiter(clock, 1, 3, 100),
+                new RateLimiter(clock, 0.5, 2, 100), meterRegistry);
+    }
+
+    @Test
+    void whenAttemptsWithinLimitsThenPass() throws Exception {
+        MockHttpServletRequest request = login("10.0.0.1", "user@example.com");
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isSameAs(request);
+    }
+
+    @Test
+    void whenAddressExceedsBurstThenRejectWithRetryAfter() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            filter.doFilter(login("10.0.0.1", "user" + i + "@example.com"), new MockHttpServletResponse(),
+                    new MockFilterChain());
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(login("10.0.0.1", "fresh@example.com"), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(chain.getRequest()).isNull();
+        assertThat(meterRegistry.get("auth.rate-limit.rejected").tag("key", "address").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void whenEmailIsTriedRepeatedlyFromOneAddressThenRejectByEmail() throws Exception {
+        filter.doFilter(login("10.0.0.1", "User@Example.com"), new MockHttpServletResponse(), new MockFilterChain());
+        filter.doFilter(login("10.0.0.1", " user@example.com"), new MockHttpServletResponse(), new MockFilterChain());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(login("10.0.0.1", "user@example.com"), response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("2");
+        assertThat(meterRegistry.get("auth.rate-limit.rejected").tag("key", "email").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void whenOthersExhaustVictimEmailThenVictimCanStillLogInFromOwnAddress() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            filter.doFilter(login("10.0.0.66", "victim@example.com"), new MockHttpServletResponse(), new MockFilterChain());
+        }
+        MockHttpServletRequest request = login("10.0.0.1", "victim@example.com");
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isSameAs(request);
+    }
+
+    @Test
+    void whenLoginUriCarriesPathParameterThenAttemptIsStillCounted() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            filter.doFilter(login("10.0.0.1", "user" + i + "@example.com"), new MockHttpServletResponse(),
+                    new MockFilterChain());
+        }
+        MockHttpServletRequest request = post("/users/login;jsessionid=abc", "10.0.0.1", "fresh@example.com");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    void whenRegistrationAttemptsExceedLimitThenReject() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        for (int i = 0; i < 3; i++) {
+            filter.doFilter(post("/users/register", "10.0.0.1", "new@example.com"), new MockHttpServletResponse(),
+                    new MockFilterChain());
+        }
+
+        filter.doFilter(post("/users/register", "10.0.0.1", "other@example.com"), response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    void whenPageIsOnlyViewedThenDoNotCount() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users/login");
+            request.setRemoteAddr("10.0.0.1");
+            MockFilterChain chain = new MockFilterChain();
+
+            filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+            assertThat(chain.getRequest()).isSameAs(request);
+        }
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(login("10.0.0.1", "user@example.com"), new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isNotNull();
+    }
+
+    @Test
+    void whenAttemptIsCountedThenBucketGaugeShowsIt() throws Exception {
+        filter.doFilter(login("10.0.0.1", "user@example.com"), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(meterRegistry.get("auth.rate-limit.buckets").tag("key", "address").gauge().value()).isEqualTo(1);
+    }
+
+    private MockHttpServletRequest login(String address, String email) {
+        return post("/users/login", address, email);
+    }
+
+    private MockHttpServletRequest post(String uri, String address, String email) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.setRemoteAddr(address);
+        request.setParameter("email", email);
+        request.setParameter("password", "secret");
+        return request;
+    }
+}
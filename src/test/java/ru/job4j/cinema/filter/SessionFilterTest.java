@@ -0,0 +1,84 @@
+package ru.job4j.cinema.filter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import ru.job4j.cinema.model.User;
+import ru.job4j.cinema.service.AuthenticationService;
+import ru.job4j.cinema.service.impl.HttpSessionAuthenticationService;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class SessionFilterTest {
+
+    private final SessionFilter sessionFilter = new SessionFilter(new HttpSessionAuthenticationService());
+
+    @Test
+    void whenAnonymousRequestThenUseGuestWithoutCreatingSession() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/films");
+
+        sessionFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(request.getSession(false)).isNull();
+        User guest = (User) request.getAttribute("user");
+        assertThat(guest.getId()).isNull();
+        assertThat(guest.getFullName()).isEqualTo("Гость");
+    }
+
+    @Test
+    void whenGuestIsChangedDuringRequestThenNextRequestGetsCleanGuest() throws Exception {
+        MockHttpServletRequest first = new MockHttpServletRequest("GET", "/films");
+        MockHttpServletRequest second = new MockHttpServletRequest("GET", "/sessions");
+
+        sessionFilter.doFilter(first, new MockHttpServletResponse(), new MockFilterChain());
+        ((User) first.getAttribute("user")).setId(42);
+        sessionFilter.doFilter(second, new MockHttpServletResponse(), new MockFilterChain());
+
+        User guest = (User) second.getAttribute("user");
+        assertThat(guest).isNotSameAs(first.getAttribute("user"));
+        assertThat(guest.getId()).isNull();
+    }
+
+    @Test
+    void whenLoggedInRequestThenExposeSessionUser() throws Exception {
+        User user = User.builder().id(1).fullName("Test User").build();
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute("user", user);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/films");
+        request.setSession(session);
+
+        sessionFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(request.getAttribute("user")).isSameAs(user);
+    }
+
+    @Test
+    void whenAuthenticationServiceResolvesUserThenExposeItWithoutSession() throws Exception {
+        User user = User.builder().id(1).fullName("Test User").build();
+        AuthenticationService authenticationService = mock(AuthenticationService.class);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/films");
+        when(authenticationService.findCurrentUser(request)).thenReturn(Optional.of(user));
+
+        new SessionFilter(authenticationService).doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(request.getAttribute("user")).isSameAs(user);
+        assertThat(request.getSession(false)).isNull();
+    }
+
+    @Test
+    void whenStaticResourceRequestThenSkipUserLookup() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/css/bootstrap.min.css");
+        MockFilterChain chain = new MockFilterChain();
+
+        sessionFilter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(request.getAttribute("user")).isNull();
+        assertThat(request.getSession(false)).isNull();
+        assertThat(chain.getRequest()).isSameAs(request);
+    }
+}
@@ -170,4 +170,27 @@ class Sql2oFilmRepositoryTest {
 
         assertThat(foundFilm).isEmpty();
     }
-}
\ No newline at end of file
+
+    @Test
+    void whenFindAllByIdsThenReturnOnlyRequestedFilms() {
+        setupTestData();
+        insertFilm(createTestFilm("Tom Hardy Drama", "Gritty drama", 2021, 1, 18, 110, 1));
+        insertFilm(createTestFilm("Emma Stone Musical", "Singing and dancing", 2020, 2, 6, 125, 2));
+
+        List<Film> all = sql2oFilmRepository.findAll();
+        Integer requestedId = all.get(1).getId();
+
+        List<Film> films = sql2oFilmRepository.findAllByIds(List.of(requestedId, 999));
+
+        assertThat(films).hasSize(1);
+        assertThat(films.get(0).getId()).isEqualTo(requestedId);
+        assertThat(films.get(0).getName()).isEqualTo("Emma Stone Musical");
+        assertThat(films.get(0).getGenreId()).isEqualTo(2);
+        assertThat(films.get(0).getDurationInMinutes()).isEqualTo(125);
+    }
+
+    @Test
+    void whenFindAllByEmptyIdsThenReturnEmptyList() {
+        assertThat(sql2oFilmRepository.findAllByIds(List.of())).isEmpty();
+    }
+}
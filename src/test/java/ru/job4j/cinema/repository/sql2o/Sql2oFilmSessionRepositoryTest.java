@@ -236,6 +236,32 @@ class Sql2oFilmSessionRepositoryTest {
         assertThat(sessions).isEmpty();
     }
 
+    @Test
+    void whenFindStartingFromThenReturnLaterSessionsOrderedByStartTime() {
+        insertFilmSession(FilmSession.builder()
+                .filmId(1).hallId(1)
+                .startTime(LocalDateTime.of(2024, 12, 28, 20, 0))
+                .endTime(LocalDateTime.of(2024, 12, 28, 22, 0))
+                .price(900)
+                .build());
+        insertFilmSession(FilmSession.builder()
+                .filmId(2).hallId(1)
+                .startTime(LocalDateTime.of(2024, 12, 26, 10, 0))
+                .endTime(LocalDateTime.of(2024, 12, 26, 12, 0))
+                .price(300)
+                .build());
+        insertFilmSession(FilmSession.builder()
+                .filmId(3).hallId(2)
+                .startTime(LocalDateTime.of(2024, 12, 27, 12, 0))
+                .endTime(LocalDateTime.of(2024, 12, 27, 14, 0))
+                .price(500)
+                .build());
+
+        List<FilmSession> sessions = sql2oFilmSessionRepository.findStartingFrom(LocalDateTime.of(2024, 12, 27, 12, 0));
+
+        assertThat(sessions).extracting(FilmSession::getPrice).containsExactly(500, 900);
+    }
+
     private void insertFilmSession(FilmSession session) {
         try (var connection = sql2o.open()) {
             connection.createQuery(
@@ -249,4 +275,34 @@ class Sql2oFilmSessionRepositoryTest {
                     .executeUpdate();
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void whenFindPageThenKeysetWalksWindowInStartTimeAndIdOrder() {
+        LocalDateTime evening = LocalDateTime.of(2024, 12, 27, 20, 0);
+        for (int price : new int[]{100, 200, 300}) {
+            insertFilmSession(FilmSession.builder()
+                    .filmId(1).hallId(1)
+                    .startTime(evening)
+                    .endTime(evening.plusHours(2))
+                    .price(price)
+                    .build());
+        }
+        insertFilmSession(FilmSession.builder()
+                .filmId(1).hallId(1)
+                .startTime(evening.plusDays(1))
+                .endTime(evening.plusDays(1).plusHours(2))
+                .price(400)
+                .build());
+        LocalDateTime from = evening.toLocalDate().atStartOfDay();
+        LocalDateTime to = from.plusDays(1);
+
+        List<FilmSession> first = sql2oFilmSessionRepository.findPage(from, to, null, null, 2);
+        FilmSession last = first.get(1);
+        List<FilmSession> second = sql2oFilmSessionRepository.findPage(from, to, last.getStartTime(), last.getId(), 2);
+        List<FilmSession> unbounded = sql2oFilmSessionRepository.findPage(from, null, last.getStartTime(), last.getId(), 5);
+
+        assertThat(first).extracting(FilmSession::getPrice).containsExactly(100, 200);
+        assertThat(second).extracting(FilmSession::getPrice).containsExactly(300);
+        assertThat(unbounded).extracting(FilmSession::getPrice).containsExactly(300, 400);
+    }
+}
@@ -7,6 +7,7 @@ import org.sql2o.Sql2o;
 import ru.job4j.cinema.configuration.DatasourceConfiguration;
 import ru.job4j.cinema.model.Genre;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.Properties;
 
@@ -96,4 +97,31 @@ class Sql2oGenreRepositoryTest {
         assertThat(foundGenre2).isPresent();
         assertThat(foundGenre2.get().getName()).isEqualTo("Drama");
     }
-}
\ No newline at end of file
+
+    @Test
+    void whenFindAllByIdsThenReturnOnlyRequestedGenres() {
+        Integer genreId1, genreId2;
+        try (var connection = sql2o.open()) {
+            genreId1 = connection.createQuery("INSERT INTO genres (name) VALUES (:name)", true)
+                    .addParameter("name", "Horror")
+                    .executeUpdate()
+                    .getKey(Integer.class);
+            genreId2 = connection.createQuery("INSERT INTO genres (name) VALUES (:name)", true)
+                    .addParameter("name", "Western")
+                    .executeUpdate()
+                    .getKey(Integer.class);
+            connection.createQuery("INSERT INTO genres (name) VALUES (:name)")
+                    .addParameter("name", "Musical")
+                    .executeUpdate();
+        }
+
+        List<Genre> genres = sql2oGenreRepository.findAllByIds(List.of(genreId1, genreId2, 999));
+
+        assertThat(genres).extracting(Genre::getName).containsExactlyInAnyOrder("Horror", "Western");
+    }
+
+    @Test
+    void whenFindAllByEmptyIdsThenReturnEmptyList() {
+        assertThat(sql2oGenreRepository.findAllByIds(List.of())).isEmpty();
+    }
+}
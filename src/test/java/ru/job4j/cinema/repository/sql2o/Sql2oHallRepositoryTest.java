@@ -8,6 +8,7 @@ import ru.job4j.cinema.configuration.DatasourceConfiguration;
 import ru.job4j.cinema.model.Hall;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Optional;
 import java.util.Properties;
 
@@ -135,4 +136,40 @@ class Sql2oHallRepositoryTest {
         assertThat(foundHall2.get().getName()).isEqualTo("Kevin Hart Comedy Hall");
         assertThat(foundHall2.get().getPlaceCount()).isEqualTo(15);
     }
-}
\ No newline at end of file
+
+    @Test
+    void whenFindAllByIdsThenReturnOnlyRequestedHalls() {
+        Integer id1, id2;
+        try (var connection = sql2o.open()) {
+            String sql = "INSERT INTO halls (name, row_count, place_count, description) VALUES (:name, :rowCount, :placeCount, :description)";
+            id1 = connection.createQuery(sql, true)
+                    .addParameter("name", "Red Hall")
+                    .addParameter("rowCount", 8)
+                    .addParameter("placeCount", 12)
+                    .addParameter("description", "Red")
+                    .executeUpdate()
+                    .getKey(Integer.class);
+            id2 = connection.createQuery(sql, true)
+                    .addParameter("name", "Blue Hall")
+                    .addParameter("rowCount", 6)
+                    .addParameter("placeCount", 10)
+                    .addParameter("description", "Blue")
+                    .executeUpdate()
+                    .getKey(Integer.class);
+        }
+
+        List<Hall> halls = sql2oHallRepository.findAllByIds(List.of(id2));
+
+        assertThat(halls).hasSize(1);
+        assertThat(halls.get(0).getId()).isEqualTo(id2);
+        assertThat(halls.get(0).getName()).isEqualTo("Blue Hall");
+        assertThat(halls.get(0).getRowCount()).isEqualTo(6);
+        assertThat(halls.get(0).getPlaceCount()).isEqualTo(10);
+        assertThat(sql2oHallRepository.findAllByIds(List.of(id1, id2))).hasSize(2);
+    }
+
+    @Test
+    void whenFindAllByEmptyIdsThenReturnEmptyList() {
+        assertThat(sql2oHallRepository.findAllByIds(List.of())).isEmpty();
+    }
+}
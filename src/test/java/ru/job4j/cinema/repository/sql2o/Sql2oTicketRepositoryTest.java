@@ -6,10 +6,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.sql2o.Sql2o;
 import ru.job4j.cinema.configuration.DatasourceConfiguration;
+import ru.job4j.cinema.dto.BasketPurchaseResult;
+import ru.job4j.cinema.dto.PurchaseResult;
+import ru.job4j.cinema.dto.PurchaseStatus;
 import ru.job4j.cinema.model.Ticket;
 
 import java.io.IOException;
-import java.util.Optional;
+import java.util.List;
 import java.util.Properties;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -72,7 +75,7 @@ class Sql2oTicketRepositoryTest {
     }
 
     @Test
-    void whenSaveTicketThenReturnTicketWithId() {
+    void whenClaimTicketThenReturnSoldTicketWithId() {
         Ticket ticket = Ticket.builder()
                 .sessionId(1)
                 .rowNumber(5)
@@ -80,18 +83,18 @@ class Sql2oTicketRepositoryTest {
                 .userId(1)
                 .build();
 
-        Optional<Ticket> savedTicket = sql2oTicketRepository.save(ticket);
+        PurchaseResult result = sql2oTicketRepository.claim(ticket);
 
-        assertThat(savedTicket).isPresent();
-        assertThat(savedTicket.get().getId()).isNotNull();
-        assertThat(savedTicket.get().getSessionId()).isEqualTo(1);
-        assertThat(savedTicket.get().getRowNumber()).isEqualTo(5);
-        assertThat(savedTicket.get().getPlaceNumber()).isEqualTo(10);
-        assertThat(savedTicket.get().getUserId()).isEqualTo(1);
+        assertThat(result.status()).isEqualTo(PurchaseStatus.SOLD);
+        assertThat(result.ticket().getId()).isNotNull();
+        assertThat(result.ticket().getSessionId()).isEqualTo(1);
+        assertThat(result.ticket().getRowNumber()).isEqualTo(5);
+        assertThat(result.ticket().getPlaceNumber()).isEqualTo(10);
+        assertThat(result.ticket().getUserId()).isEqualTo(1);
     }
 
     @Test
-    void whenSaveTicketWithDuplicatePlaceThenReturnEmpty() {
+    void whenClaimTicketWithDuplicatePlaceThenReturnAlreadyTaken() {
         Ticket ticket1 = Ticket.builder()
                 .sessionId(2)
                 .rowNumber(3)
@@ -106,37 +109,33 @@ class Sql2oTicketRepositoryTest {
                 .userId(3)
                 .build();
 
-        sql2oTicketRepository.save(ticket1);
-        Optional<Ticket> result = sql2oTicketRepository.save(ticket2);
+        sql2oTicketRepository.claim(ticket1);
+        PurchaseResult result = sql2oTicketRepository.claim(ticket2);
 
-        assertThat(result).isEmpty();
+        assertThat(result.status()).isEqualTo(PurchaseStatus.ALREADY_TAKEN);
+        assertThat(result.ticket()).isNull();
+        assertThat(sql2oTicketRepository.findBySessionId(2))
+                .extracting(Ticket::getUserId)
+                .containsExactly(2);
     }
 
     @Test
-    void whenIsPlaceAvailableForExistingTicketThenReturnFalse() {
+    void whenClaimTicketForNonExistingSessionThenReturnInvalidSeat() {
         Ticket ticket = Ticket.builder()
-                .sessionId(3)
-                .rowNumber(7)
-                .placeNumber(15)
-                .userId(4)
+                .sessionId(999)
+                .rowNumber(1)
+                .placeNumber(1)
+                .userId(1)
                 .build();
 
-        sql2oTicketRepository.save(ticket);
-
-        boolean isAvailable = sql2oTicketRepository.isPlaceAvailable(3, 7, 15);
-
-        assertThat(isAvailable).isTrue();
-    }
-
-    @Test
-    void whenIsPlaceAvailableForNonExistingTicketThenReturnFalse() {
-        boolean isAvailable = sql2oTicketRepository.isPlaceAvailable(999, 1, 1);
+        PurchaseResult result = sql2oTicketRepository.claim(ticket);
 
-        assertThat(isAvailable).isFalse();
+        assertThat(result.status()).isEqualTo(PurchaseStatus.INVALID_SEAT);
+        assertThat(result.ticket()).isNull();
     }
 
     @Test
-    void whenSaveMultipleTicketsForDifferentPlacesThenAllAreSaved() {
+    void whenClaimMultipleTicketsForDifferentPlacesThenAllAreSold() {
         Ticket ticket1 = Ticket.builder()
                 .sessionId(4)
                 .rowNumber(2)
@@ -158,32 +157,91 @@ class Sql2oTicketRepositoryTest {
                 .userId(7)
                 .build();
 
-        Optional<Ticket> savedTicket1 = sql2oTicketRepository.save(ticket1);
-        Optional<Ticket> savedTicket2 = sql2oTicketRepository.save(ticket2);
-        Optional<Ticket> savedTicket3 = sql2oTicketRepository.save(ticket3);
-
-        assertThat(savedTicket1).isPresent();
-        assertThat(savedTicket2).isPresent();
-        assertThat(savedTicket3).isPresent();
-
-        assertThat(sql2oTicketRepository.isPlaceAvailable(4, 2, 5)).isTrue();
-        assertThat(sql2oTicketRepository.isPlaceAvailable(4, 2, 6)).isTrue();
-        assertThat(sql2oTicketRepository.isPlaceAvailable(4, 3, 5)).isTrue();
-        assertThat(sql2oTicketRepository.isPlaceAvailable(4, 1, 1)).isFalse();
+        assertThat(sql2oTicketRepository.claim(ticket1).isSold()).isTrue();
+        assertThat(sql2oTicketRepository.claim(ticket2).isSold()).isTrue();
+        assertThat(sql2oTicketRepository.claim(ticket3).isSold()).isTrue();
+        assertThat(sql2oTicketRepository.findBySessionId(4)).hasSize(3);
     }
 
     @Test
-    void whenCheckDifferentSessionsSameSeatingThenReturnCorrectAvailability() {
-        Ticket ticket = Ticket.builder()
+    void whenClaimSameSeatInDifferentSessionsThenBothAreSold() {
+        Ticket ticket1 = Ticket.builder()
                 .sessionId(5)
                 .rowNumber(4)
                 .placeNumber(12)
                 .userId(8)
                 .build();
 
-        sql2oTicketRepository.save(ticket);
+        Ticket ticket2 = Ticket.builder()
+                .sessionId(6)
+                .rowNumber(4)
+                .placeNumber(12)
+                .userId(8)
+                .build();
+
+        assertThat(sql2oTicketRepository.claim(ticket1).isSold()).isTrue();
+        assertThat(sql2oTicketRepository.claim(ticket2).isSold()).isTrue();
+    }
+
+    @Test
+    void whenFindBySessionIdThenReturnOnlyTicketsOfThatSession() {
+        sql2oTicketRepository.claim(Ticket.builder().sessionId(7).rowNumber(1).placeNumber(1).userId(1).build());
+        sql2oTicketRepository.claim(Ticket.builder().sessionId(7).rowNumber(2).placeNumber(3).userId(2).build());
+        sql2oTicketRepository.claim(Ticket.builder().sessionId(8).rowNumber(1).placeNumber(1).userId(3).build());
+
+        List<Ticket> tickets = sql2oTicketRepository.findBySessionId(7);
+
+        assertThat(tickets).hasSize(2);
+        assertThat(tickets).extracting(Ticket::getSessionId).containsOnly(7);
+        assertThat(tickets).extracting(Ticket::getRowNumber).containsExactlyInAnyOrder(1, 2);
+        assertThat(tickets).extracting(Ticket::getPlaceNumber).containsExactlyInAnyOrder(1, 3);
+    }
+
+    @Test
+    void whenClaimAllFreeSeatsThenAllAreSoldInOneTransaction() {
+        List<Ticket> tickets = List.of(
+                Ticket.builder().sessionId(9).rowNumber(1).placeNumber(1).userId(1).build(),
+                Ticket.builder().sessionId(9).rowNumber(1).placeNumber(2).userId(1).build(),
+                Ticket.builder().sessionId(9).rowNumber(1).placeNumber(3).userId(1).build()
+        );
+
+        BasketPurchaseResult result = sql2oTicketRepository.claimAll(tickets);
+
+        assertThat(result.status()).isEqualTo(PurchaseStatus.SOLD);
+        assertThat(result.tickets()).hasSize(3);
+        assertThat(result.tickets()).extracting(Ticket::getId).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(result.tickets()).extracting(Ticket::getPlaceNumber).containsExactly(1, 2, 3);
+        assertThat(sql2oTicketRepository.findBySessionId(9)).hasSize(3);
+    }
+
+    @Test
+    void whenClaimAllWithOneTakenSeatThenNothingIsSold() {
+        sql2oTicketRepository.claim(Ticket.builder().sessionId(9).rowNumber(2).placeNumber(2).userId(2).build());
+        List<Ticket> tickets = List.of(
+                Ticket.builder().sessionId(9).rowNumber(2).placeNumber(1).userId(1).build(),
+                Ticket.builder().sessionId(9).rowNumber(2).placeNumber(2).userId(1).build(),
+                Ticket.builder().sessionId(9).rowNumber(2).placeNumber(3).userId(1).build()
+        );
+
+        BasketPurchaseResult result = sql2oTicketRepository.claimAll(tickets);
+
+        assertThat(result.status()).isEqualTo(PurchaseStatus.ALREADY_TAKEN);
+        assertThat(result.tickets()).isEmpty();
+        assertThat(sql2oTicketRepository.findBySessionId(9))
+                .extracting(Ticket::getUserId)
+                .containsExactly(2);
+    }
+
+    @Test
+    void whenClaimAllWithNonExistingUserThenNothingIsSold() {
+        List<Ticket> tickets = List.of(
+                Ticket.builder().sessionId(10).rowNumber(1).placeNumber(1).userId(1).build(),
+                Ticket.builder().sessionId(10).rowNumber(1).placeNumber(2).userId(999).build()
+        );
+
+        BasketPurchaseResult result = sql2oTicketRepository.claimAll(tickets);
 
-        assertThat(sql2oTicketRepository.isPlaceAvailable(5, 4, 12)).isTrue();
-        assertThat(sql2oTicketRepository.isPlaceAvailable(6, 4, 12)).isFalse();
+        assertThat(result.status()).isEqualTo(PurchaseStatus.INVALID_SEAT);
+        assertThat(sql2oTicketRepository.findBySessionId(10)).isEmpty();
     }
-}
\ No newline at end of file
+}
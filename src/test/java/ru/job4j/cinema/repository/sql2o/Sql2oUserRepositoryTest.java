@@ -4,14 +4,21 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.sql2o.Sql2o;
+import org.sql2o.Sql2oException;
 import ru.job4j.cinema.configuration.DatasourceConfiguration;
 import ru.job4j.cinema.model.User;
+import ru.job4j.cinema.util.DatabaseBusyException;
 
+import javax.sql.DataSource;
 import java.io.IOException;
+import java.sql.SQLException;
 import java.util.Optional;
 import java.util.Properties;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 class Sql2oUserRepositoryTest {
 
@@ -85,6 +92,22 @@ class Sql2oUserRepositoryTest {
         assertThat(result).isEmpty();
     }
 
+    @Test
+    void whenSaveAndPoolIsBusyThenRethrowInsteadOfReturningEmpty() throws SQLException {
+        DataSource busy = mock(DataSource.class);
+        when(busy.getConnection()).thenThrow(new DatabaseBusyException("full"));
+        var repository = new Sql2oUserRepository(new Sql2o(busy));
+        User user = User.builder()
+                .fullName("John Doe")
+                .email("john.doe@example.com")
+                .password("password123")
+                .build();
+
+        assertThatThrownBy(() -> repository.save(user))
+                .isInstanceOf(Sql2oException.class)
+                .hasCauseInstanceOf(DatabaseBusyException.class);
+    }
+
     @Test
     void whenFindByExistingEmailThenReturnUser() {
         User user = User.builder()
@@ -183,4 +206,31 @@ class Sql2oUserRepositoryTest {
         assertThat(sql2oUserRepository.existsByEmail("john.doe@example.com")).isTrue();
         assertThat(sql2oUserRepository.existsByEmail("jane.smith@example.com")).isTrue();
     }
-}
\ No newline at end of file
+
+    @Test
+    void whenUpdatePasswordThenFindReturnsNewPassword() {
+        User saved = sql2oUserRepository.save(User.builder()
+                .fullName("John Doe")
+                .email("john.doe@example.com")
+                .password("password123")
+                .build()).orElseThrow();
+
+        boolean updated = sql2oUserRepository.updatePassword(saved.getId(), "$2a$10$hash");
+
+        assertThat(updated).isTrue();
+        assertThat(sql2oUserRepository.findById(saved.getId()).orElseThrow().getPassword()).isEqualTo("$2a$10$hash");
+    }
+
+    @Test
+    void whenUpdatePasswordOfUnknownUserThenReturnFalse() {
+        assertThat(sql2oUserRepository.updatePassword(-1, "$2a$10$hash")).isFalse();
+    }
+
+    @Test
+    void whenFindAllEmailsThenReturnEveryRegisteredEmail() {
+        sql2oUserRepository.save(User.builder().fullName("John").email("john@example.com").password("p").build());
+        sql2oUserRepository.save(User.builder().fullName("Jane").email("jane@example.com").password("p").build());
+
+        assertThat(sql2oUserRepository.findAllEmails()).containsExactlyInAnyOrder("john@example.com", "jane@example.com");
+    }
+}
@@ -0,0 +1,140 @@
+package ru.job4j.cinema.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.job4j.cinema.dto.AdmissionState;
+import ru.job4j.cinema.dto.AdmissionStatus;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdmissionServiceImplTest {
+
+    private MutableClock clock;
+    private AdmissionServiceImpl admissionService;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        admissionService = new AdmissionServiceImpl(clock, 2, 2, Duration.ofMinutes(10), Duration.ofSeconds(30), 3);
+    }
+
+    @Test
+    void whenSessionIsQuietThenUserIsAdmittedRightAway() {
+        assertThat(admissionService.enter(1, 1).isAdmitted()).isTrue();
+        assertThat(admissionService.enter(1, 1).isAdmitted()).isTrue();
+        assertThat(admissionService.getStatus(1, 1).isAdmitted()).isTrue();
+    }
+
+    @Test
+    void whenBurstIsUsedUpThenUsersQueueInArrivalOrder() {
+        admissionService.enter(1, 1);
+        admissionService.enter(1, 2);
+
+        assertThat(admissionService.enter(1, 3)).isEqualTo(AdmissionStatus.waiting(1, 1));
+        assertThat(admissionService.enter(1, 4)).isEqualTo(AdmissionStatus.waiting(2, 1));
+        assertThat(admissionService.getStatus(1, 4)).isEqualTo(AdmissionStatus.waiting(2, 1));
+    }
+
+    @Test
+    void whenTokensAccrueThenTickAdmitsHeadOfQueue() {
+        admissionService.enter(1, 1);
+        admissionService.enter(1, 2);
+        admissionService.enter(1, 3);
+        admissionService.enter(1, 4);
+
+        clock.advance(Duration.ofMillis(500));
+        admissionService.tick();
+
+        assertThat(admissionService.getStatus(1, 3).isAdmitted()).isTrue();
+        assertThat(admissionService.getStatus(1, 4)).isEqualTo(AdmissionStatus.waiting(1, 1));
+    }
+
+    @Test
+    void whenTokensAreFreeButOthersWaitThenNewcomerStillQueues() {
+        admissionService.enter(1, 1);
+        admissionService.enter(1, 2);
+        admissionService.enter(1, 3);
+        clock.advance(Duration.ofSeconds(1));
+
+        assertThat(admissionService.enter(1, 4).state()).isEqualTo(AdmissionState.WAITING);
+    }
+
+    @Test
+    void whenQueueIsFullThenRejectNewcomers() {
+        admissionService.enter(1, 1);
+        admissionService.enter(1, 2);
+        admissionService.enter(1, 3);
+        admissionService.enter(1, 4);
+        admissionService.enter(1, 5);
+
+        assertThat(admissionService.enter(1, 6).state()).isEqualTo(AdmissionState.FULL);
+        assertThat(admissionService.getStatus(1, 6).state()).isEqualTo(AdmissionState.NOT_QUEUED);
+    }
+
+    @Test
+    void whenWaitingUserStopsPollingThenTheyAreSkipped() {
+        admissionService.enter(1, 1);
+        admissionService.enter(1, 2);
+        admissionService.enter(1, 3);
+        admissionService.enter(1, 4);
+
+        clock.advance(Duration.ofSeconds(20));
+        admissionService.getStatus(1, 4);
+        clock.advance(Duration.ofSeconds(20));
+        admissionService.tick();
+
+        assertThat(admissionService.getStatus(1, 3).state()).isEqualTo(AdmissionState.NOT_QUEUED);
+        assertThat(admissionService.getStatus(1, 4).isAdmitted()).isTrue();
+    }
+
+    @Test
+    void whenSessionsSpikeIndependentlyThenQueuesDoNotMix() {
+        admissionService.enter(1, 1);
+        admissionService.enter(1, 2);
+        admissionService.enter(1, 3);
+
+        assertThat(admissionService.enter(2, 3).isAdmitted()).isTrue();
+        assertThat(admissionService.getStatus(1, 3).state()).isEqualTo(AdmissionState.WAITING);
+    }
+
+    @Test
+    void whenAdmissionExpiresThenQueueIsDropped() {
+        admissionService.enter(1, 1);
+
+        clock.advance(Duration.ofMinutes(11));
+        admissionService.tick();
+
+        assertThat(admissionService.getStatus(1, 1).state()).isEqualTo(AdmissionState.NOT_QUEUED);
+        assertThat(admissionService.getQueueCount()).isZero();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
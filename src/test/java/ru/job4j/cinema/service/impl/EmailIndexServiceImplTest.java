@@ -0,0 +1,117 @@
+package ru.job4j.cinema.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.support.ExecutorServiceAdapter;
+import org.sql2o.Sql2oException;
+import ru.job4j.cinema.repository.UserRepository;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class EmailIndexServiceImplTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private EmailIndexServiceImpl emailIndexService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        emailIndexService = new EmailIndexServiceImpl(userRepository, meterRegistry, 1000, 0.01,
+                new ExecutorServiceAdapter(new SyncTaskExecutor()));
+    }
+
+    @Test
+    void whenNotBuiltYetThenEveryEmailMightExist() {
+        assertThat(emailIndexService.mightExist("anyone@example.com")).isTrue();
+        assertThat(emailIndexService.getMemoryBytes()).isZero();
+    }
+
+    @Test
+    void whenRebuiltThenOnlyRegisteredEmailsMightExist() {
+        when(userRepository.findAllEmails()).thenReturn(List.of("a@example.com", "b@example.com"));
+
+        emailIndexService.rebuild();
+
+        assertThat(emailIndexService.mightExist("a@example.com")).isTrue();
+        assertThat(emailIndexService.mightExist("new@example.com")).isFalse();
+        assertThat(meterRegistry.counter("user.email-index.skipped").count()).isEqualTo(1);
+        assertThat(meterRegistry.get("user.email-index.bytes").gauge().value()).isPositive();
+    }
+
+    @Test
+    void whenScheduledThenRebuildRunsOnIndexExecutor() {
+        ExecutorService rebuilder = mock(ExecutorService.class);
+        EmailIndexServiceImpl service = new EmailIndexServiceImpl(userRepository, meterRegistry, 1000, 0.01, rebuilder);
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+
+        service.scheduleRebuild();
+
+        verify(rebuilder).execute(task.capture());
+        verifyNoInteractions(userRepository);
+        when(userRepository.findAllEmails()).thenReturn(List.of("a@example.com"));
+        task.getValue().run();
+        assertThat(service.mightExist("new@example.com")).isFalse();
+    }
+
+    @Test
+    void whenEmailAddedAfterRebuildThenItMightExist() {
+        when(userRepository.findAllEmails()).thenReturn(List.of());
+        emailIndexService.rebuild();
+
+        emailIndexService.add("new@example.com");
+
+        assertThat(emailIndexService.mightExist("new@example.com")).isTrue();
+    }
+
+    @Test
+    void whenEmailSavedWhileRebuildReadsTableThenNewFilterContainsIt() {
+        when(userRepository.findAllEmails()).thenAnswer(invocation -> {
+            emailIndexService.add("during@example.com");
+            return List.of("a@example.com");
+        });
+
+        emailIndexService.rebuild();
+
+        assertThat(emailIndexService.mightExist("during@example.com")).isTrue();
+        assertThat(emailIndexService.mightExist("a@example.com")).isTrue();
+    }
+
+    @Test
+    void whenManyUsersThenFilterIsSizedForTwiceTheirCount() {
+        when(userRepository.findAllEmails()).thenReturn(List.of("a@example.com"));
+        emailIndexService.rebuild();
+        long small = emailIndexService.getMemoryBytes();
+        when(userRepository.findAllEmails()).thenReturn(
+                IntStream.range(0, 5000).mapToObj(i -> "user" + i + "@example.com").toList());
+
+        emailIndexService.rebuild();
+
+        assertThat(emailIndexService.getMemoryBytes()).isGreaterThan(small * 9);
+    }
+
+    @Test
+    void whenRebuildFailsThenKeepPreviousFilter() {
+        when(userRepository.findAllEmails()).thenReturn(List.of("a@example.com"));
+        emailIndexService.rebuild();
+        when(userRepository.findAllEmails()).thenThrow(new Sql2oException("connection refused"));
+
+        emailIndexService.rebuild();
+
+        assertThat(emailIndexService.mightExist("a@example.com")).isTrue();
+        assertThat(emailIndexService.mightExist("new@example.com")).isFalse();
+    }
+}
@@ -2,17 +2,22 @@ package ru.job4j.cinema.service.impl;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
-import org.mockito.MockedStatic;
 import org.mockito.MockitoAnnotations;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.MediaType;
+import org.springframework.util.DigestUtils;
+import ru.job4j.cinema.dto.FileContent;
 import ru.job4j.cinema.model.File;
 import ru.job4j.cinema.repository.FileRepository;
+import ru.job4j.cinema.util.LruCache;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -20,15 +25,23 @@ import static org.mockito.Mockito.*;
 
 class FileServiceImplTest {
 
+    private static final int MAX_CACHED_FILE_BYTES = 512;
+
     @Mock
     private FileRepository fileRepository;
 
-    @InjectMocks
     private FileServiceImpl fileService;
 
+    private LruCache<Integer, byte[]> posterCache;
+
+    @TempDir
+    private Path tempDir;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        posterCache = new LruCache<>(1024, bytes -> bytes.length);
+        fileService = new FileServiceImpl(fileRepository, new LruCache<>(16), posterCache, MAX_CACHED_FILE_BYTES);
     }
 
     @Test
@@ -62,90 +75,128 @@ class FileServiceImplTest {
     }
 
     @Test
-    void whenGetFileContentWithExistingFileAndValidPathThenReturnContent() {
+    void whenGetFileContentWithExistingFileAndValidPathThenReturnStreamableResource() throws IOException {
+        Path poster = tempDir.resolve("test.jpg");
+        byte[] expectedContent = "test file content".getBytes();
+        Files.write(poster, expectedContent);
         File file = File.builder()
                 .id(1)
                 .name("test.jpg")
-                .path("/test/path/test.jpg")
+                .path(poster.toString())
                 .build();
 
-        byte[] expectedContent = "test file content".getBytes();
-
         when(fileRepository.findById(1)).thenReturn(Optional.of(file));
 
-        try (MockedStatic<Paths> pathsMock = mockStatic(Paths.class);
-             MockedStatic<Files> filesMock = mockStatic(Files.class)) {
+        Optional<FileContent> result = fileService.getFileContent(1);
 
-            Path mockPath = mock(Path.class);
-            pathsMock.when(() -> Paths.get("/test/path/test.jpg")).thenReturn(mockPath);
-            filesMock.when(() -> Files.readAllBytes(mockPath)).thenReturn(expectedContent);
+        assertThat(result).isPresent();
+        assertThat(result.get().contentLength()).isEqualTo(expectedContent.length);
+        assertThat(result.get().mediaType()).isEqualTo(MediaType.IMAGE_JPEG);
+        assertThat(result.get().etag()).isEqualTo(DigestUtils.md5DigestAsHex(expectedContent));
+        assertThat(result.get().lastModified()).isEqualTo(Files.getLastModifiedTime(poster).toMillis());
+        try (InputStream inputStream = result.get().resource().getInputStream()) {
+            assertThat(inputStream.readAllBytes()).isEqualTo(expectedContent);
+        }
+        verify(fileRepository).findById(1);
+    }
 
-            Optional<byte[]> result = fileService.getFileContent(1);
+    @Test
+    void whenGetFileContentTwiceThenFileIsHashedOnce() throws IOException {
+        Path poster = tempDir.resolve("poster.png");
+        Files.write(poster, new byte[]{1, 2, 3});
+        when(fileRepository.findById(1)).thenReturn(Optional.of(new File(1, "poster.png", poster.toString())));
 
-            assertThat(result).isPresent();
-            assertThat(result.get()).isEqualTo(expectedContent);
-        }
+        Optional<FileContent> first = fileService.getFileContent(1);
+        Optional<FileContent> second = fileService.getFileContent(1);
 
-        verify(fileRepository).findById(1);
+        assertThat(second.get().etag()).isEqualTo(first.get().etag());
+        assertThat(second.get().mediaType()).isEqualTo(MediaType.IMAGE_PNG);
+        verify(fileRepository, times(1)).findById(1);
+    }
+
+    @Test
+    void whenPosterIsCachedThenServeItWithoutDatabaseOrFilesystem() throws IOException {
+        Path poster = tempDir.resolve("poster.jpg");
+        Files.write(poster, new byte[]{1, 2, 3});
+        when(fileRepository.findById(1)).thenReturn(Optional.of(new File(1, "poster.jpg", poster.toString())));
+
+        fileService.getFileContent(1);
+        Files.delete(poster);
+        FileContent cached = fileService.getFileContent(1).orElseThrow();
+
+        assertThat(cached.resource()).isInstanceOf(ByteArrayResource.class);
+        assertThat(cached.resource().getContentAsByteArray()).containsExactly(1, 2, 3);
+        assertThat(posterCache.weight()).isEqualTo(3);
+        verify(fileRepository, times(1)).findById(1);
+    }
+
+    @Test
+    void whenPosterIsLargerThanCacheLimitThenStreamItFromDisk() throws IOException {
+        Path poster = tempDir.resolve("large.jpg");
+        Files.write(poster, new byte[MAX_CACHED_FILE_BYTES + 1]);
+        when(fileRepository.findById(1)).thenReturn(Optional.of(new File(1, "large.jpg", poster.toString())));
+
+        FileContent fileContent = fileService.getFileContent(1).orElseThrow();
+
+        assertThat(fileContent.resource()).isInstanceOf(FileSystemResource.class);
+        assertThat(fileContent.contentLength()).isEqualTo(MAX_CACHED_FILE_BYTES + 1);
+        assertThat(posterCache.size()).isZero();
+    }
+
+    @Test
+    void whenInvalidateThenFileIsReloadedAndRehashed() throws IOException {
+        Path poster = tempDir.resolve("poster.jpg");
+        Files.write(poster, new byte[]{1, 2, 3});
+        when(fileRepository.findById(1)).thenReturn(Optional.of(new File(1, "poster.jpg", poster.toString())));
+
+        String before = fileService.getFileContent(1).orElseThrow().etag();
+        Files.write(poster, new byte[]{4, 5, 6, 7});
+        fileService.invalidate(1);
+        FileContent after = fileService.getFileContent(1).orElseThrow();
+
+        assertThat(after.etag()).isNotEqualTo(before);
+        assertThat(after.contentLength()).isEqualTo(4);
+        verify(fileRepository, times(2)).findById(1);
     }
 
     @Test
     void whenGetFileContentWithNonExistingFileThenReturnEmpty() {
         when(fileRepository.findById(999)).thenReturn(Optional.empty());
 
-        Optional<byte[]> result = fileService.getFileContent(999);
+        Optional<FileContent> result = fileService.getFileContent(999);
 
         assertThat(result).isEmpty();
         verify(fileRepository).findById(999);
     }
 
     @Test
-    void whenGetFileContentWithIOExceptionThenReturnEmpty() {
+    void whenGetFileContentWithMissingFileOnDiskThenReturnEmpty() {
         File file = File.builder()
                 .id(1)
                 .name("test.jpg")
-                .path("/invalid/path/test.jpg")
+                .path(tempDir.resolve("missing.jpg").toString())
                 .build();
 
         when(fileRepository.findById(1)).thenReturn(Optional.of(file));
 
-        try (MockedStatic<Paths> pathsMock = mockStatic(Paths.class);
-             MockedStatic<Files> filesMock = mockStatic(Files.class)) {
-
-            Path mockPath = mock(Path.class);
-            pathsMock.when(() -> Paths.get("/invalid/path/test.jpg")).thenReturn(mockPath);
-            filesMock.when(() -> Files.readAllBytes(mockPath)).thenThrow(new IOException("File not found"));
-
-            Optional<byte[]> result = fileService.getFileContent(1);
-
-            assertThat(result).isEmpty();
-        }
+        Optional<FileContent> result = fileService.getFileContent(1);
 
+        assertThat(result).isEmpty();
         verify(fileRepository).findById(1);
     }
 
     @Test
-    void whenGetFileContentCallsFindByIdInternally() {
+    void whenGetFileContentWithDirectoryPathThenReturnEmpty() {
         File file = File.builder()
                 .id(1)
-                .name("test.jpg")
-                .path("/test/path/test.jpg")
+                .name("posters")
+                .path(tempDir.toString())
                 .build();
 
-        byte[] expectedContent = "test content".getBytes();
-
         when(fileRepository.findById(1)).thenReturn(Optional.of(file));
 
-        try (MockedStatic<Paths> pathsMock = mockStatic(Paths.class);
-             MockedStatic<Files> filesMock = mockStatic(Files.class)) {
+        Optional<FileContent> result = fileService.getFileContent(1);
 
-            Path mockPath = mock(Path.class);
-            pathsMock.when(() -> Paths.get("/test/path/test.jpg")).thenReturn(mockPath);
-            filesMock.when(() -> Files.readAllBytes(mockPath)).thenReturn(expectedContent);
-
-            fileService.getFileContent(1);
-
-            verify(fileRepository).findById(1);
-        }
+        assertThat(result).isEmpty();
     }
-}
\ No newline at end of file
+}
@@ -2,7 +2,6 @@ package ru.job4j.cinema.service.impl;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import ru.job4j.cinema.dto.FilmDto;
@@ -10,9 +9,11 @@ import ru.job4j.cinema.model.Film;
 import ru.job4j.cinema.model.Genre;
 import ru.job4j.cinema.repository.FilmRepository;
 import ru.job4j.cinema.service.GenreService;
+import ru.job4j.cinema.util.LruCache;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
@@ -25,12 +26,12 @@ class FilmServiceImplTest {
     @Mock
     private GenreService genreService;
 
-    @InjectMocks
     private FilmServiceImpl filmService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        filmService = new FilmServiceImpl(filmRepository, genreService, new LruCache<>(16));
     }
 
     @Test
@@ -39,7 +40,7 @@ class FilmServiceImplTest {
         Genre genre = createTestGenre();
 
         when(filmRepository.findAll()).thenReturn(List.of(film));
-        when(genreService.findById(1)).thenReturn(Optional.of(genre));
+        when(genreService.findAllByIds(Set.of(1))).thenReturn(List.of(genre));
 
         List<FilmDto> result = filmService.findAll();
 
@@ -48,7 +49,8 @@ class FilmServiceImplTest {
         assertFilmDto(dto, "Action", "/files/1");
 
         verify(filmRepository).findAll();
-        verify(genreService).findById(1);
+        verify(genreService).findAllByIds(Set.of(1));
+        verify(genreService, never()).findById(any());
     }
 
     @Test
@@ -79,8 +81,7 @@ class FilmServiceImplTest {
         Genre genre2 = Genre.builder().id(2).name("Comedy").build();
 
         when(filmRepository.findAll()).thenReturn(List.of(film1, film2));
-        when(genreService.findById(1)).thenReturn(Optional.of(genre1));
-        when(genreService.findById(2)).thenReturn(Optional.of(genre2));
+        when(genreService.findAllByIds(Set.of(1, 2))).thenReturn(List.of(genre1, genre2));
 
         List<FilmDto> result = filmService.findAll();
 
@@ -160,6 +161,59 @@ class FilmServiceImplTest {
         assertThat(result.get().filePath()).isEqualTo("/files/42");
     }
 
+    @Test
+    void whenFindAllByIdsThenLoadFilmsAndGenresInBulk() {
+        Film film1 = createTestFilm();
+        Film film2 = createTestFilm();
+        film2.setId(2);
+        film2.setGenreId(3);
+
+        when(filmRepository.findAllByIds(Set.of(1, 2))).thenReturn(List.of(film1, film2));
+        when(genreService.findAllByIds(Set.of(1, 3))).thenReturn(List.of(createTestGenre()));
+
+        List<FilmDto> result = filmService.findAllByIds(Set.of(1, 2));
+
+        assertThat(result).extracting(FilmDto::id).containsExactly(1, 2);
+        assertThat(result).extracting(FilmDto::genre).containsExactly("Action", "Неизвестно");
+        verify(genreService, never()).findById(any());
+    }
+
+    @Test
+    void whenFindByIdTwiceThenRepositoryIsQueriedOnce() {
+        when(filmRepository.findById(1)).thenReturn(Optional.of(createTestFilm()));
+        when(genreService.findById(1)).thenReturn(Optional.of(createTestGenre()));
+
+        filmService.findById(1);
+        Optional<FilmDto> result = filmService.findById(1);
+
+        assertThat(result).isPresent();
+        verify(filmRepository, times(1)).findById(1);
+    }
+
+    @Test
+    void whenFindAllThenFilmsAreCachedForLaterLookups() {
+        when(filmRepository.findAll()).thenReturn(List.of(createTestFilm()));
+        when(genreService.findAllByIds(Set.of(1))).thenReturn(List.of(createTestGenre()));
+        when(genreService.findById(1)).thenReturn(Optional.of(createTestGenre()));
+
+        filmService.findAll();
+        Optional<FilmDto> result = filmService.findById(1);
+
+        assertThat(result).isPresent();
+        verify(filmRepository, never()).findById(any());
+    }
+
+    @Test
+    void whenInvalidateThenNextLookupGoesToRepository() {
+        when(filmRepository.findById(1)).thenReturn(Optional.of(createTestFilm()));
+
+        filmService.findById(1);
+        filmService.invalidate(1);
+        filmService.findById(1);
+
+        verify(filmRepository, times(2)).findById(1);
+    }
+
     private Film createTestFilm() {
         return Film.builder()
                 .id(1)
@@ -190,4 +244,4 @@ class FilmServiceImplTest {
         assertThat(dto.genre()).isEqualTo(expectedGenre);
         assertThat(dto.filePath()).isEqualTo(expectedFilePath);
     }
-}
\ No newline at end of file
+}
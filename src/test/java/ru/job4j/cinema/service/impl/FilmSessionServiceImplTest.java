@@ -8,6 +8,8 @@ import org.mockito.MockitoAnnotations;
 import ru.job4j.cinema.dto.FilmDto;
 import ru.job4j.cinema.dto.FilmSessionDetailDto;
 import ru.job4j.cinema.dto.FilmSessionDto;
+import ru.job4j.cinema.dto.SessionCursor;
+import ru.job4j.cinema.dto.SessionPage;
 import ru.job4j.cinema.model.FilmSession;
 import ru.job4j.cinema.model.Hall;
 import ru.job4j.cinema.repository.FilmSessionRepository;
@@ -17,6 +19,7 @@ import ru.job4j.cinema.service.HallService;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
@@ -71,8 +74,8 @@ class FilmSessionServiceImplTest {
                 .build();
 
         when(filmSessionRepository.findAll()).thenReturn(List.of(session));
-        when(filmService.findById(1)).thenReturn(Optional.of(filmDto));
-        when(hallService.findById(1)).thenReturn(Optional.of(hall));
+        when(filmService.findAllByIds(Set.of(1))).thenReturn(List.of(filmDto));
+        when(hallService.findAllByIds(Set.of(1))).thenReturn(List.of(hall));
 
         List<FilmSessionDto> result = filmSessionService.findAll();
 
@@ -84,8 +87,10 @@ class FilmSessionServiceImplTest {
         assertThat(dto.price()).isEqualTo(500);
 
         verify(filmSessionRepository).findAll();
-        verify(filmService).findById(1);
-        verify(hallService).findById(1);
+        verify(filmService).findAllByIds(Set.of(1));
+        verify(hallService).findAllByIds(Set.of(1));
+        verify(filmService, never()).findById(any());
+        verify(hallService, never()).findById(any());
     }
 
     @Test
@@ -190,9 +195,8 @@ class FilmSessionServiceImplTest {
     private void setupMocksForFindByFilmId(FilmSession session1, FilmSession session2, 
             FilmDto filmDto, Hall hall1, Hall hall2) {
         when(filmSessionRepository.findByFilmId(1)).thenReturn(List.of(session1, session2));
-        when(filmService.findById(1)).thenReturn(Optional.of(filmDto));
-        when(hallService.findById(1)).thenReturn(Optional.of(hall1));
-        when(hallService.findById(2)).thenReturn(Optional.of(hall2));
+        when(filmService.findAllByIds(Set.of(1))).thenReturn(List.of(filmDto));
+        when(hallService.findAllByIds(Set.of(1, 2))).thenReturn(List.of(hall1, hall2));
     }
 
     private void verifyFindByFilmIdResult(List<FilmSessionDto> result) {
@@ -203,9 +207,8 @@ class FilmSessionServiceImplTest {
         assertThat(result.get(1).hallName()).isEqualTo("Hall 2");
 
         verify(filmSessionRepository).findByFilmId(1);
-        verify(filmService, times(2)).findById(1);
-        verify(hallService).findById(1);
-        verify(hallService).findById(2);
+        verify(filmService, times(1)).findAllByIds(Set.of(1));
+        verify(hallService, times(1)).findAllByIds(Set.of(1, 2));
     }
 
     @Test
@@ -232,8 +235,8 @@ class FilmSessionServiceImplTest {
         Hall hall = Hall.builder().id(1).name("Hall 1").build();
 
         when(filmSessionRepository.findAll()).thenReturn(List.of(session));
-        when(filmService.findById(999)).thenReturn(Optional.empty());
-        when(hallService.findById(1)).thenReturn(Optional.of(hall));
+        when(filmService.findAllByIds(Set.of(999))).thenReturn(List.of());
+        when(hallService.findAllByIds(Set.of(1))).thenReturn(List.of(hall));
 
         try {
             filmSessionService.findAll();
@@ -242,7 +245,7 @@ class FilmSessionServiceImplTest {
         }
 
         verify(filmSessionRepository).findAll();
-        verify(filmService).findById(999);
+        verify(filmService).findAllByIds(Set.of(999));
     }
 
     @Test
@@ -268,8 +271,8 @@ class FilmSessionServiceImplTest {
         );
 
         when(filmSessionRepository.findAll()).thenReturn(List.of(session));
-        when(filmService.findById(1)).thenReturn(Optional.of(filmDto));
-        when(hallService.findById(999)).thenReturn(Optional.empty());
+        when(filmService.findAllByIds(Set.of(1))).thenReturn(List.of(filmDto));
+        when(hallService.findAllByIds(Set.of(999))).thenReturn(List.of());
 
         List<FilmSessionDto> result = filmSessionService.findAll();
 
@@ -277,4 +280,41 @@ class FilmSessionServiceImplTest {
         FilmSessionDto dto = result.get(0);
         assertThat(dto.hallName()).isEqualTo("Неизвестен");
     }
-}
\ No newline at end of file
+
+    @Test
+    void whenFindStartingFromThenMapSessionsWithFilmAndHallIds() {
+        LocalDateTime from = LocalDateTime.of(2023, 10, 1, 0, 0);
+        FilmSession session = createFilmSession(1, 1, 2, 500);
+        Hall hall = Hall.builder().id(2).name("Hall 2").build();
+
+        when(filmSessionRepository.findStartingFrom(from)).thenReturn(List.of(session));
+        when(filmService.findAllByIds(Set.of(1))).thenReturn(List.of(createFilmDto()));
+        when(hallService.findAllByIds(Set.of(2))).thenReturn(List.of(hall));
+
+        List<FilmSessionDto> result = filmSessionService.findStartingFrom(from);
+
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).filmId()).isEqualTo(1);
+        assertThat(result.get(0).hallId()).isEqualTo(2);
+        assertThat(result.get(0).hallName()).isEqualTo("Hall 2");
+        verify(filmSessionRepository).findStartingFrom(from);
+    }
+
+    @Test
+    void whenFindPageThenFetchOneExtraSessionToDetectNextPage() {
+        LocalDateTime from = LocalDateTime.of(2023, 10, 1, 0, 0);
+        SessionCursor after = new SessionCursor(LocalDateTime.of(2023, 10, 1, 12, 0), 3);
+        FilmSession first = createFilmSession(4, 1, 2, 500);
+        FilmSession second = createFilmSession(5, 1, 2, 600);
+        Hall hall = Hall.builder().id(2).name("Hall 2").build();
+
+        when(filmSessionRepository.findPage(from, null, after.startTime(), 3, 2)).thenReturn(List.of(first, second));
+        when(filmService.findAllByIds(Set.of(1))).thenReturn(List.of(createFilmDto()));
+        when(hallService.findAllByIds(Set.of(2))).thenReturn(List.of(hall));
+
+        SessionPage page = filmSessionService.findPage(from, null, after, 1);
+
+        assertThat(page.sessions()).extracting(FilmSessionDto::id).containsExactly(4);
+        assertThat(page.nextCursor()).isEqualTo("2023-10-01T18:00_4");
+    }
+}
@@ -2,13 +2,15 @@ package ru.job4j.cinema.service.impl;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import ru.job4j.cinema.model.Genre;
 import ru.job4j.cinema.repository.GenreRepository;
+import ru.job4j.cinema.util.LruCache;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
@@ -18,12 +20,12 @@ class GenreServiceImplTest {
     @Mock
     private GenreRepository genreRepository;
 
-    @InjectMocks
     private GenreServiceImpl genreService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        genreService = new GenreServiceImpl(genreRepository, new LruCache<>(16));
     }
 
     @Test
@@ -53,4 +55,38 @@ class GenreServiceImplTest {
         assertThat(result).isEmpty();
         verify(genreRepository).findById(999);
     }
-}
\ No newline at end of file
+
+    @Test
+    void whenFindAllByIdsThenDelegateToRepository() {
+        List<Genre> genres = List.of(new Genre(1, "Action"), new Genre(2, "Comedy"));
+        when(genreRepository.findAllByIds(Set.of(1, 2))).thenReturn(genres);
+
+        List<Genre> result = genreService.findAllByIds(Set.of(1, 2));
+
+        assertThat(result).isEqualTo(genres);
+        verify(genreRepository).findAllByIds(Set.of(1, 2));
+    }
+
+    @Test
+    void whenFindByIdTwiceThenRepositoryIsQueriedOnce() {
+        Genre genre = new Genre(1, "Action");
+        when(genreRepository.findById(1)).thenReturn(Optional.of(genre));
+
+        genreService.findById(1);
+        Optional<Genre> result = genreService.findById(1);
+
+        assertThat(result).contains(genre);
+        verify(genreRepository, times(1)).findById(1);
+    }
+
+    @Test
+    void whenInvalidateAllThenNextLookupGoesToRepository() {
+        when(genreRepository.findById(1)).thenReturn(Optional.of(new Genre(1, "Action")));
+
+        genreService.findById(1);
+        genreService.invalidateAll();
+        genreService.findById(1);
+
+        verify(genreRepository, times(2)).findById(1);
+    }
+}
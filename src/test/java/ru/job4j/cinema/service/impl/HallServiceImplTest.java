@@ -2,13 +2,15 @@ package ru.job4j.cinema.service.impl;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import ru.job4j.cinema.model.Hall;
 import ru.job4j.cinema.repository.HallRepository;
+import ru.job4j.cinema.util.LruCache;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
@@ -18,12 +20,12 @@ class HallServiceImplTest {
     @Mock
     private HallRepository hallRepository;
 
-    @InjectMocks
     private HallServiceImpl hallService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        hallService = new HallServiceImpl(hallRepository, new LruCache<>(16));
     }
 
     @Test
@@ -59,4 +61,53 @@ class HallServiceImplTest {
         assertThat(result).isEmpty();
         verify(hallRepository).findById(999);
     }
-}
\ No newline at end of file
+
+    @Test
+    void whenFindAllByIdsThenDelegateToRepository() {
+        List<Hall> halls = List.of(Hall.builder().id(1).name("Main Hall").build());
+        when(hallRepository.findAllByIds(Set.of(1))).thenReturn(halls);
+
+        List<Hall> result = hallService.findAllByIds(Set.of(1));
+
+        assertThat(result).isEqualTo(halls);
+        verify(hallRepository).findAllByIds(Set.of(1));
+    }
+
+    @Test
+    void whenFindByIdTwiceThenRepositoryIsQueriedOnce() {
+        Hall hall = Hall.builder().id(1).name("Main Hall").rowCount(10).placeCount(15).build();
+        when(hallRepository.findById(1)).thenReturn(Optional.of(hall));
+
+        hallService.findById(1);
+        Optional<Hall> result = hallService.findById(1);
+
+        assertThat(result).contains(hall);
+        verify(hallRepository, times(1)).findById(1);
+    }
+
+    @Test
+    void whenFindAllByIdsThenOnlyMissingHallsAreLoaded() {
+        Hall hall1 = Hall.builder().id(1).name("Main Hall").build();
+        Hall hall2 = Hall.builder().id(2).name("Small Hall").build();
+        when(hallRepository.findById(1)).thenReturn(Optional.of(hall1));
+        when(hallRepository.findAllByIds(Set.of(2))).thenReturn(List.of(hall2));
+
+        hallService.findById(1);
+        List<Hall> result = hallService.findAllByIds(Set.of(1, 2));
+
+        assertThat(result).containsExactlyInAnyOrder(hall1, hall2);
+        verify(hallRepository).findAllByIds(Set.of(2));
+    }
+
+    @Test
+    void whenInvalidateThenNextLookupGoesToRepository() {
+        Hall hall = Hall.builder().id(1).name("Main Hall").build();
+        when(hallRepository.findById(1)).thenReturn(Optional.of(hall));
+
+        hallService.findById(1);
+        hallService.invalidate(1);
+        hallService.findById(1);
+
+        verify(hallRepository, times(2)).findById(1);
+    }
+}
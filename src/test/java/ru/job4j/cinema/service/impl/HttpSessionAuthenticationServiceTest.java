@@ -0,0 +1,46 @@
+package ru.job4j.cinema.service.impl;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ru.job4j.cinema.model.User;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HttpSessionAuthenticationServiceTest {
+
+    private final HttpSessionAuthenticationService authenticationService = new HttpSessionAuthenticationService();
+
+    @Test
+    void whenSignInThenSessionKeepsUserWithoutPassword() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        User user = User.builder().id(1).fullName("Test User").email("test@example.com").password("secret").build();
+
+        authenticationService.signIn(user, request, new MockHttpServletResponse());
+
+        User stored = (User) request.getSession(false).getAttribute("user");
+        assertThat(stored.getId()).isEqualTo(1);
+        assertThat(stored.getPassword()).isNull();
+        assertThat(authenticationService.findCurrentUser(request)).contains(stored);
+    }
+
+    @Test
+    void whenNoSessionThenNoCurrentUserAndNoSessionCreated() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+
+        assertThat(authenticationService.findCurrentUser(request)).isEmpty();
+        assertThat(request.getSession(false)).isNull();
+    }
+
+    @Test
+    void whenSignOutThenSessionIsInvalidated() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        authenticationService.signIn(User.builder().id(1).build(), request, new MockHttpServletResponse());
+        var session = request.getSession(false);
+
+        authenticationService.signOut(request, new MockHttpServletResponse());
+
+        assertThat(request.getSession(false)).isNull();
+        assertThat(session).isNotNull();
+    }
+}
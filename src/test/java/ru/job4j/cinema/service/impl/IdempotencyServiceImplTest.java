@@ -0,0 +1,182 @@
+package ru.job4j.cinema.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.job4j.cinema.dto.PurchaseResult;
+import ru.job4j.cinema.dto.PurchaseStatus;
+import ru.job4j.cinema.model.Ticket;
+import ru.job4j.cinema.util.LruCache;
+import ru.job4j.cinema.util.RequestInProgressException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotencyServiceImplTest {
+
+    private MutableClock clock;
+    private IdempotencyServiceImpl idempotencyService;
+    private AtomicInteger purchases;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        idempotencyService = new IdempotencyServiceImpl(new LruCache<>(16), clock, Duration.ofMinutes(10), Duration.ofSeconds(5));
+        purchases = new AtomicInteger();
+    }
+
+    @Test
+    void whenSameKeyIsReplayedThenReturnOriginalResultWithoutRunningAgain() {
+        PurchaseResult first = buy("ticket:1:5-10", 1, "key", sold());
+        PurchaseResult replay = buy("ticket:1:5-10", 1, "key", () -> PurchaseResult.failed(PurchaseStatus.ALREADY_TAKEN));
+
+        assertThat(replay).isSameAs(first);
+        assertThat(purchases).hasValue(1);
+    }
+
+    @Test
+    void whenKeyIsReusedForOtherSeatOrByOtherUserThenRunAgain() {
+        buy("ticket:1:5-10", 1, "key", sold());
+        buy("ticket:1:5-11", 1, "key", sold());
+        buy("ticket:1:5-10", 2, "key", sold());
+
+        assertThat(purchases).hasValue(3);
+    }
+
+    @Test
+    void whenFirstRequestOutlivesWaitThenReplayFailsWithRequestInProgress() throws Exception {
+        IdempotencyServiceImpl impatient = new IdempotencyServiceImpl(new LruCache<>(16), clock,
+                Duration.ofMinutes(10), Duration.ofMillis(50));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        CompletableFuture<PurchaseResult> first = CompletableFuture.supplyAsync(() ->
+                impatient.execute("ticket:1:5-10", 1, "key", () -> {
+                    started.countDown();
+                    await(finish);
+                    return PurchaseResult.failed(PurchaseStatus.ALREADY_TAKEN);
+                }, result -> true));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> impatient.execute("ticket:1:5-10", 1, "key", () -> {
+            purchases.incrementAndGet();
+            return PurchaseResult.sold(new Ticket());
+        }, result -> true))
+                .isInstanceOf(RequestInProgressException.class);
+        finish.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        assertThat(purchases).hasValue(0);
+    }
+
+    @Test
+    void whenKeyIsMissingThenAlwaysRun() {
+        buy("ticket:1:5-10", 1, null, sold());
+        buy("ticket:1:5-10", 1, " ", sold());
+
+        assertThat(purchases).hasValue(2);
+    }
+
+    @Test
+    void whenResultIsNotRememberedThenRetryRunsAgain() {
+        buy("ticket:1:5-10", 1, "key", () -> PurchaseResult.failed(PurchaseStatus.DB_ERROR));
+        PurchaseResult retry = buy("ticket:1:5-10", 1, "key", sold());
+
+        assertThat(retry.isSold()).isTrue();
+        assertThat(purchases).hasValue(2);
+    }
+
+    @Test
+    void whenActionFailsThenRetryRunsAgain() {
+        assertThatThrownBy(() -> buy("ticket:1:5-10", 1, "key", () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        buy("ticket:1:5-10", 1, "key", sold());
+
+        assertThat(purchases).hasValue(2);
+    }
+
+    @Test
+    void whenRememberedResultExpiresThenRunAgain() {
+        buy("ticket:1:5-10", 1, "key", sold());
+
+        clock.advance(Duration.ofMinutes(11));
+        buy("ticket:1:5-10", 1, "key", sold());
+
+        assertThat(purchases).hasValue(2);
+    }
+
+    @Test
+    void whenReplayArrivesWhileFirstRequestRunsThenWaitForItsResult() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        PurchaseResult original = PurchaseResult.sold(new Ticket());
+        CompletableFuture<PurchaseResult> first = CompletableFuture.supplyAsync(() ->
+                buy("ticket:1:5-10", 1, "key", () -> {
+                    started.countDown();
+                    await(finish);
+                    return original;
+                }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<PurchaseResult> replay = CompletableFuture.supplyAsync(() ->
+                buy("ticket:1:5-10", 1, "key", sold()));
+        finish.countDown();
+
+        assertThat(replay.get(5, TimeUnit.SECONDS)).isSameAs(original);
+        assertThat(first.get(5, TimeUnit.SECONDS)).isSameAs(original);
+        assertThat(purchases).hasValue(1);
+    }
+
+    private PurchaseResult buy(String scope, Integer userId, String key, Supplier<PurchaseResult> purchase) {
+        return idempotencyService.execute(scope, userId, key, () -> {
+            purchases.incrementAndGet();
+            return purchase.get();
+        }, result -> result.status() != PurchaseStatus.DB_ERROR);
+    }
+
+    private Supplier<PurchaseResult> sold() {
+        return () -> PurchaseResult.sold(new Ticket());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
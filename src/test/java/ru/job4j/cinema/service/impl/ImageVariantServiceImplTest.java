@@ -0,0 +1,150 @@
+package ru.job4j.cinema.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.MediaType;
+import ru.job4j.cinema.dto.FileContent;
+import ru.job4j.cinema.dto.ImageVariant;
+import ru.job4j.cinema.util.LruCache;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImageVariantServiceImplTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private QueuedExecutor executor;
+
+    private ImageVariantServiceImpl imageVariantService;
+
+    private FileContent original;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        executor = new QueuedExecutor();
+        imageVariantService = new ImageVariantServiceImpl(tempDir, new LruCache<>(1 << 20, FileContent::contentLength), executor);
+        byte[] bytes = encode(new BufferedImage(800, 1200, BufferedImage.TYPE_INT_RGB));
+        original = new FileContent(new ByteArrayResource(bytes), MediaType.IMAGE_JPEG, bytes.length, 0L, "original");
+    }
+
+    @Test
+    void whenVariantIsRequestedFirstTimeThenGenerateItInBackground() throws IOException {
+        Optional<FileContent> first = imageVariantService.findVariant(1, original, ImageVariant.THUMB);
+
+        assertThat(first).isEmpty();
+        assertThat(executor.tasks).hasSize(1);
+
+        executor.runAll();
+        FileContent thumb = imageVariantService.findVariant(1, original, ImageVariant.THUMB).orElseThrow();
+
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(thumb.resource().getContentAsByteArray()));
+        assertThat(image.getWidth()).isEqualTo(160);
+        assertThat(image.getHeight()).isEqualTo(240);
+        assertThat(thumb.mediaType()).isEqualTo(MediaType.IMAGE_JPEG);
+        assertThat(thumb.contentLength()).isLessThan(original.contentLength());
+        assertThat(Files.list(tempDir)).hasSize(1);
+    }
+
+    @Test
+    void whenVariantIsRequestedRepeatedlyBeforeItIsReadyThenGenerateItOnce() {
+        imageVariantService.findVariant(1, original, ImageVariant.CARD);
+        imageVariantService.findVariant(1, original, ImageVariant.CARD);
+
+        assertThat(executor.tasks).hasSize(1);
+    }
+
+    @Test
+    void whenVariantIsStoredOnDiskThenReuseItAfterRestart() {
+        imageVariantService.findVariant(1, original, ImageVariant.CARD);
+        executor.runAll();
+
+        ImageVariantServiceImpl restarted = new ImageVariantServiceImpl(tempDir,
+                new LruCache<>(1 << 20, FileContent::contentLength), executor);
+        Optional<FileContent> card = restarted.findVariant(1, original, ImageVariant.CARD);
+
+        assertThat(card).isPresent();
+        assertThat(executor.tasks).isEmpty();
+    }
+
+    @Test
+    void whenFullVariantIsRequestedThenReturnOriginal() {
+        Optional<FileContent> full = imageVariantService.findVariant(1, original, ImageVariant.FULL);
+
+        assertThat(full).containsSame(original);
+        assertThat(executor.tasks).isEmpty();
+    }
+
+    @Test
+    void whenOriginalIsNotAnImageThenNoVariantIsStoredAndDecodeIsNotRetried() {
+        FileContent broken = new FileContent(new ByteArrayResource(new byte[]{1, 2, 3}), MediaType.IMAGE_JPEG, 3, 0L, "broken");
+
+        imageVariantService.findVariant(2, broken, ImageVariant.THUMB);
+        executor.runAll();
+
+        assertThat(imageVariantService.findVariant(2, broken, ImageVariant.THUMB)).isEmpty();
+        assertThat(executor.tasks).isEmpty();
+        assertThat(Files.exists(tempDir.resolve("2-thumb-broken.jpg"))).isFalse();
+    }
+
+    private byte[] encode(BufferedImage image) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpeg", outputStream);
+        return outputStream.toByteArray();
+    }
+
+    private static class QueuedExecutor extends AbstractExecutorService {
+
+        private final List<Runnable> tasks = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        void runAll() {
+            List<Runnable> pending = new ArrayList<>(tasks);
+            tasks.clear();
+            pending.forEach(Runnable::run);
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return List.of();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+    }
+}
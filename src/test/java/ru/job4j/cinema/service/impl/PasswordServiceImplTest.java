@@ -0,0 +1,136 @@
+package ru.job4j.cinema.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.support.ExecutorServiceAdapter;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import ru.job4j.cinema.util.PasswordHashingBusyException;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordServiceImplTest {
+
+    private static final int STRENGTH = 5;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PasswordServiceImpl passwordService;
+    private ThreadPoolExecutor busyExecutor;
+    private CountDownLatch release;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        passwordService = new PasswordServiceImpl(new BCryptPasswordEncoder(STRENGTH),
+                new ExecutorServiceAdapter(new SyncTaskExecutor()), Duration.ofSeconds(1), meterRegistry);
+        busyExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1));
+        release = new CountDownLatch(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        busyExecutor.shutdownNow();
+    }
+
+    @Test
+    void whenHashThenResultIsBcryptAndMatchesRawPassword() {
+        String hash = passwordService.hash("secret");
+
+        assertThat(hash).startsWith("$2").hasSize(60).doesNotContain("secret");
+        assertThat(passwordService.matches("secret", hash)).isTrue();
+        assertThat(passwordService.matches("Secret", hash)).isFalse();
+    }
+
+    @Test
+    void whenHashSamePasswordTwiceThenSaltsDiffer() {
+        assertThat(passwordService.hash("secret")).isNotEqualTo(passwordService.hash("secret"));
+    }
+
+    @Test
+    void whenStoredPasswordIsPlaintextThenCompareAsIs() {
+        assertThat(passwordService.matches("secret", "secret")).isTrue();
+        assertThat(passwordService.matches("other", "secret")).isFalse();
+        assertThat(passwordService.matches(null, "secret")).isFalse();
+    }
+
+    @Test
+    void whenStoredPasswordOnlyLooksLikeBcryptThenCompareAsPlaintext() {
+        String hash = passwordService.hash("secret");
+
+        assertThat(passwordService.matches("$2secret", "$2secret")).isTrue();
+        assertThat(passwordService.matches("$2a$05$short", "$2a$05$short")).isTrue();
+        assertThat(passwordService.matches(hash + "x", hash + "x")).isTrue();
+        assertThat(passwordService.needsRehash("$2secret")).isTrue();
+    }
+
+    @Test
+    void whenMatchDummyThenHashingPoolIsUsedLikeRealCheck() {
+        PasswordServiceImpl saturated = new PasswordServiceImpl(new BCryptPasswordEncoder(STRENGTH),
+                busyExecutor, Duration.ofSeconds(5), meterRegistry);
+        busyExecutor.execute(this::awaitRelease);
+        busyExecutor.execute(this::awaitRelease);
+
+        passwordService.matchDummy("secret");
+        passwordService.matchDummy(null);
+        assertThatThrownBy(() -> saturated.matchDummy("secret")).isInstanceOf(PasswordHashingBusyException.class);
+    }
+
+    @Test
+    void whenRawPasswordIsNullAgainstHashThenNoMatch() {
+        assertThat(passwordService.matches(null, passwordService.hash("secret"))).isFalse();
+    }
+
+    @Test
+    void whenStoredPasswordIsPlaintextOrCheaperThenNeedsRehash() {
+        String cheaper = new BCryptPasswordEncoder(STRENGTH - 1).encode("secret");
+
+        assertThat(passwordService.needsRehash("secret")).isTrue();
+        assertThat(passwordService.needsRehash(cheaper)).isTrue();
+        assertThat(passwordService.needsRehash(passwordService.hash("secret"))).isFalse();
+        assertThat(passwordService.needsRehash(null)).isFalse();
+    }
+
+    @Test
+    void whenQueueIsFullThenRejectImmediately() {
+        PasswordServiceImpl saturated = new PasswordServiceImpl(new BCryptPasswordEncoder(STRENGTH),
+                busyExecutor, Duration.ofSeconds(5), meterRegistry);
+        busyExecutor.execute(this::awaitRelease);
+        busyExecutor.execute(this::awaitRelease);
+
+        assertThatThrownBy(() -> saturated.hash("secret")).isInstanceOf(PasswordHashingBusyException.class);
+        assertThat(meterRegistry.counter("password.hash.rejected").count()).isEqualTo(1);
+    }
+
+    @Test
+    void whenCheckWaitsLongerThanTimeoutThenFailAndDropQueuedTask() {
+        PasswordServiceImpl slow = new PasswordServiceImpl(new BCryptPasswordEncoder(STRENGTH),
+                busyExecutor, Duration.ofMillis(50), meterRegistry);
+        busyExecutor.execute(this::awaitRelease);
+
+        String hash = passwordService.hash("secret");
+
+        assertThatThrownBy(() -> slow.matches("secret", hash))
+                .isInstanceOf(PasswordHashingBusyException.class);
+        assertThat(meterRegistry.counter("password.hash.rejected").count()).isEqualTo(1);
+        busyExecutor.purge();
+        assertThat(busyExecutor.getQueue()).isEmpty();
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
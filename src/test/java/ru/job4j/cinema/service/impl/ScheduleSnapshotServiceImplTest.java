@@ -0,0 +1,174 @@
+package ru.job4j.cinema.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import ru.job4j.cinema.dto.FilmSessionDto;
+import ru.job4j.cinema.dto.ScheduleSnapshot;
+import ru.job4j.cinema.dto.SessionCursor;
+import ru.job4j.cinema.dto.SessionPage;
+import ru.job4j.cinema.service.FilmSessionService;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class ScheduleSnapshotServiceImplTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 12, 27, 12, 0);
+    private static final LocalDateTime MIDNIGHT = LocalDateTime.of(2024, 12, 27, 0, 0);
+
+    @Mock
+    private FilmSessionService filmSessionService;
+
+    private ScheduleSnapshotServiceImpl scheduleSnapshotService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        Clock clock = Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        scheduleSnapshotService = new ScheduleSnapshotServiceImpl(filmSessionService, clock);
+    }
+
+    @Test
+    void whenGetSnapshotThenSessionsAreOrderedAndIndexed() {
+        FilmSessionDto evening = createSession(1, 1, 1, LocalDateTime.of(2024, 12, 27, 20, 0));
+        FilmSessionDto afternoon = createSession(2, 2, 1, LocalDateTime.of(2024, 12, 27, 15, 0));
+        FilmSessionDto tomorrow = createSession(3, 1, 2, LocalDateTime.of(2024, 12, 28, 10, 0));
+        when(filmSessionService.findStartingFrom(MIDNIGHT)).thenReturn(List.of(evening, afternoon, tomorrow));
+
+        ScheduleSnapshot snapshot = scheduleSnapshotService.getSnapshot();
+
+        assertThat(snapshot.builtAt()).isEqualTo(MIDNIGHT);
+        assertThat(snapshot.sessions()).containsExactly(afternoon, evening, tomorrow);
+        assertThat(snapshot.findByFilmId(1)).containsExactly(evening, tomorrow);
+        assertThat(snapshot.findByHallId(1)).containsExactly(afternoon, evening);
+        assertThat(snapshot.findByDay(LocalDate.of(2024, 12, 28))).containsExactly(tomorrow);
+        assertThat(snapshot.findByFilmId(999)).isEmpty();
+    }
+
+    @Test
+    void whenGetSnapshotTwiceThenDatabaseIsQueriedOnce() {
+        when(filmSessionService.findStartingFrom(MIDNIGHT)).thenReturn(List.of());
+
+        ScheduleSnapshot first = scheduleSnapshotService.getSnapshot();
+        ScheduleSnapshot second = scheduleSnapshotService.getSnapshot();
+
+        assertThat(second).isSameAs(first);
+        verify(filmSessionService, times(1)).findStartingFrom(MIDNIGHT);
+    }
+
+    @Test
+    void whenRefreshThenSnapshotIsReplaced() {
+        FilmSessionDto session = createSession(1, 1, 1, LocalDateTime.of(2024, 12, 27, 20, 0));
+        when(filmSessionService.findStartingFrom(MIDNIGHT))
+                .thenReturn(List.of())
+                .thenReturn(List.of(session));
+
+        ScheduleSnapshot before = scheduleSnapshotService.getSnapshot();
+        scheduleSnapshotService.refresh();
+        ScheduleSnapshot after = scheduleSnapshotService.getSnapshot();
+
+        assertThat(before.sessions()).isEmpty();
+        assertThat(after.sessions()).containsExactly(session);
+    }
+
+    @Test
+    void whenRefreshFailsThenPreviousSnapshotIsKept() {
+        FilmSessionDto session = createSession(1, 1, 1, LocalDateTime.of(2024, 12, 27, 20, 0));
+        when(filmSessionService.findStartingFrom(MIDNIGHT))
+                .thenReturn(List.of(session))
+                .thenThrow(new IllegalStateException("database is down"));
+
+        ScheduleSnapshot before = scheduleSnapshotService.getSnapshot();
+
+        assertThatThrownBy(() -> scheduleSnapshotService.refresh()).isInstanceOf(IllegalStateException.class);
+        assertThat(scheduleSnapshotService.getSnapshot()).isSameAs(before);
+    }
+
+    @Test
+    void whenSnapshotIsBuiltThenItCannotBeModified() {
+        FilmSessionDto session = createSession(1, 1, 1, LocalDateTime.of(2024, 12, 27, 20, 0));
+        when(filmSessionService.findStartingFrom(MIDNIGHT)).thenReturn(List.of(session));
+
+        ScheduleSnapshot snapshot = scheduleSnapshotService.getSnapshot();
+
+        assertThatThrownBy(() -> snapshot.sessions().clear()).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> snapshot.findByFilmId(1).clear()).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    private FilmSessionDto createSession(int id, int filmId, int hallId, LocalDateTime startTime) {
+        return new FilmSessionDto(id, filmId, hallId, "Film " + filmId, "Description", "/files/" + filmId,
+                "Hall " + hallId, startTime, startTime.plusHours(2), 500);
+    }
+
+    @Test
+    void whenFindDefaultPagesThenServeTodayFromSnapshotWithoutDatabase() {
+        FilmSessionDto morning = createSession(1, 1, 1, LocalDateTime.of(2024, 12, 27, 10, 0));
+        FilmSessionDto first = createSession(2, 1, 1, LocalDateTime.of(2024, 12, 27, 15, 0));
+        FilmSessionDto second = createSession(3, 1, 1, LocalDateTime.of(2024, 12, 27, 15, 0));
+        FilmSessionDto third = createSession(4, 1, 1, LocalDateTime.of(2024, 12, 28, 10, 0));
+        when(filmSessionService.findStartingFrom(MIDNIGHT)).thenReturn(List.of(third, second, first, morning));
+
+        SessionPage page = scheduleSnapshotService.findPage(null, null, null, 2);
+        SessionPage next = scheduleSnapshotService.findPage(null, null, SessionCursor.parse(page.nextCursor()).get(), 2);
+
+        assertThat(page.sessions()).containsExactly(morning, first);
+        assertThat(page.nextCursor()).isEqualTo("2024-12-27T15:00_2");
+        assertThat(next.sessions()).containsExactly(second, third);
+        assertThat(next.hasNext()).isFalse();
+        verify(filmSessionService, never()).findPage(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void whenFindPageFromFutureDayThenPageSnapshotWithoutDatabase() {
+        FilmSessionDto first = createSession(1, 1, 1, LocalDateTime.of(2024, 12, 28, 15, 0));
+        FilmSessionDto second = createSession(2, 1, 1, LocalDateTime.of(2024, 12, 28, 15, 0));
+        FilmSessionDto third = createSession(3, 1, 1, LocalDateTime.of(2024, 12, 29, 10, 0));
+        when(filmSessionService.findStartingFrom(MIDNIGHT)).thenReturn(List.of(third, second, first));
+        LocalDate tomorrow = LocalDate.of(2024, 12, 28);
+
+        SessionPage page = scheduleSnapshotService.findPage(tomorrow, null, null, 2);
+        SessionPage next = scheduleSnapshotService.findPage(tomorrow, null, SessionCursor.parse(page.nextCursor()).get(), 2);
+
+        assertThat(page.sessions()).containsExactly(first, second);
+        assertThat(page.nextCursor()).isEqualTo("2024-12-28T15:00_2");
+        assertThat(next.sessions()).containsExactly(third);
+        assertThat(next.hasNext()).isFalse();
+        verify(filmSessionService, never()).findPage(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void whenFindPageForFutureDaysThenSnapshotIsCutToWindow() {
+        FilmSessionDto today = createSession(1, 1, 1, LocalDateTime.of(2024, 12, 27, 15, 0));
+        FilmSessionDto tomorrow = createSession(2, 1, 1, LocalDateTime.of(2024, 12, 28, 10, 0));
+        FilmSessionDto later = createSession(3, 1, 1, LocalDateTime.of(2024, 12, 30, 10, 0));
+        when(filmSessionService.findStartingFrom(MIDNIGHT)).thenReturn(List.of(today, tomorrow, later));
+
+        SessionPage page = scheduleSnapshotService.findPage(LocalDate.of(2024, 12, 28), LocalDate.of(2024, 12, 29),
+                null, 10);
+
+        assertThat(page.sessions()).containsExactly(tomorrow);
+        assertThat(page.hasNext()).isFalse();
+    }
+
+    @Test
+    void whenFindPageReachesIntoPastThenQueryDatabase() {
+        SessionPage fromDatabase = new SessionPage(List.of(), null);
+        when(filmSessionService.findStartingFrom(MIDNIGHT)).thenReturn(List.of());
+        when(filmSessionService.findPage(LocalDateTime.of(2024, 12, 1, 0, 0), LocalDateTime.of(2024, 12, 2, 0, 0),
+                null, 20)).thenReturn(fromDatabase);
+
+        SessionPage page = scheduleSnapshotService.findPage(LocalDate.of(2024, 12, 1), LocalDate.of(2024, 12, 1),
+                null, 20);
+
+        assertThat(page).isSameAs(fromDatabase);
+    }
+}
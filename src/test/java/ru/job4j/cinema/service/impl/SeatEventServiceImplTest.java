@@ -0,0 +1,138 @@
+package ru.job4j.cinema.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.support.ExecutorServiceAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.job4j.cinema.dto.SeatEvent;
+import ru.job4j.cinema.dto.SeatEventType;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class SeatEventServiceImplTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SeatEventServiceImpl seatEventService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        seatEventService = new SeatEventServiceImpl(new ObjectMapper(), meterRegistry, Duration.ofMinutes(1),
+                new ExecutorServiceAdapter(new SyncTaskExecutor()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void whenPublishThenSamePayloadIsSentToEverySubscriberOfTheSession() throws IOException {
+        SseEmitter first = mock(SseEmitter.class);
+        SseEmitter second = mock(SseEmitter.class);
+        SseEmitter otherSession = mock(SseEmitter.class);
+        seatEventService.register(1, first);
+        seatEventService.register(1, second);
+        seatEventService.register(2, otherSession);
+
+        seatEventService.publish(new SeatEvent(1, 2, 3, SeatEventType.TAKEN));
+
+        ArgumentCaptor<Set<DataWithMediaType>> firstPayload = ArgumentCaptor.forClass(Set.class);
+        ArgumentCaptor<Set<DataWithMediaType>> secondPayload = ArgumentCaptor.forClass(Set.class);
+        verify(first).send(firstPayload.capture());
+        verify(second).send(secondPayload.capture());
+        verify(otherSession, never()).send(any(Set.class));
+        assertThat(secondPayload.getValue()).isSameAs(firstPayload.getValue());
+        String text = firstPayload.getValue().stream()
+                .map(item -> item.getData().toString())
+                .collect(Collectors.joining());
+        assertThat(text).isEqualTo("event:taken\ndata:"
+                + "{\"sessionId\":1,\"rowNumber\":2,\"placeNumber\":3,\"type\":\"TAKEN\"}\n\n");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void whenSendFailsThenSubscriberIsDropped() throws IOException {
+        SseEmitter broken = mock(SseEmitter.class);
+        SseEmitter alive = mock(SseEmitter.class);
+        doThrow(new IOException("Broken pipe")).when(broken).send(any(Set.class));
+        seatEventService.register(1, broken);
+        seatEventService.register(1, alive);
+
+        seatEventService.publish(new SeatEvent(1, 2, 3, SeatEventType.HELD));
+        seatEventService.publish(new SeatEvent(1, 2, 3, SeatEventType.RELEASED));
+
+        verify(broken, times(1)).send(any(Set.class));
+        verify(alive, times(2)).send(any(Set.class));
+        assertThat(seatEventService.getSubscriberCount()).isEqualTo(1);
+        assertThat(meterRegistry.get("seat.events.subscribers").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void whenHeartbeatThenCommentIsSentToAllSessions() throws IOException {
+        SseEmitter first = mock(SseEmitter.class);
+        SseEmitter second = mock(SseEmitter.class);
+        seatEventService.register(1, first);
+        seatEventService.register(2, second);
+
+        seatEventService.heartbeat();
+
+        ArgumentCaptor<Set<DataWithMediaType>> payload = ArgumentCaptor.forClass(Set.class);
+        verify(first).send(payload.capture());
+        verify(second).send(payload.getValue());
+        assertThat(payload.getValue().iterator().next().getData()).isEqualTo(":\n\n");
+    }
+
+    @Test
+    void whenNobodyWatchesSessionThenEventIsNotDispatched() {
+        ExecutorService dispatcher = mock(ExecutorService.class);
+        SeatEventServiceImpl service = new SeatEventServiceImpl(new ObjectMapper(), meterRegistry,
+                Duration.ofMinutes(1), dispatcher);
+
+        service.publish(new SeatEvent(1, 2, 3, SeatEventType.TAKEN));
+
+        verifyNoInteractions(dispatcher);
+    }
+
+    @Test
+    void whenDispatchQueueIsFullThenEventIsDroppedAndCounted() {
+        ExecutorService dispatcher = mock(ExecutorService.class);
+        doThrow(new RejectedExecutionException()).when(dispatcher).execute(any());
+        SeatEventServiceImpl service = new SeatEventServiceImpl(new ObjectMapper(), meterRegistry,
+                Duration.ofMinutes(1), dispatcher);
+        service.register(1, mock(SseEmitter.class));
+
+        service.publish(new SeatEvent(1, 2, 3, SeatEventType.TAKEN));
+
+        assertThat(meterRegistry.get("seat.events.dropped").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void whenContextClosesThenOpenStreamsAreCompleted() {
+        SseEmitter emitter = mock(SseEmitter.class);
+        seatEventService.register(1, emitter);
+
+        seatEventService.completeAll();
+
+        verify(emitter).complete();
+    }
+
+    @Test
+    void whenSubscribeThenEmitterUsesConfiguredTimeout() {
+        SseEmitter emitter = seatEventService.subscribe(1);
+
+        assertThat(emitter.getTimeout()).isEqualTo(60_000L);
+        assertThat(seatEventService.getSubscriberCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,225 @@
+package ru.job4j.cinema.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import ru.job4j.cinema.dto.SeatEvent;
+import ru.job4j.cinema.dto.SeatEventType;
+import ru.job4j.cinema.model.SeatMap;
+import ru.job4j.cinema.model.Ticket;
+import ru.job4j.cinema.service.SeatEventService;
+import ru.job4j.cinema.service.SeatMapService;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.*;
+
+class SeatHoldServiceImplTest {
+
+    @Mock
+    private SeatMapService seatMapService;
+
+    @Mock
+    private SeatEventService seatEventService;
+
+    private MutableClock clock;
+    private SeatMap seatMap;
+    private SeatHoldServiceImpl seatHoldService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        clock = new MutableClock();
+        seatMap = new SeatMap(5, 5);
+        when(seatMapService.findBySessionId(1)).thenReturn(Optional.of(seatMap));
+        seatHoldService = new SeatHoldServiceImpl(seatMapService, seatEventService, clock,
+                new SeatHoldServiceImpl.Limits(Duration.ofSeconds(60), Duration.ofSeconds(150), 2), 100, 64);
+    }
+
+    @Test
+    void whenSeatIsHeldThenOtherUsersSeeItAsHeld() {
+        assertThat(seatHoldService.hold(seat(1))).isTrue();
+
+        assertThat(seatHoldService.isHeldByOther(seat(2))).isTrue();
+        assertThat(seatHoldService.isHeldByOther(seat(1))).isFalse();
+        assertThat(seatHoldService.hold(seat(2))).isFalse();
+    }
+
+    @Test
+    void whenSameUserHoldsAgainThenHoldIsExtended() {
+        seatHoldService.hold(seat(1));
+        clock.advance(Duration.ofSeconds(50));
+        seatHoldService.tick();
+
+        assertThat(seatHoldService.hold(seat(1))).isTrue();
+        clock.advance(Duration.ofSeconds(50));
+        seatHoldService.tick();
+
+        assertThat(seatHoldService.isHeldByOther(seat(2))).isTrue();
+    }
+
+    @Test
+    void whenHeldLongerThanMaxLifetimeThenRenewalIsRefusedAndHoldExpires() {
+        seatHoldService.hold(seat(1));
+        for (int i = 0; i < 2; i++) {
+            clock.advance(Duration.ofSeconds(50));
+            seatHoldService.tick();
+            assertThat(seatHoldService.hold(seat(1))).isTrue();
+        }
+
+        clock.advance(Duration.ofSeconds(50));
+        seatHoldService.tick();
+        assertThat(seatHoldService.isHeldByOther(seat(2))).isFalse();
+        assertThat(seatHoldService.hold(seat(2))).isTrue();
+        assertThat(seatHoldService.hold(seat(1))).isFalse();
+    }
+
+    @Test
+    void whenUserHoldsMaxSeatsOfSessionThenNextHoldIsRefused() {
+        for (int place = 1; place <= 2; place++) {
+            Ticket seat = seat(1);
+            seat.setPlaceNumber(place);
+            assertThat(seatHoldService.hold(seat)).isTrue();
+        }
+        Ticket third = seat(1);
+        third.setPlaceNumber(3);
+        Ticket otherUser = seat(2);
+
+        assertThat(seatHoldService.hold(third)).isFalse();
+        assertThat(seatHoldService.hold(otherUser)).isTrue();
+        Ticket first = seat(1);
+        first.setPlaceNumber(1);
+        assertThat(seatHoldService.hold(first)).isTrue();
+    }
+
+    @Test
+    void whenTtlPassesThenHoldExpires() {
+        seatHoldService.hold(seat(1));
+
+        clock.advance(Duration.ofSeconds(61));
+        seatHoldService.tick();
+
+        assertThat(seatHoldService.isHeldByOther(seat(2))).isFalse();
+        assertThat(seatHoldService.hold(seat(2))).isTrue();
+    }
+
+    @Test
+    void whenReleasedByOwnerThenSeatIsFree() {
+        seatHoldService.hold(seat(1));
+
+        seatHoldService.release(seat(2));
+        assertThat(seatHoldService.isHeldByOther(seat(3))).isTrue();
+
+        seatHoldService.release(seat(1));
+        assertThat(seatHoldService.isHeldByOther(seat(3))).isFalse();
+    }
+
+    @Test
+    void whenDiscardedByOwnerThenSeatIsFreeWithoutReleasedEvent() {
+        seatHoldService.hold(seat(1));
+
+        seatHoldService.discard(seat(2));
+        assertThat(seatHoldService.isHeldByOther(seat(3))).isTrue();
+
+        seatHoldService.discard(seat(1));
+        assertThat(seatHoldService.isHeldByOther(seat(3))).isFalse();
+        verify(seatEventService).publish(new SeatEvent(1, 2, 3, SeatEventType.HELD));
+        verifyNoMoreInteractions(seatEventService);
+    }
+
+    @Test
+    void whenSeatIsSoldOrOutsideHallThenHoldIsRefused() {
+        seatMap.take(2, 3);
+        Ticket outside = seat(1);
+        outside.setRowNumber(6);
+
+        assertThat(seatHoldService.hold(seat(1))).isFalse();
+        assertThat(seatHoldService.hold(outside)).isFalse();
+    }
+
+    @Test
+    void whenSeatIsHeldReleasedOrExpiredThenEventsArePublished() {
+        seatHoldService.hold(seat(1));
+        seatHoldService.release(seat(2));
+        seatHoldService.release(seat(1));
+        seatHoldService.hold(seat(2));
+        clock.advance(Duration.ofSeconds(61));
+        seatHoldService.tick();
+
+        InOrder inOrder = inOrder(seatEventService);
+        inOrder.verify(seatEventService).publish(new SeatEvent(1, 2, 3, SeatEventType.HELD));
+        inOrder.verify(seatEventService).publish(new SeatEvent(1, 2, 3, SeatEventType.RELEASED));
+        inOrder.verify(seatEventService).publish(new SeatEvent(1, 2, 3, SeatEventType.HELD));
+        inOrder.verify(seatEventService).publish(new SeatEvent(1, 2, 3, SeatEventType.RELEASED));
+        verifyNoMoreInteractions(seatEventService);
+    }
+
+    @Test
+    void whenFindHeldByOthersThenOwnHoldsAreExcluded() {
+        Ticket other = seat(2);
+        other.setPlaceNumber(4);
+        seatHoldService.hold(seat(1));
+        seatHoldService.hold(other);
+
+        List<Ticket> result = seatHoldService.findHeldByOthers(1, 1);
+
+        assertThat(result).extracting(Ticket::getRowNumber, Ticket::getPlaceNumber)
+                .containsExactly(tuple(2, 4));
+        assertThat(seatHoldService.findHeldByOthers(1, null)).hasSize(2);
+        assertThat(seatHoldService.findHeldByOthers(2, null)).isEmpty();
+    }
+
+    @Test
+    void whenLastHoldOfSessionIsGoneThenSessionIsDroppedFromIndex() {
+        Ticket other = seat(1);
+        other.setPlaceNumber(4);
+        seatHoldService.hold(seat(1));
+        seatHoldService.hold(other);
+
+        seatHoldService.release(seat(1));
+        assertThat(seatHoldService.sessionCount()).isEqualTo(1);
+
+        clock.advance(Duration.ofSeconds(61));
+        seatHoldService.tick();
+        assertThat(seatHoldService.sessionCount()).isZero();
+        assertThat(seatHoldService.findHeldByOthers(1, null)).isEmpty();
+    }
+
+    private Ticket seat(int userId) {
+        return Ticket.builder().sessionId(1).rowNumber(2).placeNumber(3).userId(userId).build();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
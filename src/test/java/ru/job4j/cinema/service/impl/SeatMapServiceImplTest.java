@@ -0,0 +1,107 @@
+package ru.job4j.cinema.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import ru.job4j.cinema.model.FilmSession;
+import ru.job4j.cinema.model.Hall;
+import ru.job4j.cinema.model.SeatMap;
+import ru.job4j.cinema.model.Ticket;
+import ru.job4j.cinema.repository.FilmSessionRepository;
+import ru.job4j.cinema.repository.TicketRepository;
+import ru.job4j.cinema.service.HallService;
+import ru.job4j.cinema.util.LruCache;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class SeatMapServiceImplTest {
+
+    @Mock
+    private FilmSessionRepository filmSessionRepository;
+
+    @Mock
+    private HallService hallService;
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    private SeatMapServiceImpl seatMapService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        seatMapService = new SeatMapServiceImpl(filmSessionRepository, hallService, ticketRepository, new LruCache<>(2));
+        FilmSession filmSession = FilmSession.builder().id(1).filmId(1).hallId(2).build();
+        Hall hall = Hall.builder().id(2).name("Hall 2").rowCount(5).placeCount(8).build();
+        when(filmSessionRepository.findById(1)).thenReturn(Optional.of(filmSession));
+        when(hallService.findById(2)).thenReturn(Optional.of(hall));
+        when(ticketRepository.findBySessionId(1)).thenReturn(List.of(
+                Ticket.builder().id(1).sessionId(1).rowNumber(2).placeNumber(3).userId(1).build(),
+                Ticket.builder().id(2).sessionId(1).rowNumber(5).placeNumber(8).userId(1).build()
+        ));
+    }
+
+    @Test
+    void whenFindBySessionIdThenSeatMapIsSizedFromHallAndFilledFromTickets() {
+        Optional<SeatMap> result = seatMapService.findBySessionId(1);
+
+        assertThat(result).isPresent();
+        SeatMap seatMap = result.get();
+        assertThat(seatMap.getRowCount()).isEqualTo(5);
+        assertThat(seatMap.getPlaceCount()).isEqualTo(8);
+        assertThat(seatMap.isTaken(2, 3)).isTrue();
+        assertThat(seatMap.isTaken(5, 8)).isTrue();
+        assertThat(seatMap.isTaken(1, 1)).isFalse();
+        assertThat(seatMap.isValid(6, 1)).isFalse();
+        assertThat(seatMap.isValid(1, 9)).isFalse();
+    }
+
+    @Test
+    void whenFindBySessionIdTwiceThenLoadOnlyOnce() {
+        seatMapService.findBySessionId(1);
+        seatMapService.findBySessionId(1);
+
+        verify(ticketRepository, times(1)).findBySessionId(1);
+        verify(filmSessionRepository, times(1)).findById(1);
+    }
+
+    @Test
+    void whenInvalidateThenReloadOnNextLookup() {
+        seatMapService.findBySessionId(1);
+        seatMapService.invalidate(1);
+        seatMapService.findBySessionId(1);
+
+        verify(ticketRepository, times(2)).findBySessionId(1);
+    }
+
+    @Test
+    void whenMoreSessionsThanCacheSizeThenLeastRecentSeatMapIsReloaded() {
+        for (int sessionId = 2; sessionId <= 3; sessionId++) {
+            when(filmSessionRepository.findById(sessionId))
+                    .thenReturn(Optional.of(FilmSession.builder().id(sessionId).filmId(1).hallId(2).build()));
+        }
+
+        seatMapService.findBySessionId(1);
+        seatMapService.findBySessionId(2);
+        seatMapService.findBySessionId(3);
+        seatMapService.findBySessionId(1);
+
+        verify(ticketRepository, times(2)).findBySessionId(1);
+        verify(ticketRepository, times(1)).findBySessionId(3);
+    }
+
+    @Test
+    void whenFindByUnknownSessionThenReturnEmpty() {
+        when(filmSessionRepository.findById(999)).thenReturn(Optional.empty());
+
+        Optional<SeatMap> result = seatMapService.findBySessionId(999);
+
+        assertThat(result).isEmpty();
+        verify(ticketRepository, never()).findBySessionId(999);
+    }
+}
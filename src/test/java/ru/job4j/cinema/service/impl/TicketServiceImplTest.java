@@ -2,15 +2,35 @@ package ru.job4j.cinema.service.impl;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import ru.job4j.cinema.dto.BasketPurchaseResult;
+import ru.job4j.cinema.dto.PurchaseResult;
+import ru.job4j.cinema.dto.PurchaseStatus;
+import ru.job4j.cinema.dto.SeatEvent;
+import ru.job4j.cinema.dto.SeatEventType;
+import ru.job4j.cinema.model.SeatMap;
 import ru.job4j.cinema.model.Ticket;
 import ru.job4j.cinema.repository.TicketRepository;
+import ru.job4j.cinema.service.SeatEventService;
+import ru.job4j.cinema.service.SeatHoldService;
+import ru.job4j.cinema.service.SeatMapService;
+import ru.job4j.cinema.util.LockStripes;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
 import static org.mockito.Mockito.*;
 
 class TicketServiceImplTest {
@@ -18,40 +38,42 @@ class TicketServiceImplTest {
     @Mock
     private TicketRepository ticketRepository;
 
-    @InjectMocks
+    @Mock
+    private SeatMapService seatMapService;
+
+    @Mock
+    private SeatHoldService seatHoldService;
+
+    @Mock
+    private SeatEventService seatEventService;
+
     private TicketServiceImpl ticketService;
 
+    private SeatMap seatMap;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        ticketService = new TicketServiceImpl(ticketRepository, seatMapService, seatHoldService, seatEventService,
+                new LockStripes(16));
+        seatMap = new SeatMap(10, 15);
+        when(seatMapService.findBySessionId(1)).thenReturn(Optional.of(seatMap));
     }
 
     @Test
-    void whenBuyTicketAndPlaceIsAvailableThenReturnEmpty() {
-        Ticket ticket = Ticket.builder()
-                .sessionId(1)
-                .rowNumber(5)
-                .placeNumber(10)
-                .userId(1)
-                .build();
-
-        when(ticketRepository.isPlaceAvailable(1, 5, 10)).thenReturn(true);
+    void whenBuyTicketAndPlaceIsTakenThenReturnAlreadyTakenWithoutDatabase() {
+        Ticket ticket = createTicket(5, 10);
+        seatMap.take(5, 10);
 
-        Optional<Ticket> result = ticketService.buyTicket(ticket);
+        PurchaseResult result = ticketService.buyTicket(ticket);
 
-        assertThat(result).isEmpty();
-        verify(ticketRepository).isPlaceAvailable(1, 5, 10);
-        verify(ticketRepository, never()).save(any());
+        assertThat(result.status()).isEqualTo(PurchaseStatus.ALREADY_TAKEN);
+        verifyNoInteractions(ticketRepository);
     }
 
     @Test
-    void whenBuyTicketAndPlaceIsNotAvailableThenReturnSavedTicket() {
-        Ticket ticket = Ticket.builder()
-                .sessionId(1)
-                .rowNumber(5)
-                .placeNumber(10)
-                .userId(1)
-                .build();
+    void whenBuyTicketAndPlaceIsFreeThenReturnSavedTicket() {
+        Ticket ticket = createTicket(5, 10);
 
         Ticket savedTicket = Ticket.builder()
                 .id(1)
@@ -61,38 +83,258 @@ class TicketServiceImplTest {
                 .userId(1)
                 .build();
 
-        when(ticketRepository.isPlaceAvailable(1, 5, 10)).thenReturn(false);
-        when(ticketRepository.save(ticket)).thenReturn(Optional.of(savedTicket));
+        when(ticketRepository.claim(ticket)).thenReturn(PurchaseResult.sold(savedTicket));
 
-        Optional<Ticket> result = ticketService.buyTicket(ticket);
+        PurchaseResult result = ticketService.buyTicket(ticket);
 
-        assertThat(result).isPresent();
-        assertThat(result.get().getId()).isEqualTo(1);
-        assertThat(result.get().getSessionId()).isEqualTo(1);
-        assertThat(result.get().getRowNumber()).isEqualTo(5);
-        assertThat(result.get().getPlaceNumber()).isEqualTo(10);
-        assertThat(result.get().getUserId()).isEqualTo(1);
+        assertThat(result.status()).isEqualTo(PurchaseStatus.SOLD);
+        assertThat(result.ticket().getId()).isEqualTo(1);
+        assertThat(result.ticket().getSessionId()).isEqualTo(1);
+        assertThat(result.ticket().getRowNumber()).isEqualTo(5);
+        assertThat(result.ticket().getPlaceNumber()).isEqualTo(10);
+        assertThat(result.ticket().getUserId()).isEqualTo(1);
+        assertThat(seatMap.isTaken(5, 10)).isTrue();
 
-        verify(ticketRepository).isPlaceAvailable(1, 5, 10);
-        verify(ticketRepository).save(ticket);
+        verify(ticketRepository).claim(ticket);
+        verify(seatHoldService).discard(ticket);
+        verify(seatHoldService, never()).release(any());
+        verify(seatEventService).publish(new SeatEvent(1, 5, 10, SeatEventType.TAKEN));
     }
 
     @Test
-    void whenBuyTicketAndPlaceIsNotAvailableButSaveFailsThenReturnEmpty() {
-        Ticket ticket = Ticket.builder()
-                .sessionId(1)
-                .rowNumber(5)
-                .placeNumber(10)
-                .userId(1)
-                .build();
+    void whenHeldSeatIsSoldThenSubscribersSeeItGoFromHeldToTaken() {
+        var holds = new SeatHoldServiceImpl(seatMapService, seatEventService, Clock.systemUTC(),
+                new SeatHoldServiceImpl.Limits(Duration.ofMinutes(5), Duration.ofMinutes(15), 10), 100, 64);
+        var service = new TicketServiceImpl(ticketRepository, seatMapService, holds, seatEventService,
+                new LockStripes(16));
+        Ticket ticket = createTicket(5, 10);
+        Ticket otherBuyer = createTicket(5, 10);
+        otherBuyer.setUserId(2);
+        when(ticketRepository.claim(ticket)).thenReturn(PurchaseResult.sold(ticket));
+
+        holds.hold(ticket);
+        service.buyTicket(ticket);
+
+        InOrder inOrder = inOrder(seatEventService);
+        inOrder.verify(seatEventService).publish(new SeatEvent(1, 5, 10, SeatEventType.HELD));
+        inOrder.verify(seatEventService).publish(new SeatEvent(1, 5, 10, SeatEventType.TAKEN));
+        verifyNoMoreInteractions(seatEventService);
+        assertThat(holds.isHeldByOther(otherBuyer)).isFalse();
+    }
 
-        when(ticketRepository.isPlaceAvailable(1, 5, 10)).thenReturn(false);
-        when(ticketRepository.save(ticket)).thenReturn(Optional.empty());
+    @Test
+    void whenBuyTicketAndPlaceIsHeldByOtherUserThenReturnAlreadyTakenWithoutDatabase() {
+        Ticket ticket = createTicket(5, 10);
+
+        when(seatHoldService.isHeldByOther(ticket)).thenReturn(true);
+
+        PurchaseResult result = ticketService.buyTicket(ticket);
+
+        assertThat(result.status()).isEqualTo(PurchaseStatus.ALREADY_TAKEN);
+        verifyNoInteractions(ticketRepository);
+    }
+
+    @Test
+    void whenBuyTicketAndClaimLosesRaceThenMarkPlaceTaken() {
+        Ticket ticket = createTicket(5, 10);
+
+        when(ticketRepository.claim(ticket)).thenReturn(PurchaseResult.failed(PurchaseStatus.ALREADY_TAKEN));
+
+        PurchaseResult result = ticketService.buyTicket(ticket);
+
+        assertThat(result.status()).isEqualTo(PurchaseStatus.ALREADY_TAKEN);
+        assertThat(seatMap.isTaken(5, 10)).isTrue();
+        verify(seatMapService, never()).invalidate(any());
+    }
+
+    @Test
+    void whenBuyTicketAndDatabaseFailsThenReturnDbErrorAndKeepPlaceFree() {
+        Ticket ticket = createTicket(5, 10);
+
+        when(ticketRepository.claim(ticket)).thenReturn(PurchaseResult.failed(PurchaseStatus.DB_ERROR));
+
+        PurchaseResult result = ticketService.buyTicket(ticket);
+
+        assertThat(result.status()).isEqualTo(PurchaseStatus.DB_ERROR);
+        assertThat(seatMap.isTaken(5, 10)).isFalse();
+        verifyNoInteractions(seatEventService);
+    }
+
+    @Test
+    void whenBuyTicketAndClaimReportsInvalidSeatThenInvalidateSeatMap() {
+        Ticket ticket = createTicket(5, 10);
+
+        when(ticketRepository.claim(ticket)).thenReturn(PurchaseResult.failed(PurchaseStatus.INVALID_SEAT));
+
+        PurchaseResult result = ticketService.buyTicket(ticket);
+
+        assertThat(result.status()).isEqualTo(PurchaseStatus.INVALID_SEAT);
+        verify(seatMapService).invalidate(1);
+    }
+
+    @Test
+    void whenBuyTicketWithPlaceOutsideHallThenReturnInvalidSeatWithoutDatabase() {
+        Ticket ticket = createTicket(11, 1);
 
-        Optional<Ticket> result = ticketService.buyTicket(ticket);
+        PurchaseResult result = ticketService.buyTicket(ticket);
 
-        assertThat(result).isEmpty();
-        verify(ticketRepository).isPlaceAvailable(1, 5, 10);
-        verify(ticketRepository).save(ticket);
+        assertThat(result.status()).isEqualTo(PurchaseStatus.INVALID_SEAT);
+        verifyNoInteractions(ticketRepository);
+    }
+
+    @Test
+    void whenBuyTicketForUnknownSessionThenReturnInvalidSeat() {
+        Ticket ticket = createTicket(5, 10);
+        ticket.setSessionId(999);
+
+        when(seatMapService.findBySessionId(999)).thenReturn(Optional.empty());
+
+        PurchaseResult result = ticketService.buyTicket(ticket);
+
+        assertThat(result.status()).isEqualTo(PurchaseStatus.INVALID_SEAT);
+        verifyNoInteractions(ticketRepository);
+    }
+
+    @Test
+    void whenBuyTicketsAndAllPlacesAreFreeThenClaimThemTogether() {
+        List<Ticket> tickets = List.of(createTicket(3, 1), createTicket(3, 2));
+        List<Ticket> savedTickets = List.of(createTicket(3, 1), createTicket(3, 2));
+        savedTickets.get(0).setId(1);
+        savedTickets.get(1).setId(2);
+
+        when(ticketRepository.claimAll(tickets)).thenReturn(BasketPurchaseResult.sold(savedTickets));
+
+        BasketPurchaseResult result = ticketService.buyTickets(tickets);
+
+        assertThat(result.status()).isEqualTo(PurchaseStatus.SOLD);
+        assertThat(result.tickets()).isEqualTo(savedTickets);
+        assertThat(seatMap.isTaken(3, 1)).isTrue();
+        assertThat(seatMap.isTaken(3, 2)).isTrue();
+        verify(ticketRepository).claimAll(tickets);
+        verify(seatEventService).publish(new SeatEvent(1, 3, 1, SeatEventType.TAKEN));
+        verify(seatEventService).publish(new SeatEvent(1, 3, 2, SeatEventType.TAKEN));
+    }
+
+    @Test
+    void whenBuyTicketsAndOnePlaceIsTakenThenRejectWholeBasketWithoutDatabase() {
+        seatMap.take(3, 2);
+        List<Ticket> tickets = List.of(createTicket(3, 1), createTicket(3, 2));
+
+        BasketPurchaseResult result = ticketService.buyTickets(tickets);
+
+        assertThat(result.status()).isEqualTo(PurchaseStatus.ALREADY_TAKEN);
+        assertThat(seatMap.isTaken(3, 1)).isFalse();
+        verifyNoInteractions(ticketRepository);
+    }
+
+    @Test
+    void whenBuyTicketsWithDuplicatePlaceThenReturnInvalidSeat() {
+        List<Ticket> tickets = List.of(createTicket(3, 1), createTicket(3, 1));
+
+        BasketPurchaseResult result = ticketService.buyTickets(tickets);
+
+        assertThat(result.status()).isEqualTo(PurchaseStatus.INVALID_SEAT);
+        verifyNoInteractions(ticketRepository);
+    }
+
+    @Test
+    void whenBuyTicketsForDifferentSessionsThenReturnInvalidSeat() {
+        Ticket other = createTicket(3, 2);
+        other.setSessionId(2);
+        List<Ticket> tickets = List.of(createTicket(3, 1), other);
+
+        BasketPurchaseResult result = ticketService.buyTickets(tickets);
+
+        assertThat(result.status()).isEqualTo(PurchaseStatus.INVALID_SEAT);
+        verifyNoInteractions(ticketRepository);
+    }
+
+    @Test
+    void whenBuyTicketsAndClaimLosesRaceThenInvalidateSeatMap() {
+        List<Ticket> tickets = List.of(createTicket(3, 1), createTicket(3, 2));
+
+        when(ticketRepository.claimAll(tickets)).thenReturn(BasketPurchaseResult.failed(PurchaseStatus.ALREADY_TAKEN));
+
+        BasketPurchaseResult result = ticketService.buyTickets(tickets);
+
+        assertThat(result.status()).isEqualTo(PurchaseStatus.ALREADY_TAKEN);
+        assertThat(seatMap.isTaken(3, 1)).isFalse();
+        verify(seatMapService).invalidate(1);
+    }
+
+    @Test
+    void whenBuyEmptyBasketThenReturnInvalidSeat() {
+        BasketPurchaseResult result = ticketService.buyTickets(List.of());
+
+        assertThat(result.status()).isEqualTo(PurchaseStatus.INVALID_SEAT);
+        verifyNoInteractions(ticketRepository);
+    }
+
+    @Test
+    void whenTwoBuyersRaceForSamePlaceThenLoserIsRejectedWithoutDatabase() throws Exception {
+        CountDownLatch claimStarted = new CountDownLatch(1);
+        CountDownLatch finishClaim = new CountDownLatch(1);
+        when(ticketRepository.claim(any())).thenAnswer(invocation -> {
+            claimStarted.countDown();
+            finishClaim.await();
+            return PurchaseResult.sold(invocation.getArgument(0));
+        });
+        ExecutorService buyers = Executors.newFixedThreadPool(2);
+        try {
+            Future<PurchaseResult> first = buyers.submit(() -> ticketService.buyTicket(createTicket(5, 10)));
+            assertThat(claimStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            Ticket rival = createTicket(5, 10);
+            rival.setUserId(2);
+            AtomicReference<Thread> rivalThread = new AtomicReference<>();
+            Future<PurchaseResult> second = buyers.submit(() -> {
+                rivalThread.set(Thread.currentThread());
+                return ticketService.buyTicket(rival);
+            });
+            await().atMost(Duration.ofSeconds(5))
+                    .until(() -> rivalThread.get() != null && rivalThread.get().getState() == Thread.State.WAITING);
+            finishClaim.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS).status()).isEqualTo(PurchaseStatus.SOLD);
+            assertThat(second.get(5, TimeUnit.SECONDS).status()).isEqualTo(PurchaseStatus.ALREADY_TAKEN);
+            verify(ticketRepository, times(1)).claim(any());
+        } finally {
+            finishClaim.countDown();
+            buyers.shutdownNow();
+        }
+    }
+
+    @Test
+    void whenBuyersTargetDifferentSessionsThenTheyDoNotWaitForEachOther() throws Exception {
+        SeatMap otherSeatMap = new SeatMap(10, 15);
+        when(seatMapService.findBySessionId(2)).thenReturn(Optional.of(otherSeatMap));
+        CountDownLatch finishClaim = new CountDownLatch(1);
+        when(ticketRepository.claim(argThat(ticket -> ticket != null && ticket.getSessionId() == 1)))
+                .thenAnswer(invocation -> {
+                    finishClaim.await();
+                    return PurchaseResult.sold(invocation.getArgument(0));
+                });
+        Ticket other = createTicket(5, 10);
+        other.setSessionId(2);
+        when(ticketRepository.claim(other)).thenReturn(PurchaseResult.sold(other));
+        ExecutorService buyers = Executors.newSingleThreadExecutor();
+        try {
+            Future<PurchaseResult> blocked = buyers.submit(() -> ticketService.buyTicket(createTicket(5, 10)));
+
+            assertThat(ticketService.buyTicket(other).status()).isEqualTo(PurchaseStatus.SOLD);
+            finishClaim.countDown();
+            assertThat(blocked.get(5, TimeUnit.SECONDS).status()).isEqualTo(PurchaseStatus.SOLD);
+        } finally {
+            finishClaim.countDown();
+            buyers.shutdownNow();
+        }
+    }
+
+    private Ticket createTicket(int rowNumber, int placeNumber) {
+        return Ticket.builder()
+                .sessionId(1)
+                .rowNumber(rowNumber)
+                .placeNumber(placeNumber)
+                .userId(1)
+                .build();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,125 @@
+package ru.job4j.cinema.service.impl;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ru.job4j.cinema.model.User;
+import ru.job4j.cinema.service.UserService;
+import ru.job4j.cinema.util.LruCache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class TokenAuthenticationServiceTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T12:00:00Z");
+    private static final Duration TTL = Duration.ofHours(1);
+
+    @Mock
+    private UserService userService;
+
+    private TokenAuthenticationService authenticationService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        authenticationService = service(Clock.fixed(NOW, ZoneOffset.UTC));
+        when(userService.findById(1)).thenReturn(Optional.of(createUser()));
+    }
+
+    @Test
+    void whenSignInThenIssueSignedHttpOnlyCookieWithoutSession() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        authenticationService.signIn(createUser(), request, response);
+
+        String header = response.getHeader(HttpHeaders.SET_COOKIE);
+        assertThat(header).startsWith(TokenAuthenticationService.COOKIE_NAME + "=1." + NOW.plus(TTL).getEpochSecond() + ".");
+        assertThat(header).contains("HttpOnly", "SameSite=Lax", "Max-Age=3600", "Path=/");
+        assertThat(header).doesNotContain("secret");
+        assertThat(request.getSession(false)).isNull();
+    }
+
+    @Test
+    void whenRequestCarriesValidTokenThenResolveUserFromCache() {
+        String token = authenticationService.issue(1);
+
+        Optional<User> first = authenticationService.findCurrentUser(requestWithToken(token));
+        Optional<User> second = authenticationService.findCurrentUser(requestWithToken(token));
+
+        assertThat(first).isPresent();
+        assertThat(first.get().getFullName()).isEqualTo("Test User");
+        assertThat(first.get().getPassword()).isNull();
+        assertThat(second.get()).isSameAs(first.get());
+        verify(userService, times(1)).findById(1);
+    }
+
+    @Test
+    void whenTokenIsTamperedThenIgnoreIt() {
+        String token = authenticationService.issue(1);
+        String forged = "2" + token.substring(1);
+
+        assertThat(authenticationService.findCurrentUser(requestWithToken(forged))).isEmpty();
+        assertThat(authenticationService.verify("garbage")).isEmpty();
+        assertThat(authenticationService.verify("1.2")).isEmpty();
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    void whenTokenIsExpiredThenIgnoreIt() {
+        String token = authenticationService.issue(1);
+        TokenAuthenticationService later = service(Clock.fixed(NOW.plus(TTL), ZoneOffset.UTC));
+
+        assertThat(later.findCurrentUser(requestWithToken(token))).isEmpty();
+    }
+
+    @Test
+    void whenTokenSignedWithOtherSecretThenIgnoreIt() {
+        TokenAuthenticationService otherNode = new TokenAuthenticationService(userService, new LruCache<>(16),
+                "other-secret", TTL, false, Clock.fixed(NOW, ZoneOffset.UTC));
+
+        assertThat(otherNode.verify(authenticationService.issue(1))).isEmpty();
+    }
+
+    @Test
+    void whenSignOutThenExpireCookie() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        authenticationService.signOut(new MockHttpServletRequest(), response);
+
+        assertThat(response.getHeader(HttpHeaders.SET_COOKIE))
+                .startsWith(TokenAuthenticationService.COOKIE_NAME + "=;")
+                .contains("Max-Age=0");
+    }
+
+    @Test
+    void whenNoCookieThenNoCurrentUser() {
+        assertThat(authenticationService.findCurrentUser(new MockHttpServletRequest())).isEmpty();
+    }
+
+    private TokenAuthenticationService service(Clock clock) {
+        return new TokenAuthenticationService(userService, new LruCache<>(16), "test-secret", TTL, false, clock);
+    }
+
+    private MockHttpServletRequest requestWithToken(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(new Cookie(TokenAuthenticationService.COOKIE_NAME, token));
+        return request;
+    }
+
+    private User createUser() {
+        return User.builder().id(1).fullName("Test User").email("test@example.com").password("secret").build();
+    }
+}
@@ -1,13 +1,20 @@
 package ru.job4j.cinema.service.impl;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.support.ExecutorServiceAdapter;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import ru.job4j.cinema.model.User;
 import ru.job4j.cinema.repository.UserRepository;
+import ru.job4j.cinema.service.EmailIndexService;
+import ru.job4j.cinema.service.PasswordService;
+import ru.job4j.cinema.util.PasswordHashingBusyException;
 
+import java.time.Duration;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -18,12 +25,23 @@ class UserServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
-    @InjectMocks
+    @Mock
+    private PasswordService busyPasswordService;
+
+    @Mock
+    private EmailIndexService emailIndexService;
+
+    private PasswordServiceImpl passwordService;
+
     private UserServiceImpl userService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        passwordService = new PasswordServiceImpl(new BCryptPasswordEncoder(4),
+                new ExecutorServiceAdapter(new SyncTaskExecutor()), Duration.ofSeconds(1), new SimpleMeterRegistry());
+        userService = new UserServiceImpl(userRepository, passwordService, emailIndexService);
+        when(emailIndexService.mightExist(any())).thenReturn(true);
     }
 
     @Test
@@ -55,6 +73,113 @@ class UserServiceImplTest {
         verify(userRepository).save(user);
     }
 
+    @Test
+    void whenRegisterThenPasswordIsStoredHashed() {
+        User user = User.builder()
+                .fullName("Test User")
+                .email("test@example.com")
+                .password("password123")
+                .build();
+        when(userRepository.existsByEmail("test@example.com")).thenReturn(false);
+        when(userRepository.save(any())).thenAnswer(invocation -> Optional.of(invocation.getArgument(0)));
+
+        userService.register(user);
+
+        verify(userRepository).save(argThat(saved -> saved.getPassword().startsWith("$2")
+                && passwordService.matches("password123", saved.getPassword())));
+    }
+
+    @Test
+    void whenEmailIsDefinitelyNewThenSkipExistenceQueryAndIndexSavedUser() {
+        User user = User.builder()
+                .fullName("Test User")
+                .email("new@example.com")
+                .password("password123")
+                .build();
+        when(emailIndexService.mightExist("new@example.com")).thenReturn(false);
+        when(userRepository.save(any())).thenAnswer(invocation -> Optional.of(invocation.getArgument(0)));
+
+        Optional<User> result = userService.register(user);
+
+        assertThat(result).isPresent();
+        verify(userRepository, never()).existsByEmail(any());
+        verify(emailIndexService).add("new@example.com");
+    }
+
+    @Test
+    void whenSaveFailsThenEmailIsNotIndexed() {
+        User user = User.builder()
+                .fullName("Test User")
+                .email("racing@example.com")
+                .password("password123")
+                .build();
+        when(emailIndexService.mightExist("racing@example.com")).thenReturn(false);
+        when(userRepository.save(any())).thenReturn(Optional.empty());
+
+        assertThat(userService.register(user)).isEmpty();
+        verify(emailIndexService, never()).add(any());
+    }
+
+    @Test
+    void whenRegisterWithoutPasswordThenReturnEmpty() {
+        User user = User.builder().fullName("Test User").email("test@example.com").build();
+
+        Optional<User> result = userService.register(user);
+
+        assertThat(result).isEmpty();
+        verify(userRepository, never()).save(any());
+    }
+
+    @Test
+    void whenLoginWithHashedPasswordThenReturnUserWithoutRehash() {
+        User user = User.builder()
+                .id(1)
+                .email("test@example.com")
+                .password(passwordService.hash("correctPassword"))
+                .build();
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(user));
+
+        assertThat(userService.findByEmailAndPassword("test@example.com", "correctPassword")).isPresent();
+        assertThat(userService.findByEmailAndPassword("test@example.com", "wrongPassword")).isEmpty();
+        verify(userRepository, never()).updatePassword(any(), any());
+    }
+
+    @Test
+    void whenLoginWithLegacyPlaintextPasswordThenStoreHash() {
+        User user = User.builder()
+                .id(1)
+                .email("test@example.com")
+                .password("correctPassword")
+                .build();
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(user));
+        when(userRepository.updatePassword(eq(1), any())).thenReturn(true);
+
+        Optional<User> result = userService.findByEmailAndPassword("test@example.com", "correctPassword");
+
+        assertThat(result).isPresent();
+        assertThat(result.get().getPassword()).startsWith("$2");
+        verify(userRepository).updatePassword(eq(1), argThat(hash -> passwordService.matches("correctPassword", hash)));
+    }
+
+    @Test
+    void whenRehashIsRejectedThenLoginStillSucceeds() {
+        User user = User.builder()
+                .id(1)
+                .email("test@example.com")
+                .password("correctPassword")
+                .build();
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(user));
+        when(busyPasswordService.matches("correctPassword", "correctPassword")).thenReturn(true);
+        when(busyPasswordService.needsRehash("correctPassword")).thenReturn(true);
+        when(busyPasswordService.hash("correctPassword")).thenThrow(new PasswordHashingBusyException("busy"));
+
+        Optional<User> result = new UserServiceImpl(userRepository, busyPasswordService, emailIndexService)
+                .findByEmailAndPassword("test@example.com", "correctPassword");
+
+        assertThat(result).isPresent();
+        verify(userRepository, never()).updatePassword(any(), any());
+    }
+
     @Test
     void whenRegisterExistingUserThenReturnEmpty() {
         User user = User.builder()
@@ -122,6 +247,18 @@ class UserServiceImplTest {
         verify(userRepository).findByEmail("nonexisting@example.com");
     }
 
+    @Test
+    void whenLoginWithUnknownEmailThenPasswordIsCheckedAgainstDummyHash() {
+        when(userRepository.findByEmail("nonexisting@example.com")).thenReturn(Optional.empty());
+
+        Optional<User> result = new UserServiceImpl(userRepository, busyPasswordService, emailIndexService)
+                .findByEmailAndPassword("nonexisting@example.com", "anyPassword");
+
+        assertThat(result).isEmpty();
+        verify(busyPasswordService).matchDummy("anyPassword");
+        verify(busyPasswordService, never()).matches(any(), any());
+    }
+
     @Test
     void whenFindByExistingIdThenReturnUser() {
         User user = User.builder()
@@ -0,0 +1,52 @@
+package ru.job4j.cinema.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BloomFilterTest {
+
+    @Test
+    void whenValueAddedThenMightContainIt() {
+        BloomFilter filter = new BloomFilter(1000, 0.01);
+
+        filter.add("user@example.com");
+
+        assertThat(filter.mightContain("user@example.com")).isTrue();
+        assertThat(filter.mightContain("other@example.com")).isFalse();
+    }
+
+    @Test
+    void whenFilledToExpectedSizeThenNoFalseNegativesAndFalsePositivesNearTarget() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("user" + i + "@example.com");
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain("user" + i + "@example.com")).isTrue();
+            if (filter.mightContain("stranger" + i + "@example.com")) {
+                falsePositives++;
+            }
+        }
+
+        assertThat(falsePositives).isLessThan(200);
+    }
+
+    @Test
+    void whenSizedThenReportBitsHashesAndMemory() {
+        BloomFilter filter = new BloomFilter(100_000, 0.01);
+
+        assertThat(filter.bitSize()).isBetween(958_000L, 958_600L);
+        assertThat(filter.hashFunctions()).isEqualTo(7);
+        assertThat(filter.memoryBytes()).isEqualTo(filter.bitSize() / 8);
+    }
+
+    @Test
+    void whenRateIsOutOfRangeThenThrow() {
+        assertThatThrownBy(() -> new BloomFilter(10, 1.0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BloomFilter(0, 0.01)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
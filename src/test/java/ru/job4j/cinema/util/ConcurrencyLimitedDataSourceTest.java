@@ -0,0 +1,101 @@
+package ru.job4j.cinema.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.*;
+
+class ConcurrencyLimitedDataSourceTest {
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        MockitoAnnotations.openMocks(this);
+        registry = new SimpleMeterRegistry();
+        when(target.getConnection()).thenReturn(connection);
+    }
+
+    @Test
+    void whenConnectionClosedThenPermitIsReturned() throws SQLException {
+        var dataSource = limited(1, 0, Duration.ZERO);
+
+        dataSource.getConnection().close();
+        Connection second = dataSource.getConnection();
+
+        assertThat(second).isNotNull();
+        verify(connection).close();
+    }
+
+    @Test
+    void whenAllPermitsTakenAndQueueIsFullThenRejectImmediately() throws SQLException {
+        var dataSource = limited(1, 0, Duration.ofMinutes(1));
+        dataSource.getConnection();
+
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(DatabaseBusyException.class);
+        assertThat(registry.get("db.limiter.rejected").counter().count()).isEqualTo(1);
+        verify(target, times(1)).getConnection();
+    }
+
+    @Test
+    void whenWaitTimesOutThenReject() throws SQLException {
+        var dataSource = limited(1, 1, Duration.ofMillis(50));
+        dataSource.getConnection();
+
+        assertThatThrownBy(dataSource::getConnection)
+                .isInstanceOf(DatabaseBusyException.class)
+                .hasMessageContaining("Timed out");
+        assertThat(dataSource.getWaiting()).isZero();
+    }
+
+    @Test
+    void whenPermitIsReleasedThenQueuedCallerProceeds() throws Exception {
+        var dataSource = limited(1, 1, Duration.ofSeconds(5));
+        Connection first = dataSource.getConnection();
+
+        CompletableFuture<Connection> queued = CompletableFuture.supplyAsync(() -> {
+            try {
+                return dataSource.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        await().atMost(5, TimeUnit.SECONDS).until(() -> dataSource.getWaiting() == 1);
+        first.close();
+
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isNotNull();
+        assertThat(dataSource.getWaiting()).isZero();
+    }
+
+    @Test
+    void whenPoolFailsThenPermitIsReturned() throws SQLException {
+        var dataSource = limited(1, 0, Duration.ZERO);
+        when(target.getConnection()).thenThrow(new SQLException("down")).thenReturn(connection);
+
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLException.class);
+        assertThat(dataSource.getConnection()).isNotNull();
+    }
+
+    private ConcurrencyLimitedDataSource limited(int maxConcurrent, int queueDepth, Duration waitTimeout) {
+        return new ConcurrencyLimitedDataSource(target, maxConcurrent, queueDepth, waitTimeout, registry);
+    }
+}
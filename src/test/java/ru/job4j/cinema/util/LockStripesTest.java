@@ -0,0 +1,61 @@
+package ru.job4j.cinema.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LockStripesTest {
+
+    @Test
+    void whenStripeCountIsNotPowerOfTwoThenRoundUp() {
+        assertThat(new LockStripes(1).size()).isEqualTo(1);
+        assertThat(new LockStripes(100).size()).isEqualTo(128);
+        assertThat(new LockStripes(256).size()).isEqualTo(256);
+    }
+
+    @Test
+    void whenSameKeyThenSameLock() {
+        LockStripes stripes = new LockStripes(64);
+
+        assertThat(stripes.get(42)).isSameAs(stripes.get(42));
+    }
+
+    @Test
+    void whenConsecutiveKeysThenTheySpreadOverStripes() {
+        LockStripes stripes = new LockStripes(64);
+
+        long distinct = IntStream.range(0, 64).mapToObj(stripes::get).distinct().count();
+
+        assertThat(distinct).isGreaterThan(32);
+    }
+
+    @Test
+    void whenKeysDifferOnlyInHighHalfThenTheySpreadOverStripes() {
+        LockStripes stripes = new LockStripes(64);
+
+        long distinct = LongStream.range(0, 64).mapToObj(high -> stripes.get(high << 32 | 1)).distinct().count();
+
+        assertThat(distinct).isGreaterThan(32);
+    }
+
+    @Test
+    void whenGetAllThenLocksAreDistinctAndInStableOrder() {
+        LockStripes stripes = new LockStripes(64);
+
+        List<ReentrantLock> forward = stripes.getAll(List.of(1L, 2L, 3L, 1L));
+        List<ReentrantLock> backward = stripes.getAll(List.of(3L, 2L, 1L));
+
+        assertThat(forward).doesNotHaveDuplicates().containsExactlyElementsOf(backward);
+    }
+
+    @Test
+    void whenStripeCountIsNotPositiveThenThrow() {
+        assertThatThrownBy(() -> new LockStripes(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,162 @@
+package ru.job4j.cinema.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LruCacheTest {
+
+    @Test
+    void whenLoadRacesWithEarlierLoadThenFirstStoredValueIsReturned() {
+        LruCache<Integer, String> cache = new LruCache<>(4);
+
+        Optional<String> result = cache.get(1, key -> {
+            cache.get(1, inner -> Optional.of("first"));
+            return Optional.of("second");
+        });
+
+        assertThat(result).contains("first");
+        assertThat(cache.get(1, key -> Optional.empty())).contains("first");
+    }
+
+    @Test
+    void whenGetTwiceThenLoadOnceAndCountHitAndMiss() {
+        LruCache<Integer, String> cache = new LruCache<>(4);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1, key -> {
+            loads.incrementAndGet();
+            return Optional.of("one");
+        });
+        Optional<String> result = cache.get(1, key -> Optional.of("other"));
+
+        assertThat(result).contains("one");
+        assertThat(loads).hasValue(1);
+        assertThat(cache.hitCount()).isEqualTo(1);
+        assertThat(cache.missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void whenLoaderReturnsEmptyThenNothingIsCached() {
+        LruCache<Integer, String> cache = new LruCache<>(4);
+
+        cache.get(1, key -> Optional.empty());
+
+        assertThat(cache.size()).isZero();
+        assertThat(cache.get(1, key -> Optional.of("one"))).contains("one");
+    }
+
+    @Test
+    void whenSizeExceededThenLeastRecentlyUsedIsEvicted() {
+        LruCache<Integer, String> cache = new LruCache<>(2);
+        cache.put(1, "one");
+        cache.put(2, "two");
+        cache.get(1, key -> Optional.empty());
+
+        cache.put(3, "three");
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.evictionCount()).isEqualTo(1);
+        assertThat(cache.get(2, key -> Optional.empty())).isEmpty();
+        assertThat(cache.get(1, key -> Optional.empty())).contains("one");
+    }
+
+    @Test
+    void whenGetAllThenOnlyMissingKeysAreLoaded() {
+        LruCache<Integer, String> cache = new LruCache<>(4);
+        cache.put(1, "one");
+
+        Map<Integer, String> result = cache.getAll(List.of(1, 2), missing -> {
+            assertThat(missing).containsExactly(2);
+            return Map.of(2, "two");
+        });
+
+        assertThat(result).containsEntry(1, "one").containsEntry(2, "two");
+        assertThat(cache.hitCount()).isEqualTo(1);
+        assertThat(cache.missCount()).isEqualTo(1);
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    void whenInvalidatedDuringLoadThenLoadedValueIsNotStored() {
+        LruCache<Integer, String> cache = new LruCache<>(4);
+
+        Optional<String> result = cache.get(1, key -> {
+            cache.invalidateAll();
+            return Optional.of("stale");
+        });
+
+        assertThat(result).contains("stale");
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void whenMaxSizeIsNotPositiveThenThrowException() {
+        assertThatThrownBy(() -> new LruCache<>(0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void whenWeightExceededThenEvictEldestUntilUnderLimit() {
+        LruCache<Integer, byte[]> cache = new LruCache<>(10, bytes -> bytes.length);
+        cache.put(1, new byte[4]);
+        cache.put(2, new byte[4]);
+
+        cache.put(3, new byte[6]);
+
+        assertThat(cache.weight()).isEqualTo(10);
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.evictionCount()).isEqualTo(1);
+        assertThat(cache.get(1, key -> Optional.empty())).isEmpty();
+    }
+
+    @Test
+    void whenValueHeavierThanCacheThenItIsNotStored() {
+        LruCache<Integer, byte[]> cache = new LruCache<>(10, bytes -> bytes.length);
+        cache.put(1, new byte[4]);
+
+        cache.put(2, new byte[11]);
+
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.weight()).isEqualTo(4);
+    }
+
+    @Test
+    void whenValueReplacedOrInvalidatedThenWeightIsUpdated() {
+        LruCache<Integer, byte[]> cache = new LruCache<>(10, bytes -> bytes.length);
+        cache.put(1, new byte[4]);
+        cache.put(1, new byte[2]);
+
+        assertThat(cache.weight()).isEqualTo(2);
+
+        cache.invalidate(1);
+
+        assertThat(cache.weight()).isZero();
+    }
+
+    @Test
+    void whenPutIfAbsentOnCachedKeyThenKeepExistingValue() {
+        LruCache<Integer, String> cache = new LruCache<>(4);
+
+        assertThat(cache.putIfAbsent(1, "one")).isEmpty();
+        assertThat(cache.putIfAbsent(1, "other")).contains("one");
+        assertThat(cache.get(1, key -> Optional.empty())).contains("one");
+    }
+
+    @Test
+    void whenInvalidateWithStaleExpectedValueThenKeepEntry() {
+        LruCache<Integer, String> cache = new LruCache<>(4);
+        cache.put(1, "new");
+
+        assertThat(cache.invalidate(1, "old")).isFalse();
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.invalidate(1, "new")).isTrue();
+        assertThat(cache.size()).isZero();
+    }
+}
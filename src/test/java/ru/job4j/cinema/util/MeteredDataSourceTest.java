@@ -0,0 +1,77 @@
+package ru.job4j.cinema.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class MeteredDataSourceTest {
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    private SimpleMeterRegistry registry;
+
+    private MeteredDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        registry = new SimpleMeterRegistry();
+        dataSource = new MeteredDataSource(target, "test", registry);
+    }
+
+    @Test
+    void whenConnectionAcquiredThenRecordSuccess() throws SQLException {
+        when(target.getConnection()).thenReturn(connection);
+
+        assertThat(dataSource.getConnection()).isSameAs(connection);
+
+        assertThat(registry.get("jdbc.connections.acquire").tag("outcome", "success").timer().count()).isEqualTo(1);
+        assertThat(registry.get("jdbc.connections.acquire").tag("outcome", "failure").timer().count()).isZero();
+    }
+
+    @Test
+    void whenAcquisitionTimesOutThenRecordFailureAndRethrow() throws SQLException {
+        when(target.getConnection()).thenThrow(new SQLTransientConnectionException("timeout"));
+
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+
+        assertThat(registry.get("jdbc.connections.acquire").tag("outcome", "failure").timer().count()).isEqualTo(1);
+        assertThat(dataSource.getPending()).isZero();
+    }
+
+    @Test
+    void whenThreadWaitsForConnectionThenItIsCountedAsPending() throws SQLException {
+        when(target.getConnection()).thenAnswer(invocation -> {
+            assertThat(registry.get("jdbc.connections.pending").gauge().value()).isEqualTo(1);
+            return connection;
+        });
+
+        dataSource.getConnection();
+
+        assertThat(registry.get("jdbc.connections.pending").gauge().value()).isZero();
+    }
+
+    @Test
+    void whenClosedThenWrappedPoolIsClosed() throws Exception {
+        DataSource pool = mock(DataSource.class, withSettings().extraInterfaces(AutoCloseable.class));
+
+        new MeteredDataSource(pool, "closing", registry).close();
+
+        verify((AutoCloseable) pool).close();
+    }
+}
@@ -0,0 +1,159 @@
+package ru.job4j.cinema.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RateLimiterTest {
+
+    private MutableClock clock;
+    private RateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        rateLimiter = new RateLimiter(clock, 2, 3, 2);
+    }
+
+    @Test
+    void whenBurstIsUsedUpThenRejectWithTimeUntilNextToken() {
+        assertThat(rateLimiter.tryAcquire("a")).isZero();
+        assertThat(rateLimiter.tryAcquire("a")).isZero();
+        assertThat(rateLimiter.tryAcquire("a")).isZero();
+
+        assertThat(rateLimiter.tryAcquire("a")).isEqualTo(500);
+    }
+
+    @Test
+    void whenTimePassesThenTokensAreRefilledAtRate() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire("a");
+        }
+
+        clock.advance(Duration.ofMillis(400));
+        assertThat(rateLimiter.tryAcquire("a")).isEqualTo(100);
+        clock.advance(Duration.ofMillis(100));
+        assertThat(rateLimiter.tryAcquire("a")).isZero();
+        assertThat(rateLimiter.tryAcquire("a")).isEqualTo(500);
+    }
+
+    @Test
+    void whenDifferentKeysThenBucketsAreIndependent() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire("a");
+        }
+
+        assertThat(rateLimiter.tryAcquire("a")).isPositive();
+        assertThat(rateLimiter.tryAcquire("b")).isZero();
+    }
+
+    @Test
+    void whenMaxKeysReachedWithBusyBucketsThenNewKeysPassUntracked() {
+        rateLimiter.tryAcquire("a");
+        rateLimiter.tryAcquire("b");
+        for (int i = 0; i < 5; i++) {
+            assertThat(rateLimiter.tryAcquire("key-" + i)).isZero();
+        }
+
+        assertThat(rateLimiter.tryAcquire("other")).isZero();
+        assertThat(rateLimiter.size()).isEqualTo(2);
+        assertThat(rateLimiter.untrackedCount()).isEqualTo(6);
+    }
+
+    @Test
+    void whenMaxKeysReachedWithIdleBucketsThenNewKeyEvictsThemAndIsTracked() {
+        rateLimiter.tryAcquire("a");
+        rateLimiter.tryAcquire("b");
+        clock.advance(Duration.ofMillis(500));
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(rateLimiter.tryAcquire("c")).isZero();
+        }
+
+        assertThat(rateLimiter.tryAcquire("c")).isPositive();
+        assertThat(rateLimiter.size()).isEqualTo(1);
+        assertThat(rateLimiter.untrackedCount()).isZero();
+    }
+
+    @Test
+    void whenBucketIsFullAgainThenEvictIdleDropsIt() {
+        rateLimiter.tryAcquire("a");
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire("b");
+        }
+
+        clock.advance(Duration.ofMillis(500));
+        rateLimiter.evictIdle();
+
+        assertThat(rateLimiter.size()).isEqualTo(1);
+        assertThat(rateLimiter.tryAcquire("c")).isZero();
+        assertThat(rateLimiter.size()).isEqualTo(2);
+    }
+
+    @Test
+    void whenManyThreadsRaceThenOnlyBurstIsGranted() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(clock, 1, 50, 16);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger granted = new AtomicInteger();
+        for (int i = 0; i < 200; i++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (limiter.tryAcquire("shared") == 0) {
+                    granted.incrementAndGet();
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+
+        assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(granted.get()).isEqualTo(50);
+    }
+
+    @Test
+    void whenRateIsNotPositiveThenThrow() {
+        assertThatThrownBy(() -> new RateLimiter(clock, 0, 1, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package ru.job4j.cinema.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+    private List<String> expired;
+    private TimingWheel<String> wheel;
+
+    @BeforeEach
+    void setUp() {
+        expired = new ArrayList<>();
+        wheel = new TimingWheel<>(100, 8, 0, expired::add);
+    }
+
+    @Test
+    void whenDeadlineNotReachedThenNothingExpires() {
+        wheel.schedule("a", 500);
+
+        wheel.advance(499);
+
+        assertThat(expired).isEmpty();
+    }
+
+    @Test
+    void whenDeadlineReachedThenValueExpiresOnce() {
+        wheel.schedule("a", 500);
+
+        wheel.advance(500);
+        wheel.advance(1000);
+
+        assertThat(expired).containsExactly("a");
+    }
+
+    @Test
+    void whenDeadlineIsSeveralRoundsAwayThenExpireOnlyInItsRound() {
+        wheel.schedule("far", 2_000);
+
+        wheel.advance(1_999);
+        assertThat(expired).isEmpty();
+
+        wheel.advance(2_000);
+        assertThat(expired).containsExactly("far");
+    }
+
+    @Test
+    void whenCancelledThenNeverExpires() {
+        TimingWheel.Timeout<String> timeout = wheel.schedule("a", 300);
+        wheel.advance(100);
+
+        timeout.cancel();
+        wheel.advance(1_000);
+
+        assertThat(expired).isEmpty();
+    }
+
+    @Test
+    void whenDeadlineAlreadyPassedThenExpireOnNextTick() {
+        wheel.advance(1_000);
+        wheel.schedule("late", 200);
+
+        wheel.advance(1_100);
+
+        assertThat(expired).containsExactly("late");
+    }
+
+    @Test
+    void whenManyTimeoutsThenExpireInDeadlineOrder() {
+        wheel.schedule("c", 700);
+        wheel.schedule("a", 100);
+        wheel.schedule("b", 400);
+
+        wheel.advance(1_000);
+
+        assertThat(expired).containsExactly("a", "b", "c");
+    }
+}